@@ -0,0 +1,52 @@
+package com.mach.api.benchmark;
+
+import com.mach.api.account.model.AccountAction;
+import com.mach.api.account.model.AccountRequest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Request payloads shared by the benchmarks
+ */
+final class AccountFixtures {
+
+    private AccountFixtures() {
+    }
+
+    /**
+     * Account creation request with the same shape as the one sent by AccountApiClient
+     */
+    static AccountRequest accountRequest() {
+        Map<String, Object> args = new LinkedHashMap<>();
+        args.put("name", "Benchmark User");
+        args.put("email", "bench@example.com");
+        args.put("phone", "+56912345678");
+        args.put("country", "CL");
+        args.put("acceptTerms", true);
+
+        return AccountRequest.builder()
+                .actions(new AccountAction[]{
+                        AccountAction.builder().name("create-user").args(args).build(),
+                        AccountAction.builder().name("send-welcome-email").args(Map.of("template", "default")).build()
+                })
+                .build();
+    }
+
+    /**
+     * Account creation request with many actions, each with a large args map
+     *
+     * @param actions Number of actions
+     */
+    static AccountRequest batchRequest(int actions) {
+        AccountAction[] batch = new AccountAction[actions];
+        for (int i = 0; i < actions; i++) {
+            Map<String, Object> args = new LinkedHashMap<>();
+            for (int field = 0; field < 20; field++) {
+                args.put("field" + field, "value-" + i + "-" + field);
+            }
+            batch[i] = AccountAction.builder().name("create-user").args(args).build();
+        }
+        return AccountRequest.builder().actions(batch).build();
+    }
+}
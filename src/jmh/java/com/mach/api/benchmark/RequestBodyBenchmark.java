@@ -0,0 +1,53 @@
+package com.mach.api.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.mach.api.account.model.AccountRequest;
+import com.mach.api.util.JsonMapping;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Turning a request body into the bytes sent on the wire: through an intermediate String (what RestAssured does
+ * with a mapped object), with Jackson's writeValueAsBytes, and into the per-thread buffer used by RestClient.
+ * Run with {@code -prof gc} to compare allocation per request.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RequestBodyBenchmark {
+
+    @Param({"1", "100"})
+    public int actions;
+
+    private AccountRequest request;
+
+    @Setup
+    public void setUp() {
+        request = AccountFixtures.batchRequest(actions);
+    }
+
+    @Benchmark
+    public byte[] viaString() throws JsonProcessingException {
+        return JsonMapping.writerFor(AccountRequest.class).writeValueAsString(request)
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] jacksonBytes() throws JsonProcessingException {
+        return JsonMapping.writerFor(AccountRequest.class).writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public byte[] reusedBuffer() {
+        return JsonMapping.writeValueAsBytes(request);
+    }
+}
@@ -0,0 +1,96 @@
+package com.mach.api.benchmark;
+
+import com.mach.api.account.model.AccountResponse;
+import com.mach.api.client.LoggingProfile;
+import com.mach.api.client.RestClient;
+import com.mach.api.util.CompiledJsonPath;
+import com.mach.api.util.JsonDocument;
+import com.mach.api.util.JsonStreams;
+import com.mach.api.util.ResponseExtractor;
+import io.restassured.http.Method;
+import io.restassured.response.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+/**
+ * ResponseExtractor on a response fetched once from the embedded stub, so only extraction is measured
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ResponseExtractorBenchmark {
+
+    private static final String[] FIELDS = {"accountId", "status", "data.name", "data.email", "data.balance",
+            "data.tags[0]", "data.tags[1]", "data.address.city", "data.address.country", "data.missing"};
+    private static final CompiledJsonPath[] COMPILED_FIELDS = new CompiledJsonPath[FIELDS.length];
+
+    static {
+        for (int i = 0; i < FIELDS.length; i++) {
+            COMPILED_FIELDS[i] = CompiledJsonPath.compile(FIELDS[i]);
+        }
+    }
+
+    private Response response;
+    private byte[] body;
+
+    @Setup
+    public void setUp() throws IOException {
+        try (StubServer server = StubServer.start()) {
+            response = new RestClient(server.getBaseUri(), "/api", null, LoggingProfile.OFF)
+                    .runSimpleWebService(Method.GET, "/accounts/acc-123456")
+                    .extract().response();
+            body = response.asByteArray();
+        }
+    }
+
+    @Benchmark
+    public AccountResponse asObject() {
+        return ResponseExtractor.asObject(response, AccountResponse.class);
+    }
+
+    @Benchmark
+    public String extractJsonPathTopLevel() {
+        return ResponseExtractor.extractJsonPath(response, "accountId");
+    }
+
+    @Benchmark
+    public String extractJsonPathNested() {
+        return ResponseExtractor.extractJsonPath(response, "data.address.city");
+    }
+
+    /**
+     * Ten fields through RestAssured's JsonPath, parsing the body for every field
+     */
+    @Benchmark
+    public void tenFieldsRestAssuredJsonPath(Blackhole blackhole) {
+        for (String field : FIELDS) {
+            blackhole.consume(response.jsonPath().getString(field));
+        }
+    }
+
+    /**
+     * Ten fields from one parsed document with precompiled paths (parse included)
+     */
+    @Benchmark
+    public void tenFieldsParsedDocument(Blackhole blackhole) {
+        JsonDocument document = JsonDocument.parse(body);
+        for (CompiledJsonPath field : COMPILED_FIELDS) {
+            blackhole.consume(document.getString(field));
+        }
+    }
+
+    @Benchmark
+    public String extractPathStreaming() {
+        return JsonStreams.extractPath(new ByteArrayInputStream(body), "data.address.city", String.class);
+    }
+}
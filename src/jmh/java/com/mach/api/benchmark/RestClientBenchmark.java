@@ -0,0 +1,94 @@
+package com.mach.api.benchmark;
+
+import com.mach.api.account.model.AccountRequest;
+import com.mach.api.client.ClientOptions;
+import com.mach.api.client.ConnectionPool;
+import com.mach.api.client.LoggingProfile;
+import com.mach.api.client.RestClient;
+import io.restassured.http.Method;
+import io.restassured.response.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * End-to-end cost of the RestClient overloads against the embedded stub, with RestAssured's default
+ * connection handling and with a keep-alive {@link ConnectionPool}. Logging is off so that console output
+ * does not dominate the measurement.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RestClientBenchmark {
+
+    private static final Map<String, Object> HEADERS = Map.of("X-Request-Source", "benchmark");
+    private static final Map<String, Object> QUERY = Map.of("page", 1, "size", 20);
+    private static final Map<String, Object> PATH_PARAMS = Map.of("accountId", "acc-123456");
+
+    @Param({"default", "pooled"})
+    public String connections;
+
+    private StubServer server;
+    private ConnectionPool pool;
+    private RestClient restClient;
+    private AccountRequest accountRequest;
+
+    @Setup
+    public void setUp() throws IOException {
+        server = StubServer.start();
+        ClientOptions.ClientOptionsBuilder options = ClientOptions.builder()
+                .name("benchmark")
+                .loggingProfile(LoggingProfile.OFF);
+        if ("pooled".equals(connections)) {
+            pool = new ConnectionPool("benchmark", 200, 200, 30_000, 30_000);
+            options.connectionPool(pool);
+        }
+        restClient = new RestClient(server.getBaseUri(), "/api", null, options.build());
+        accountRequest = AccountFixtures.accountRequest();
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+        server.close();
+    }
+
+    @Benchmark
+    public Response simpleGet() {
+        return restClient.runSimpleWebService(Method.GET, "/accounts/acc-123456").extract().response();
+    }
+
+    @Benchmark
+    public Response getWithHeadersAndQueryParams() {
+        return restClient.runSimpleWebService(Method.GET, HEADERS, QUERY, "/accounts").extract().response();
+    }
+
+    @Benchmark
+    public Response getWithPathParams() {
+        return restClient.runSimpleWebService(Method.GET, HEADERS, "/accounts/{accountId}", PATH_PARAMS)
+                .extract().response();
+    }
+
+    @Benchmark
+    public Response postWithBody() {
+        return restClient.runWebServiceWithBody(Method.POST, "/accounts", accountRequest).extract().response();
+    }
+
+    @Benchmark
+    public Response putWithBodyAndPathParams() {
+        return restClient.runWebServiceWithBodyAndPathParams(Method.PUT, HEADERS, "/accounts/{accountId}",
+                PATH_PARAMS, accountRequest).extract().response();
+    }
+}
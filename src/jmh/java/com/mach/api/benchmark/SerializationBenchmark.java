@@ -0,0 +1,89 @@
+package com.mach.api.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.google.gson.Gson;
+import com.mach.api.account.model.AccountRequest;
+import com.mach.api.account.model.AccountResponse;
+import com.mach.api.util.JsonMapping;
+import io.restassured.path.json.mapper.factory.DefaultJackson2ObjectMapperFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serialization of an {@link AccountRequest} body and deserialization of an {@link AccountResponse}.
+ * The {@code restAssured*} benchmarks reproduce RestAssured's default path: it asks its
+ * Jackson2ObjectMapperFactory for a new ObjectMapper for every body it maps.
+ * The {@code jsonMapping*} benchmarks use the shared configuration with cached readers/writers,
+ * with and without the Blackbird module.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SerializationBenchmark {
+
+    private final DefaultJackson2ObjectMapperFactory restAssuredFactory = new DefaultJackson2ObjectMapperFactory();
+    private final ObjectMapper sharedMapper = new ObjectMapper();
+    private final Gson gson = new Gson();
+    private final ObjectWriter blackbirdWriter = JsonMapping.createMapper("blackbird", false)
+            .writerFor(AccountRequest.class);
+    private final ObjectReader blackbirdReader = JsonMapping.createMapper("blackbird", false)
+            .readerFor(AccountResponse.class);
+    private final AccountRequest accountRequest = AccountFixtures.accountRequest();
+    private final byte[] accountResponse = StubServer.ACCOUNT_RESPONSE.getBytes(StandardCharsets.UTF_8);
+
+    @Benchmark
+    public String restAssuredMapper() throws JsonProcessingException {
+        return restAssuredFactory.create(AccountRequest.class, "UTF-8").writeValueAsString(accountRequest);
+    }
+
+    @Benchmark
+    public String sharedJacksonMapper() throws JsonProcessingException {
+        return sharedMapper.writeValueAsString(accountRequest);
+    }
+
+    @Benchmark
+    public byte[] sharedJacksonMapperToBytes() throws JsonProcessingException {
+        return sharedMapper.writeValueAsBytes(accountRequest);
+    }
+
+    @Benchmark
+    public String gson() {
+        return gson.toJson(accountRequest);
+    }
+
+    @Benchmark
+    public String jsonMappingWriter() throws JsonProcessingException {
+        return JsonMapping.writerFor(AccountRequest.class).writeValueAsString(accountRequest);
+    }
+
+    @Benchmark
+    public String jsonMappingBlackbirdWriter() throws JsonProcessingException {
+        return blackbirdWriter.writeValueAsString(accountRequest);
+    }
+
+    @Benchmark
+    public AccountResponse restAssuredMapperRead() throws IOException {
+        return restAssuredFactory.create(AccountResponse.class, "UTF-8").readValue(accountResponse, AccountResponse.class);
+    }
+
+    @Benchmark
+    public AccountResponse jsonMappingReader() throws IOException {
+        return JsonMapping.readerFor(AccountResponse.class).readValue(accountResponse);
+    }
+
+    @Benchmark
+    public AccountResponse jsonMappingBlackbirdReader() throws IOException {
+        return blackbirdReader.readValue(accountResponse);
+    }
+}
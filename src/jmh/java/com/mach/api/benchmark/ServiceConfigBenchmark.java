@@ -0,0 +1,32 @@
+package com.mach.api.benchmark;
+
+import com.mach.api.config.ServiceConfig;
+import com.mach.api.config.ServiceConfigRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of getting a service configuration: cached by ServiceConfigRegistry, and resolved from system properties,
+ * environment variables and api.properties after invalidating the cache
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ServiceConfigBenchmark {
+
+    @Benchmark
+    public ServiceConfig forService() {
+        return ServiceConfig.forService("account");
+    }
+
+    @Benchmark
+    public ServiceConfig forServiceUncached() {
+        ServiceConfigRegistry.invalidate("account");
+        return ServiceConfig.forService("account");
+    }
+}
@@ -0,0 +1,68 @@
+package com.mach.api.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Embedded HTTP stub used by the benchmarks so that they measure the client stack, not a remote service.
+ * Every request is answered immediately with {@link #ACCOUNT_RESPONSE}: 201 for POST, 200 otherwise.
+ */
+public final class StubServer implements AutoCloseable {
+
+    /**
+     * Body returned for every request, shaped like an Account API response
+     */
+    public static final String ACCOUNT_RESPONSE = "{\"accountId\":\"acc-123456\",\"status\":\"CREATED\","
+            + "\"data\":{\"name\":\"Benchmark User\",\"email\":\"bench@example.com\",\"balance\":1520.75,"
+            + "\"tags\":[\"premium\",\"verified\"],\"address\":{\"city\":\"Santiago\",\"country\":\"CL\"}}}";
+
+    private static final byte[] BODY = ACCOUNT_RESPONSE.getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private StubServer(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+
+    /**
+     * Start a stub on a free local port
+     */
+    public static StubServer start() throws IOException {
+        // Without TCP_NODELAY, keep-alive connections stall on Nagle + delayed ACK between headers and body
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        server.setExecutor(executor);
+        server.createContext("/", exchange -> {
+            try (InputStream in = exchange.getRequestBody()) {
+                in.readAllBytes();
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders("POST".equals(exchange.getRequestMethod()) ? 201 : 200, BODY.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(BODY);
+            }
+        });
+        server.start();
+        return new StubServer(server, executor);
+    }
+
+    public String getBaseUri() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,79 @@
+package com.mach.api.benchmark;
+
+import com.mach.api.account.model.AccountRequest;
+import com.mach.api.client.ClientOptions;
+import com.mach.api.client.ConnectionPool;
+import com.mach.api.client.H2cStubServer;
+import com.mach.api.client.Http2Transport;
+import com.mach.api.client.LoggingProfile;
+import com.mach.api.client.RestClient;
+import io.restassured.http.Method;
+import io.restassured.response.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Throughput of many concurrent createAccount-style POSTs against the h2c stub: RestAssured's HTTP/1.1 client
+ * with a keep-alive {@link ConnectionPool} (one connection per request in flight) versus {@link Http2Transport}
+ * (all requests multiplexed over one connection). The stub answers after {@code latencyMillis}.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(64)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TransportBenchmark {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TransportBenchmark.class);
+
+    @Param({"http1", "http2"})
+    public String transport;
+
+    @Param({"0", "20"})
+    public long latencyMillis;
+
+    private H2cStubServer server;
+    private ConnectionPool pool;
+    private RestClient restClient;
+    private AccountRequest accountRequest;
+
+    @Setup
+    public void setUp() throws Exception {
+        server = H2cStubServer.start(latencyMillis);
+        ClientOptions.ClientOptionsBuilder options = ClientOptions.builder()
+                .name("benchmark")
+                .loggingProfile(LoggingProfile.OFF);
+        if ("http2".equals(transport)) {
+            options.http2Transport(new Http2Transport("benchmark"));
+        } else {
+            pool = new ConnectionPool("benchmark", 200, 200, 30_000, 30_000);
+            options.connectionPool(pool);
+        }
+        restClient = new RestClient(server.getBaseUri(), "/api", null, options.build());
+        accountRequest = AccountFixtures.accountRequest();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        LOG.info("{} transport, {} ms latency: {} stub connections", transport, latencyMillis, server.getConnections());
+        if (pool != null) {
+            pool.close();
+        }
+        server.close();
+    }
+
+    @Benchmark
+    public Response createAccount() {
+        return restClient.runWebServiceWithBody(Method.POST, "/account", accountRequest).extract().response();
+    }
+}
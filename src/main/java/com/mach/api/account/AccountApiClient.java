@@ -2,15 +2,30 @@ package com.mach.api.account;
 
 import com.mach.api.account.model.AccountAction;
 import com.mach.api.account.model.AccountRequest;
+import com.mach.api.account.model.AccountResponse;
+import com.mach.api.client.AsyncRestClient;
 import com.mach.api.client.RestClient;
+import com.mach.api.client.auth.TokenProvider;
 import com.mach.api.config.ServiceConfig;
+import com.mach.api.util.JsonMapping;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.restassured.RestAssured;
 import io.restassured.http.Method;
+import io.restassured.response.Response;
 import io.restassured.response.ValidatableResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
 
 /**
  * Client for Account API - User creation service.
@@ -25,6 +40,7 @@ public class AccountApiClient {
     private static final String SERVICE_NAME = "account";
     
     private final RestClient restClient;
+    private final AsyncRestClient asyncRestClient;
     private final ServiceConfig config;
 
     /**
@@ -44,11 +60,8 @@ public class AccountApiClient {
                     SERVICE_NAME, SERVICE_NAME.toUpperCase(), SERVICE_NAME.toLowerCase()));
         }
         
-        this.restClient = new RestClient(
-            this.config.getBaseUri(),
-            this.config.getBasePath(),
-            this.config.getBearerToken()
-        );
+        this.restClient = new RestClient(this.config);
+        this.asyncRestClient = new AsyncRestClient(this.restClient);
         
         LOG.info("AccountApiClient initialized with base URI: {}", this.config.getBaseUri());
     }
@@ -59,18 +72,42 @@ public class AccountApiClient {
      * @param bearerToken Bearer token to use for authentication
      */
     public AccountApiClient(String bearerToken) {
-        this.config = ServiceConfig.forService(SERVICE_NAME);
+        this(ServiceConfig.forService(SERVICE_NAME), bearerToken);
+    }
+
+    /**
+     * Constructor with an explicit configuration and Bearer token, e.g.
+     * {@code ServiceConfig.forService("account").withBaseUri(mock.getBaseUri())}
+     * 
+     * @param config Configuration of the account service
+     * @param bearerToken Bearer token to use for authentication
+     */
+    public AccountApiClient(ServiceConfig config, String bearerToken) {
+        this.config = config;
         this.config.validate();
         
-        this.restClient = new RestClient(
-            this.config.getBaseUri(),
-            this.config.getBasePath(),
-            bearerToken
-        );
+        this.restClient = new RestClient(this.config, RestAssured.oauth2(bearerToken));
+        this.asyncRestClient = new AsyncRestClient(this.restClient);
         
         LOG.info("AccountApiClient initialized with base URI: {} and explicit bearer token", this.config.getBaseUri());
     }
 
+    /**
+     * Constructor with a token provider asked for the Bearer token on every request (overrides configuration),
+     * e.g. a {@link com.mach.api.client.auth.RefreshingTokenProvider} for runs longer than the token lifetime
+     * 
+     * @param tokenProvider Source of the Bearer token
+     */
+    public AccountApiClient(TokenProvider tokenProvider) {
+        this.config = ServiceConfig.forService(SERVICE_NAME);
+        this.config.validate();
+        
+        this.restClient = new RestClient(this.config, tokenProvider);
+        this.asyncRestClient = new AsyncRestClient(this.restClient);
+        
+        LOG.info("AccountApiClient initialized with base URI: {} and token provider", this.config.getBaseUri());
+    }
+
     /**
      * Create a new user account
      * 
@@ -94,13 +131,7 @@ public class AccountApiClient {
      * @return ValidatableResponse for validation
      */
     public ValidatableResponse createAccount() {
-        AccountRequest request = new AccountRequest();
-        AccountAction action = new AccountAction();
-        action.setName("createAccountAction");
-        action.setArgs(new HashMap<>());
-        request.setActions(new AccountAction[]{action});
-        
-        return createAccount(request);
+        return createAccount(createAccountRequest(null));
     }
 
     /**
@@ -110,13 +141,177 @@ public class AccountApiClient {
      * @return ValidatableResponse for validation
      */
     public ValidatableResponse createAccount(Map<String, Object> actionArgs) {
+        return createAccount(createAccountRequest(actionArgs));
+    }
+
+    /**
+     * Create a new user account without blocking the calling thread
+     * 
+     * @param request Account request with actions
+     * @return Future completed with the response
+     */
+    public CompletableFuture<Response> createAccountAsync(AccountRequest request) {
+        LOG.debug("Submitting asynchronous account creation");
+        return asyncRestClient.runWebServiceWithBody(Method.POST, buildHeaders(), "/account", request);
+    }
+
+    /**
+     * Create a new user account with default createAccountAction without blocking the calling thread
+     * 
+     * @return Future completed with the response
+     */
+    public CompletableFuture<Response> createAccountAsync() {
+        return createAccountAsync(createAccountRequest(null));
+    }
+
+    /**
+     * Create a new user account with custom action arguments without blocking the calling thread
+     * 
+     * @param actionArgs Custom arguments for the createAccountAction
+     * @return Future completed with the response
+     */
+    public CompletableFuture<Response> createAccountAsync(Map<String, Object> actionArgs) {
+        return createAccountAsync(createAccountRequest(actionArgs));
+    }
+
+    /**
+     * Create many accounts, one createAccountAction per item, using the batch options configured for the service
+     * 
+     * @param argsList Arguments of each account (null entries use the default arguments)
+     * @return One result per item, in the order of argsList
+     * @see #createAccounts(List, BatchOptions)
+     */
+    public List<AccountResult> createAccounts(List<Map<String, Object>> argsList) {
+        return createAccounts(argsList, BatchOptions.forService(config));
+    }
+
+    /**
+     * Create many accounts, one createAccountAction per item.
+     * 
+     * Items are packed {@code batchSize} actions per request and the requests are pipelined with up to
+     * {@code maxInFlight} of them in flight over the service connection pool; this method returns once every
+     * request has completed. When a request carries several actions the service is expected to answer with a
+     * JSON array holding one result per action, in action order. Failures never throw: the items of a failed
+     * request get an {@link AccountResult} with the error.
+     * 
+     * @param argsList Arguments of each account (null entries use the default arguments)
+     * @param options Batch size and number of requests in flight
+     * @return One result per item, in the order of argsList
+     */
+    public List<AccountResult> createAccounts(List<Map<String, Object>> argsList, BatchOptions options) {
+        options.validate();
+        int total = argsList.size();
+        int batchSize = options.getBatchSize();
+        AccountResult[] results = new AccountResult[total];
+        Semaphore inFlight = new Semaphore(options.getMaxInFlight());
+        List<CompletableFuture<Void>> requests = new ArrayList<>((total + batchSize - 1) / batchSize);
+        Map<String, Object> headers = buildHeaders();
+
+        LOG.info("Creating {} accounts, {} per request, {} requests in flight",
+                total, batchSize, options.getMaxInFlight());
+        Throwable interrupted = null;
+        for (int from = 0; from < total; from += batchSize) {
+            int start = from;
+            int count = Math.min(batchSize, total - from);
+            try {
+                inFlight.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                interrupted = e;
+                break;
+            }
+            AccountRequest request = createAccountsRequest(argsList.subList(start, start + count));
+            requests.add(asyncRestClient.runWebServiceWithBody(Method.POST, headers, "/account", request)
+                    .handle((response, error) -> {
+                        try {
+                            complete(results, start, count, response, error);
+                        } finally {
+                            inFlight.release();
+                        }
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(requests.toArray(new CompletableFuture[0])).join();
+
+        long failed = 0;
+        for (int i = 0; i < total; i++) {
+            if (results[i] == null) {
+                results[i] = new AccountResult(i, 0, null, interrupted);
+            }
+            if (!results[i].isSuccess()) {
+                failed++;
+            }
+        }
+        LOG.info("Created {} accounts, {} failed", total - failed, failed);
+        return Collections.unmodifiableList(Arrays.asList(results));
+    }
+
+    /**
+     * Store the results of the items [start, start + count) sent in one request
+     */
+    private static void complete(AccountResult[] results, int start, int count, Response response, Throwable error) {
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+            fail(results, start, count, 0, cause);
+            return;
+        }
+        int statusCode = response.getStatusCode();
+        if (statusCode < 200 || statusCode >= 300) {
+            fail(results, start, count, statusCode,
+                    new IllegalStateException("Account creation failed with HTTP " + statusCode));
+            return;
+        }
+        try {
+            JsonNode body = JsonMapping.mapper().readTree(response.asByteArray());
+            if (count == 1 && body.isObject()) {
+                results[start] = new AccountResult(start, statusCode, toAccountResponse(body), null);
+            } else if (body.isArray() && body.size() == count) {
+                for (int i = 0; i < count; i++) {
+                    results[start + i] = new AccountResult(start + i, statusCode,
+                            toAccountResponse(body.get(i)), null);
+                }
+            } else {
+                fail(results, start, count, statusCode, new IllegalStateException(
+                        "Expected " + count + " account results, got: " + body.getNodeType()
+                                + (body.isArray() ? " of " + body.size() : "")));
+            }
+        } catch (IOException | RuntimeException e) {
+            fail(results, start, count, statusCode, e);
+        }
+    }
+
+    private static AccountResponse toAccountResponse(JsonNode node) throws IOException {
+        return JsonMapping.readerFor(AccountResponse.class).readValue(node);
+    }
+
+    private static void fail(AccountResult[] results, int start, int count, int statusCode, Throwable error) {
+        for (int i = start; i < start + count; i++) {
+            results[i] = new AccountResult(i, statusCode, null, error);
+        }
+    }
+
+    /**
+     * Build a request with a single createAccountAction
+     */
+    private static AccountRequest createAccountRequest(Map<String, Object> actionArgs) {
+        return createAccountsRequest(Collections.singletonList(actionArgs));
+    }
+
+    /**
+     * Build a request with one createAccountAction per arguments map
+     */
+    private static AccountRequest createAccountsRequest(List<Map<String, Object>> argsList) {
+        AccountAction[] actions = new AccountAction[argsList.size()];
+        for (int i = 0; i < actions.length; i++) {
+            AccountAction action = new AccountAction();
+            action.setName("createAccountAction");
+            action.setArgs(argsList.get(i) != null ? argsList.get(i) : new HashMap<>());
+            actions[i] = action;
+        }
         AccountRequest request = new AccountRequest();
-        AccountAction action = new AccountAction();
-        action.setName("createAccountAction");
-        action.setArgs(actionArgs != null ? actionArgs : new HashMap<>());
-        request.setActions(new AccountAction[]{action});
-        
-        return createAccount(request);
+        request.setActions(actions);
+        return request;
     }
 
     /**
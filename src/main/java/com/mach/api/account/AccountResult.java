@@ -0,0 +1,35 @@
+package com.mach.api.account;
+
+import com.mach.api.account.model.AccountResponse;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Outcome of one item of a batch account creation.
+ * Either {@code response} is set (the service returned a result for the item) or {@code error} describes why
+ * the item failed; {@code statusCode} is the HTTP status of the request that carried the item, or 0 if no
+ * response was received.
+ */
+@Getter
+@ToString
+public class AccountResult {
+
+    private final int index;
+    private final int statusCode;
+    private final AccountResponse response;
+    private final Throwable error;
+
+    AccountResult(int index, int statusCode, AccountResponse response, Throwable error) {
+        this.index = index;
+        this.statusCode = statusCode;
+        this.response = response;
+        this.error = error;
+    }
+
+    /**
+     * Check if the item was created: a 2xx response with a result for the item
+     */
+    public boolean isSuccess() {
+        return error == null && response != null && statusCode >= 200 && statusCode < 300;
+    }
+}
@@ -0,0 +1,53 @@
+package com.mach.api.account;
+
+import com.mach.api.config.ServiceConfig;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Options of a batch operation such as {@link AccountApiClient#createAccounts(java.util.List, BatchOptions)}.
+ * 
+ * Items are packed {@code batchSize} actions per request and up to {@code maxInFlight} requests are sent
+ * concurrently; the calling thread waits for a free slot before sending the next request.
+ */
+@Data
+@Builder(toBuilder = true)
+public class BatchOptions {
+
+    /**
+     * Maximum number of actions sent in a single request (1 when the service accepts one action per request)
+     */
+    @Builder.Default
+    private final int batchSize = 1;
+
+    /**
+     * Maximum number of requests in flight at the same time
+     */
+    @Builder.Default
+    private final int maxInFlight = 16;
+
+    /**
+     * Options configured for a service with {@code api.<service>.batch.size} and
+     * {@code api.<service>.batch.max.in.flight}
+     */
+    public static BatchOptions forService(ServiceConfig config) {
+        return BatchOptions.builder()
+                .batchSize(config.getBatchSize())
+                .maxInFlight(config.getBatchMaxInFlight())
+                .build();
+    }
+
+    /**
+     * Validate the options
+     * 
+     * @throws IllegalArgumentException if batchSize or maxInFlight is not positive
+     */
+    public void validate() {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be positive");
+        }
+    }
+}
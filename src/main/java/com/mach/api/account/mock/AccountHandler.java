@@ -0,0 +1,136 @@
+package com.mach.api.account.mock;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.mach.api.util.JsonMapping;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The Account API contract served by the mock: {@code POST {basePath}/account} with an AccountRequest answers 200
+ * with one AccountResponse per action ({@code accountId} from a sequence, status {@code CREATED}, the action
+ * arguments as {@code data}); a single object for one action, an array in action order for several.
+ */
+final class AccountHandler {
+
+    private static final byte[] NOT_FOUND = error("Not found");
+    private static final byte[] METHOD_NOT_ALLOWED = error("Method not allowed");
+    private static final byte[] INJECTED = error("Injected failure");
+
+    private final String accountPath;
+    private final AtomicLong accountIds = new AtomicLong();
+
+    AccountHandler(String basePath) {
+        String prefix = basePath == null ? "" : basePath.replaceAll("/+$", "");
+        this.accountPath = (prefix.isEmpty() || prefix.startsWith("/") ? prefix : "/" + prefix) + "/account";
+    }
+
+    /**
+     * Answer a request
+     *
+     * @param method Request method
+     * @param target Request target (path and query)
+     * @param body Request body
+     * @param close Whether the connection is closed after the answer
+     * @return Complete HTTP response
+     */
+    byte[] handle(String method, String target, byte[] body, boolean close) {
+        int query = target.indexOf('?');
+        String path = query < 0 ? target : target.substring(0, query);
+        if (!path.equals(accountPath)) {
+            return response(404, NOT_FOUND, close);
+        }
+        if (!"POST".equals(method)) {
+            return response(405, METHOD_NOT_ALLOWED, close, "Allow: POST");
+        }
+        JsonNode actions;
+        try {
+            actions = JsonMapping.mapper().readTree(body).path("actions");
+        } catch (IOException e) {
+            return response(400, error("Invalid JSON body"), close);
+        }
+        if (!actions.isArray() || actions.isEmpty()) {
+            return response(400, error("Request must have at least one action"), close);
+        }
+        if (actions.size() == 1) {
+            return response(200, JsonMapping.writeValueAsBytes(account(actions.get(0))), close);
+        }
+        ArrayNode accounts = JsonNodeFactory.instance.arrayNode(actions.size());
+        actions.forEach(action -> accounts.add(account(action)));
+        return response(200, JsonMapping.writeValueAsBytes(accounts), close);
+    }
+
+    /**
+     * Answer for a request failed by error injection
+     */
+    static byte[] injectedError(int status, boolean close) {
+        return response(status, INJECTED, close);
+    }
+
+    /**
+     * Build a complete HTTP/1.1 response with a JSON body
+     */
+    static byte[] response(int status, byte[] body, boolean close, String... headers) {
+        StringBuilder head = new StringBuilder(128)
+                .append("HTTP/1.1 ").append(status).append(' ').append(reason(status)).append("\r\n")
+                .append("Content-Type: application/json\r\n")
+                .append("Content-Length: ").append(body.length).append("\r\n");
+        for (String header : headers) {
+            head.append(header).append("\r\n");
+        }
+        if (close) {
+            head.append("Connection: close\r\n");
+        }
+        byte[] headBytes = head.append("\r\n").toString().getBytes(StandardCharsets.ISO_8859_1);
+        byte[] response = new byte[headBytes.length + body.length];
+        System.arraycopy(headBytes, 0, response, 0, headBytes.length);
+        System.arraycopy(body, 0, response, headBytes.length, body.length);
+        return response;
+    }
+
+    private ObjectNode account(JsonNode action) {
+        ObjectNode account = JsonNodeFactory.instance.objectNode();
+        account.put("accountId", "acc-" + accountIds.incrementAndGet());
+        account.put("status", "CREATED");
+        JsonNode args = action.path("args");
+        account.set("data", args.isObject() ? args : JsonNodeFactory.instance.objectNode());
+        return account;
+    }
+
+    private static byte[] error(String message) {
+        return JsonMapping.writeValueAsBytes(JsonNodeFactory.instance.objectNode().put("error", message));
+    }
+
+    private static String reason(int status) {
+        switch (status) {
+            case 200:
+                return "OK";
+            case 400:
+                return "Bad Request";
+            case 404:
+                return "Not Found";
+            case 405:
+                return "Method Not Allowed";
+            case 413:
+                return "Payload Too Large";
+            case 429:
+                return "Too Many Requests";
+            case 500:
+                return "Internal Server Error";
+            case 501:
+                return "Not Implemented";
+            case 502:
+                return "Bad Gateway";
+            case 503:
+                return "Service Unavailable";
+            case 504:
+                return "Gateway Timeout";
+            default:
+                return status < 500 ? "Client Error" : "Server Error";
+        }
+    }
+}
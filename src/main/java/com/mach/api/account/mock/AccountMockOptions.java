@@ -0,0 +1,80 @@
+package com.mach.api.account.mock;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Behaviour of an {@link AccountMockServer}.
+ *
+ * Every request first draws its fate from the seeded random generator: with probability {@code dropRate} its
+ * connection is closed without an answer, with probability {@code errorRate} it is answered with
+ * {@code errorStatus}, and otherwise it is served by the Account contract. The answer is sent after a latency drawn
+ * from {@code latency}.
+ */
+@Data
+@Builder
+public class AccountMockOptions {
+
+    /**
+     * Port to listen on, 0 for a free port
+     */
+    private final int port;
+
+    /**
+     * Path prefix of the endpoint, i.e. the base path configured for the account service
+     */
+    @Builder.Default
+    private final String basePath = "";
+
+    @Builder.Default
+    private final LatencyDistribution latency = LatencyDistribution.none();
+
+    /**
+     * Fraction of requests answered with errorStatus
+     */
+    private final double errorRate;
+
+    @Builder.Default
+    private final int errorStatus = 503;
+
+    /**
+     * Fraction of requests whose connection is closed without an answer
+     */
+    private final double dropRate;
+
+    /**
+     * Seed of the random generator deciding latencies, errors and drops
+     */
+    @Builder.Default
+    private final long seed = 42;
+
+    /**
+     * Number of selector threads serving the connections
+     */
+    @Builder.Default
+    private final int reactorThreads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Validate the options
+     *
+     * @throws IllegalArgumentException if a value is out of range
+     */
+    public void validate() {
+        if (port < 0 || port > 65535) {
+            throw new IllegalArgumentException("Invalid port: " + port);
+        }
+        if (latency == null) {
+            throw new IllegalArgumentException("Latency distribution is required");
+        }
+        if (errorRate < 0 || dropRate < 0 || errorRate + dropRate > 1) {
+            throw new IllegalArgumentException(
+                    "errorRate and dropRate must be between 0 and 1, and add up to 1 at most");
+        }
+        if (errorStatus < 400 || errorStatus > 599) {
+            throw new IllegalArgumentException("errorStatus must be a 4xx or 5xx status: " + errorStatus);
+        }
+        if (reactorThreads <= 0) {
+            throw new IllegalArgumentException("reactorThreads must be positive");
+        }
+    }
+}
@@ -0,0 +1,545 @@
+package com.mach.api.account.mock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Embedded mock of the Account API for deterministic tests and client benchmarks, without a real service.
+ *
+ * A non-blocking HTTP/1.1 server built on java.nio: one thread accepts connections and hands them out to
+ * {@code reactorThreads} selector threads, each serving its connections without blocking. Keep-alive and pipelined
+ * requests are supported (answers go out in request order, several per write), bodies must have a Content-Length.
+ * Latencies are applied with timers of the selector threads, never by sleeping, so thousands of requests can wait
+ * at the same time without a thread each. The contract, latency distribution and error injection are described in
+ * {@link AccountMockOptions}.
+ *
+ * Example usage:
+ * <pre>
+ * try (AccountMockServer mock = AccountMockServer.start(AccountMockOptions.builder()
+ *         .latency(LatencyDistribution.logNormal(Duration.ofMillis(20), 0.5))
+ *         .errorRate(0.01)
+ *         .build())) {
+ *     System.setProperty("api.account.base.uri", mock.getBaseUri());
+ *     ...
+ * }
+ * </pre>
+ */
+public final class AccountMockServer implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AccountMockServer.class);
+
+    private static final byte[] HEADER_END = {'\r', '\n', '\r', '\n'};
+    private static final int INITIAL_BUFFER_BYTES = 16 * 1024;
+    private static final int MAX_REQUEST_BYTES = 16 * 1024 * 1024;
+    /**
+     * Maximum number of answers gathered in one write
+     */
+    private static final int MAX_WRITE_BATCH = 64;
+
+    private final AccountMockOptions options;
+    private final AccountHandler handler;
+    private final ServerSocketChannel serverChannel;
+    private final Reactor[] reactors;
+    private final Thread acceptor;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder injectedErrors = new LongAdder();
+    private final LongAdder droppedConnections = new LongAdder();
+    private volatile boolean running = true;
+
+    private AccountMockServer(AccountMockOptions options) throws IOException {
+        this.options = options;
+        this.handler = new AccountHandler(options.getBasePath());
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress("127.0.0.1", options.getPort()), 1024);
+        this.reactors = new Reactor[options.getReactorThreads()];
+        for (int i = 0; i < reactors.length; i++) {
+            reactors[i] = new Reactor(i);
+        }
+        this.acceptor = new Thread(this::accept, "account-mock-acceptor");
+        acceptor.setDaemon(true);
+    }
+
+    /**
+     * Start a mock on a free local port answering immediately and without errors
+     */
+    public static AccountMockServer start() {
+        return start(AccountMockOptions.builder().build());
+    }
+
+    /**
+     * Start a mock
+     *
+     * @param options Port, base path, latency and error injection
+     * @throws UncheckedIOException if the port cannot be bound
+     */
+    public static AccountMockServer start(AccountMockOptions options) {
+        options.validate();
+        AccountMockServer server;
+        try {
+            server = new AccountMockServer(options);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start Account mock on port " + options.getPort(), e);
+        }
+        for (Reactor reactor : server.reactors) {
+            reactor.thread.start();
+        }
+        server.acceptor.start();
+        LOG.info("Account mock listening on {} with {} reactor threads", server.getBaseUri(),
+                server.reactors.length);
+        return server;
+    }
+
+    public String getBaseUri() {
+        return "http://127.0.0.1:" + getPort();
+    }
+
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    public AccountMockOptions getOptions() {
+        return options;
+    }
+
+    /**
+     * Number of requests received since the mock started
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * Number of requests answered with the injected error status
+     */
+    public long getInjectedErrors() {
+        return injectedErrors.sum();
+    }
+
+    /**
+     * Number of requests whose connection was closed without an answer
+     */
+    public long getDroppedConnections() {
+        return droppedConnections.sum();
+    }
+
+    /**
+     * Stop accepting connections and close the open ones
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            serverChannel.close();
+        } catch (IOException e) {
+            LOG.debug("Error closing Account mock server socket", e);
+        }
+        for (Reactor reactor : reactors) {
+            reactor.selector.wakeup();
+        }
+        try {
+            acceptor.join(TimeUnit.SECONDS.toMillis(5));
+            for (Reactor reactor : reactors) {
+                reactor.thread.join(TimeUnit.SECONDS.toMillis(5));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void accept() {
+        int next = 0;
+        while (running) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                reactors[next++ % reactors.length].register(channel);
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                if (running) {
+                    LOG.warn("Account mock could not accept a connection", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Selector thread serving a share of the connections, with the timers of their delayed answers
+     */
+    private final class Reactor implements Runnable {
+        private final Selector selector;
+        private final Thread thread;
+        private final SplittableRandom random;
+        private final Queue<SocketChannel> registrations = new ConcurrentLinkedQueue<>();
+        private final PriorityQueue<Timer> timers = new PriorityQueue<>();
+
+        private Reactor(int index) throws IOException {
+            this.selector = Selector.open();
+            this.random = new SplittableRandom(options.getSeed() + index);
+            this.thread = new Thread(this, "account-mock-reactor-" + index);
+            thread.setDaemon(true);
+        }
+
+        void register(SocketChannel channel) {
+            registrations.add(channel);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    long timeoutMillis = nextTimeoutMillis();
+                    if (timeoutMillis < 0) {
+                        selector.selectNow();
+                    } else {
+                        selector.select(timeoutMillis);
+                    }
+                    registerPending();
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        Connection connection = (Connection) key.attachment();
+                        if (key.isValid() && key.isWritable()) {
+                            connection.flush();
+                        }
+                        if (key.isValid() && key.isReadable()) {
+                            connection.read();
+                        }
+                    }
+                    fireTimers();
+                }
+            } catch (IOException e) {
+                LOG.error("Account mock reactor failed", e);
+            } finally {
+                for (SelectionKey key : selector.keys()) {
+                    ((Connection) key.attachment()).close();
+                }
+                try {
+                    selector.close();
+                } catch (IOException e) {
+                    LOG.debug("Error closing Account mock selector", e);
+                }
+            }
+        }
+
+        /**
+         * Milliseconds until the next timer: 0 to wait for I/O only, negative if a timer is due
+         */
+        private long nextTimeoutMillis() {
+            Timer timer = timers.peek();
+            if (timer == null) {
+                return 0;
+            }
+            long remaining = timer.dueNanos - System.nanoTime();
+            return remaining <= 0 ? -1 : Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining));
+        }
+
+        private void registerPending() throws IOException {
+            SocketChannel channel;
+            while ((channel = registrations.poll()) != null) {
+                Connection connection = new Connection(this, channel);
+                connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+            }
+        }
+
+        private void fireTimers() {
+            long now = System.nanoTime();
+            while (!timers.isEmpty() && timers.peek().dueNanos - now <= 0) {
+                timers.poll().connection.flush();
+            }
+        }
+    }
+
+    /**
+     * Wake-up of a connection whose next answer is due
+     */
+    private static final class Timer implements Comparable<Timer> {
+        private final long dueNanos;
+        private final Connection connection;
+
+        private Timer(long dueNanos, Connection connection) {
+            this.dueNanos = dueNanos;
+            this.connection = connection;
+        }
+
+        @Override
+        public int compareTo(Timer other) {
+            return Long.compare(dueNanos - other.dueNanos, 0);
+        }
+    }
+
+    /**
+     * Answer waiting to be written; a null buffer closes the connection without answering
+     */
+    private static final class Answer {
+        private final long dueNanos;
+        private final ByteBuffer buffer;
+        private final boolean close;
+
+        private Answer(long dueNanos, ByteBuffer buffer, boolean close) {
+            this.dueNanos = dueNanos;
+            this.buffer = buffer;
+            this.close = close;
+        }
+    }
+
+    /**
+     * Keep-alive connection: parses the requests it receives and writes their answers in order
+     */
+    private final class Connection {
+        private final Reactor reactor;
+        private final SocketChannel channel;
+        private final ArrayDeque<Answer> answers = new ArrayDeque<>();
+        private final ByteBuffer[] batch = new ByteBuffer[MAX_WRITE_BATCH];
+        private ByteBuffer in = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+        private SelectionKey key;
+        private boolean closing;
+
+        private Connection(Reactor reactor, SocketChannel channel) {
+            this.reactor = reactor;
+            this.channel = channel;
+        }
+
+        void read() {
+            int read;
+            try {
+                read = channel.read(in);
+            } catch (IOException e) {
+                close();
+                return;
+            }
+            if (read < 0) {
+                close();
+                return;
+            }
+            try {
+                in.flip();
+                parseRequests();
+                in.compact();
+                if (!in.hasRemaining() && !closing) {
+                    if (in.capacity() >= MAX_REQUEST_BYTES) {
+                        enqueue(0, AccountHandler.response(413, "{\"error\":\"Request too large\"}"
+                                .getBytes(StandardCharsets.UTF_8), true), true);
+                    } else {
+                        ByteBuffer larger = ByteBuffer.allocate(in.capacity() * 2);
+                        in.flip();
+                        in = larger.put(in);
+                    }
+                }
+                flush();
+            } catch (RuntimeException e) {
+                // One misbehaving client must not stop the reactor serving the other connections
+                LOG.warn("Account mock closing connection after an unexpected error", e);
+                close();
+            }
+        }
+
+        /**
+         * Handle every complete request in the buffer, leaving a partial one for the next read
+         */
+        private void parseRequests() {
+            byte[] bytes = in.array();
+            while (!closing) {
+                int start = in.position();
+                int headerEnd = indexOf(bytes, start, in.limit(), HEADER_END);
+                if (headerEnd < 0) {
+                    return;
+                }
+                String[] lines = new String(bytes, start, headerEnd - start, StandardCharsets.ISO_8859_1)
+                        .split("\r\n");
+                String[] requestLine = lines[0].split(" ");
+                if (requestLine.length != 3) {
+                    enqueue(0, AccountHandler.response(400, "{\"error\":\"Malformed request line\"}"
+                            .getBytes(StandardCharsets.UTF_8), true), true);
+                    return;
+                }
+                long contentLength = 0;
+                boolean validLength = true;
+                boolean keepAlive = "HTTP/1.1".equals(requestLine[2]);
+                boolean chunked = false;
+                for (int i = 1; i < lines.length; i++) {
+                    int colon = lines[i].indexOf(':');
+                    if (colon <= 0) {
+                        continue;
+                    }
+                    String name = lines[i].substring(0, colon).trim().toLowerCase(Locale.ROOT);
+                    String value = lines[i].substring(colon + 1).trim();
+                    if (name.equals("content-length")) {
+                        contentLength = parseContentLength(value);
+                        validLength = contentLength >= 0;
+                    } else if (name.equals("connection")) {
+                        keepAlive = !value.equalsIgnoreCase("close")
+                                && (keepAlive || value.equalsIgnoreCase("keep-alive"));
+                    } else if (name.equals("transfer-encoding")) {
+                        chunked = !value.equalsIgnoreCase("identity");
+                    }
+                }
+                if (!validLength) {
+                    enqueue(0, AccountHandler.response(400, "{\"error\":\"Invalid Content-Length\"}"
+                            .getBytes(StandardCharsets.UTF_8), true), true);
+                    return;
+                }
+                if (chunked || contentLength > MAX_REQUEST_BYTES) {
+                    enqueue(0, AccountHandler.response(chunked ? 501 : 413, ("{\"error\":\"" + (chunked
+                            ? "Chunked bodies are not supported" : "Request too large") + "\"}")
+                            .getBytes(StandardCharsets.UTF_8), true), true);
+                    return;
+                }
+                int bodyStart = headerEnd + HEADER_END.length;
+                if (in.limit() - bodyStart < contentLength) {
+                    return;
+                }
+                byte[] body = new byte[(int) contentLength];
+                System.arraycopy(bytes, bodyStart, body, 0, body.length);
+                in.position(bodyStart + body.length);
+                answer(requestLine[0], requestLine[1], body, !keepAlive);
+            }
+        }
+
+        /**
+         * Draw the fate and latency of a request and queue its answer
+         */
+        private void answer(String method, String target, byte[] body, boolean close) {
+            requests.increment();
+            long dueNanos = System.nanoTime() + options.getLatency().sampleNanos(reactor.random);
+            double fate = reactor.random.nextDouble();
+            if (fate < options.getDropRate()) {
+                droppedConnections.increment();
+                enqueue(dueNanos, null, true);
+            } else if (fate < options.getDropRate() + options.getErrorRate()) {
+                injectedErrors.increment();
+                enqueue(dueNanos, AccountHandler.injectedError(options.getErrorStatus(), close), close);
+            } else {
+                enqueue(dueNanos, handler.handle(method, target, body, close), close);
+            }
+        }
+
+        private void enqueue(long dueNanos, byte[] response, boolean close) {
+            answers.add(new Answer(dueNanos, response != null ? ByteBuffer.wrap(response) : null, close));
+            closing |= close;
+            if (dueNanos - System.nanoTime() > 0) {
+                reactor.timers.add(new Timer(dueNanos, this));
+            }
+        }
+
+        /**
+         * Write the answers that are due, in request order and several per write
+         */
+        void flush() {
+            if (!channel.isOpen()) {
+                return;
+            }
+            long now = System.nanoTime();
+            while (!answers.isEmpty()) {
+                int count = 0;
+                boolean closeAfter = false;
+                for (Answer answer : answers) {
+                    if (answer.dueNanos - now > 0 || count == MAX_WRITE_BATCH) {
+                        break;
+                    }
+                    if (answer.buffer == null) {
+                        closeAfter = count == 0;
+                        break;
+                    }
+                    batch[count++] = answer.buffer;
+                    if (answer.close) {
+                        break;
+                    }
+                }
+                if (closeAfter) {
+                    close();
+                    return;
+                }
+                if (count == 0) {
+                    break;
+                }
+                try {
+                    channel.write(batch, 0, count);
+                } catch (IOException e) {
+                    close();
+                    return;
+                }
+                while (!answers.isEmpty() && answers.peek().buffer != null && !answers.peek().buffer.hasRemaining()) {
+                    if (answers.poll().close) {
+                        close();
+                        return;
+                    }
+                }
+                if (batch[count - 1].hasRemaining()) {
+                    key.interestOps(SelectionKey.OP_WRITE);
+                    return;
+                }
+            }
+            key.interestOps(closing ? 0 : SelectionKey.OP_READ);
+        }
+
+        void close() {
+            answers.clear();
+            if (key != null) {
+                key.cancel();
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOG.debug("Error closing Account mock connection", e);
+            }
+        }
+    }
+
+    /**
+     * Parse a Content-Length value made only of digits
+     *
+     * @return Length, or -1 if the value is not a valid non-negative number
+     */
+    private static long parseContentLength(String value) {
+        if (value.isEmpty() || value.length() > 18) {
+            return -1;
+        }
+        long length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            length = length * 10 + (c - '0');
+        }
+        return length;
+    }
+
+    private static int indexOf(byte[] bytes, int from, int to, byte[] target) {
+        outer:
+        for (int i = from; i <= to - target.length; i++) {
+            for (int j = 0; j < target.length; j++) {
+                if (bytes[i + j] != target[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
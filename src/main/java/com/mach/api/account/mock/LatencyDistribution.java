@@ -0,0 +1,83 @@
+package com.mach.api.account.mock;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+
+/**
+ * Latency added by the {@link AccountMockServer} before answering a request.
+ *
+ * Samples are drawn from the seeded random generator of the server, so a given seed and request order always
+ * produce the same latencies.
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+    /**
+     * Draw the latency of one request
+     *
+     * @param random Random generator of the server
+     * @return Latency in nanoseconds, 0 to answer immediately
+     */
+    long sampleNanos(SplittableRandom random);
+
+    /**
+     * Answer immediately
+     */
+    static LatencyDistribution none() {
+        return random -> 0;
+    }
+
+    /**
+     * Same latency for every request
+     */
+    static LatencyDistribution fixed(Duration latency) {
+        long nanos = nonNegative(latency);
+        return random -> nanos;
+    }
+
+    /**
+     * Latency uniformly distributed between min and max
+     */
+    static LatencyDistribution uniform(Duration min, Duration max) {
+        long minNanos = nonNegative(min);
+        long maxNanos = nonNegative(max);
+        if (maxNanos < minNanos) {
+            throw new IllegalArgumentException("Latency max must not be below min");
+        }
+        return random -> minNanos + (long) (random.nextDouble() * (maxNanos - minNanos));
+    }
+
+    /**
+     * Exponentially distributed latency (Poisson service times)
+     */
+    static LatencyDistribution exponential(Duration mean) {
+        double meanNanos = nonNegative(mean);
+        return random -> (long) (-meanNanos * Math.log(1 - random.nextDouble()));
+    }
+
+    /**
+     * Log-normally distributed latency, the usual shape of real service latencies: most requests close to the
+     * median and a long tail, heavier as sigma grows (sigma 0.5 puts p99 at about 3.2 times the median)
+     */
+    static LatencyDistribution logNormal(Duration median, double sigma) {
+        if (sigma < 0) {
+            throw new IllegalArgumentException("Latency sigma must not be negative");
+        }
+        double mu = Math.log(Math.max(1, nonNegative(median)));
+        return random -> (long) Math.exp(mu + sigma * gaussian(random));
+    }
+
+    private static long nonNegative(Duration latency) {
+        if (latency == null || latency.isNegative()) {
+            throw new IllegalArgumentException("Latency must not be negative");
+        }
+        return latency.toNanos();
+    }
+
+    /**
+     * Standard normal sample (Box-Muller)
+     */
+    private static double gaussian(SplittableRandom random) {
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+}
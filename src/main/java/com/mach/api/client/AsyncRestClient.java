@@ -0,0 +1,284 @@
+package com.mach.api.client;
+
+import com.mach.api.client.logging.LogOnFailureFilter;
+import com.mach.api.client.resilience.RateLimiter;
+import com.mach.api.config.ApiConfig;
+import com.mach.api.util.VirtualThreads;
+import io.restassured.http.Method;
+import io.restassured.response.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous facade over a RestClient.
+ * Every call is submitted to a bounded executor and returns immediately with a CompletableFuture,
+ * so a single caller thread can keep many requests in flight.
+ *
+ * By default all AsyncRestClient instances share one executor sized with {@code api.async.threads}
+ * (default 200) and {@code api.async.queue.capacity} (default 10000). When the queue is full the
+ * calling thread runs the request itself, which slows producers down instead of failing.
+ * With {@code api.async.virtual.threads=true} on Java 21+ the shared executor starts one virtual thread
+ * per request instead, so tens of thousands of blocking calls can be in flight.
+ *
+ * When the RestClient has a rate limiter, the permit of each request is reserved at submission and the request
+ * is handed to the executor only once the permit is due, so waiting for the rate limit never occupies a thread.
+ * The hand-off runs on a scheduler thread of this class, which never executes a request itself: if the executor
+ * is saturated at that point, the hand-off is retried a few milliseconds later, so no rate-limited request is lost.
+ *
+ * Example usage:
+ * <pre>
+ * AsyncRestClient client = new AsyncRestClient(new RestClient(config));
+ * CompletableFuture&lt;Response&gt; future = client.runSimpleWebService(Method.GET, "/users/1");
+ * </pre>
+ */
+public class AsyncRestClient implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncRestClient.class);
+    private static final long HAND_OFF_RETRY_MILLIS = 5;
+
+    private final RestClient restClient;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final boolean onFailureLogging;
+
+    /**
+     * Constructor using the shared default executor
+     */
+    public AsyncRestClient(RestClient restClient) {
+        this(restClient, SharedExecutor.INSTANCE, false);
+    }
+
+    /**
+     * Constructor with a caller-managed executor (not shut down by {@link #close()})
+     */
+    public AsyncRestClient(RestClient restClient, ExecutorService executor) {
+        this(restClient, executor, false);
+    }
+
+    /**
+     * Create a client with a dedicated virtual-thread-per-task executor owned (and shut down) by it
+     *
+     * @throws UnsupportedOperationException if the JVM does not support virtual threads (Java 21+)
+     */
+    public static AsyncRestClient withVirtualThreads(RestClient restClient) {
+        return new AsyncRestClient(restClient, VirtualThreads.newThreadPerTaskExecutor(), true);
+    }
+
+    /**
+     * Constructor with a dedicated bounded executor owned (and shut down) by this client
+     *
+     * @param restClient Client used to execute the requests
+     * @param threads Maximum number of requests executing at the same time
+     * @param queueCapacity Maximum number of requests waiting for a thread
+     */
+    public AsyncRestClient(RestClient restClient, int threads, int queueCapacity) {
+        this(restClient, newBoundedExecutor(threads, queueCapacity), true);
+    }
+
+    private AsyncRestClient(RestClient restClient, ExecutorService executor, boolean ownsExecutor) {
+        this.restClient = restClient;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+        this.onFailureLogging = restClient.getOptions().getLoggingProfile() == LoggingProfile.ON_FAILURE;
+    }
+
+    /**
+     * Execute web service with body asynchronously
+     */
+    public CompletableFuture<Response> runWebServiceWithBody(Method httpMethod, String resource, Object requestBody) {
+        return submit(() -> restClient.runWebServiceWithBody(httpMethod, resource, requestBody).extract().response());
+    }
+
+    /**
+     * Execute web service with body and custom headers asynchronously
+     */
+    public CompletableFuture<Response> runWebServiceWithBody(Method httpMethod, Map<String, ?> headers,
+                                                             String resource, Object requestBody) {
+        return submit(() -> restClient.runWebServiceWithBody(httpMethod, headers, resource, requestBody)
+                .extract().response());
+    }
+
+    /**
+     * Execute simple web service (without body) asynchronously
+     */
+    public CompletableFuture<Response> runSimpleWebService(Method httpMethod, String resource) {
+        return submit(() -> restClient.runSimpleWebService(httpMethod, resource).extract().response());
+    }
+
+    /**
+     * Execute simple web service with headers and query parameters asynchronously
+     */
+    public CompletableFuture<Response> runSimpleWebService(Method httpMethod, Map<String, ?> headers,
+                                                           Map<String, ?> parameters, String resource) {
+        return submit(() -> restClient.runSimpleWebService(httpMethod, headers, parameters, resource)
+                .extract().response());
+    }
+
+    /**
+     * Execute simple web service with headers only asynchronously
+     */
+    public CompletableFuture<Response> runSimpleWebService(Method httpMethod, Map<String, ?> headers, String resource) {
+        return submit(() -> restClient.runSimpleWebService(httpMethod, headers, resource).extract().response());
+    }
+
+    /**
+     * Execute simple web service with headers and path parameters asynchronously
+     */
+    public CompletableFuture<Response> runSimpleWebService(Method httpMethod, Map<String, ?> headers,
+                                                           String resource, Map<String, ?> pathParameters) {
+        return submit(() -> restClient.runSimpleWebService(httpMethod, headers, resource, pathParameters)
+                .extract().response());
+    }
+
+    /**
+     * Execute web service with body and path parameters asynchronously
+     */
+    public CompletableFuture<Response> runWebServiceWithBodyAndPathParams(Method httpMethod, Map<String, ?> headers,
+                                                                         String resource,
+                                                                         Map<String, ?> pathParameters,
+                                                                         Object requestBody) {
+        return submit(() -> restClient.runWebServiceWithBodyAndPathParams(
+                httpMethod, headers, resource, pathParameters, requestBody).extract().response());
+    }
+
+    /**
+     * Get the underlying synchronous client
+     */
+    public RestClient getRestClient() {
+        return restClient;
+    }
+
+    /**
+     * Shut down the executor if it is owned by this client
+     */
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+
+    private CompletableFuture<Response> submit(Supplier<Response> request) {
+        // The "on-failure" logging buffer of the calling test follows the request to the executor thread
+        Supplier<Response> call = onFailureLogging ? LogOnFailureFilter.propagate(request) : request;
+        RateLimiter rateLimiter = restClient.getOptions().getRateLimiter();
+        if (rateLimiter == null) {
+            return CompletableFuture.supplyAsync(call, executor);
+        }
+        long waitNanos = rateLimiter.reserve();
+        Supplier<Response> limitedCall = () -> rateLimiter.callWithReservedPermit(call);
+        if (waitNanos <= 0) {
+            return CompletableFuture.supplyAsync(limitedCall, executor);
+        }
+        CompletableFuture<Response> future = new CompletableFuture<>();
+        Scheduler.INSTANCE.schedule(() -> handOff(limitedCall, future), waitNanos, TimeUnit.NANOSECONDS);
+        return future;
+    }
+
+    /**
+     * Hand a delayed call over to the executor; runs on the scheduler thread.
+     * While the executor is saturated the hand-off is retried later, as its permit is already reserved.
+     */
+    private void handOff(Supplier<Response> call, CompletableFuture<Response> future) {
+        try {
+            executor.execute(() -> {
+                // A caller-runs policy would run the blocking call on the scheduler and stall every delayed call
+                if (Thread.currentThread() instanceof SchedulerThread) {
+                    retryHandOff(call, future);
+                    return;
+                }
+                try {
+                    future.complete(call.get());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            if (executor.isShutdown()) {
+                future.completeExceptionally(e);
+            } else {
+                retryHandOff(call, future);
+            }
+        }
+    }
+
+    private void retryHandOff(Supplier<Response> call, CompletableFuture<Response> future) {
+        Scheduler.INSTANCE.schedule(() -> handOff(call, future), HAND_OFF_RETRY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private static ExecutorService newBoundedExecutor(int threads, int queueCapacity) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new DaemonThreadFactory(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Lazily created executor shared by all clients that do not provide their own
+     */
+    private static final class SharedExecutor {
+        private static final ExecutorService INSTANCE = create();
+
+        private static ExecutorService create() {
+            ApiConfig config = ApiConfig.getInstance();
+            if (Boolean.parseBoolean(config.getProperty("api.async.virtual.threads", "false").trim())) {
+                if (VirtualThreads.isAvailable()) {
+                    LOG.info("AsyncRestClient shared executor running on virtual threads");
+                    return VirtualThreads.newThreadPerTaskExecutor();
+                }
+                LOG.warn("api.async.virtual.threads is enabled but Java {} has no virtual threads, "
+                        + "using platform threads", System.getProperty("java.version"));
+            }
+            return newBoundedExecutor(
+                    Integer.parseInt(config.getProperty("api.async.threads", "200").trim()),
+                    Integer.parseInt(config.getProperty("api.async.queue.capacity", "10000").trim()));
+        }
+    }
+
+    /**
+     * Lazily created single thread that hands rate-limited requests to their executor once their permit is due
+     */
+    private static final class Scheduler {
+        private static final ScheduledExecutorService INSTANCE = create();
+
+        private static ScheduledExecutorService create() {
+            ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, SchedulerThread::new);
+            scheduler.setRemoveOnCancelPolicy(true);
+            return scheduler;
+        }
+    }
+
+    private static final class SchedulerThread extends Thread {
+        private SchedulerThread(Runnable runnable) {
+            super(runnable, "rest-client-async-scheduler");
+            setDaemon(true);
+        }
+    }
+
+    private static final class DaemonThreadFactory implements ThreadFactory {
+        private static final AtomicInteger POOL_SEQUENCE = new AtomicInteger();
+        private final int pool = POOL_SEQUENCE.incrementAndGet();
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "rest-client-async-" + pool + "-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
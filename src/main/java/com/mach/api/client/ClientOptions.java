@@ -0,0 +1,132 @@
+package com.mach.api.client;
+
+import com.mach.api.client.auth.TokenProvider;
+import com.mach.api.client.cache.ResponseCache;
+import com.mach.api.client.replay.ReplayMode;
+import com.mach.api.client.replay.ResponseRecorder;
+import com.mach.api.client.resilience.CircuitBreaker;
+import com.mach.api.client.resilience.RateLimiter;
+import com.mach.api.client.resilience.RetryPolicy;
+import com.mach.api.config.ApiConfig;
+import com.mach.api.config.ServiceConfig;
+import com.mach.api.metrics.ClientMetrics;
+import com.mach.api.metrics.MetricsListener;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Optional behaviour of a RestClient: logging, connection pooling or HTTP/2 transport, Bearer token provider,
+ * metrics, retries, circuit breaking, rate limiting, response caching and record and replay.
+ * 
+ * Example usage:
+ * <pre>
+ * ClientOptions options = ClientOptions.forService(config).toBuilder()
+ *         .loggingProfile(LoggingProfile.OFF)
+ *         .metricsListener(myListener)
+ *         .build();
+ * RestClient client = new RestClient(config.getBaseUri(), config.getBasePath(), auth, options);
+ * </pre>
+ */
+@Getter
+@Builder(toBuilder = true)
+public class ClientOptions {
+
+    /**
+     * Client name reported to the metrics listener (the service name for ServiceConfig clients)
+     */
+    @Builder.Default
+    private final String name = "default";
+
+    @Builder.Default
+    private final LoggingProfile loggingProfile = LoggingProfile.FULL;
+
+    /**
+     * One request out of every sampleRate is logged with {@link LoggingProfile#SAMPLED}
+     */
+    @Builder.Default
+    private final int sampleRate = LoggingProfile.DEFAULT_SAMPLE_RATE;
+
+    /**
+     * Connection pool, or null to let RestAssured open a new connection for each request
+     */
+    private final ConnectionPool connectionPool;
+
+    /**
+     * HTTP/2 transport replacing RestAssured's HTTP/1.1 client (the connection pool is then unused),
+     * or null for HTTP/1.1
+     */
+    private final Http2Transport http2Transport;
+
+    /**
+     * Source of the Bearer token of every request (replacing the authentication scheme of the client),
+     * or null to use the authentication scheme
+     */
+    private final TokenProvider tokenProvider;
+
+    /**
+     * Metrics hook, or null to disable metrics
+     */
+    private final MetricsListener metricsListener;
+
+    /**
+     * Retry policy, or null to send every request once
+     */
+    private final RetryPolicy retryPolicy;
+
+    /**
+     * Circuit breaker, or null to always send requests
+     */
+    private final CircuitBreaker circuitBreaker;
+
+    /**
+     * Rate limiter applied before every attempt, or null for no limit
+     */
+    private final RateLimiter rateLimiter;
+
+    /**
+     * HTTP cache for GET requests, or null to always go to the network
+     */
+    private final ResponseCache responseCache;
+
+    /**
+     * Records responses to, or replays them from, a response store; null to always use the network
+     */
+    private final ResponseRecorder responseRecorder;
+
+    /**
+     * Options from the global ApiConfig (logging profile and metrics; no connection pool, retries, breaker,
+     * rate limit or cache)
+     */
+    public static ClientOptions defaults() {
+        ApiConfig config = ApiConfig.getInstance();
+        return ClientOptions.builder()
+                .loggingProfile(LoggingProfile.fromValue(config.getLoggingProfile()))
+                .sampleRate(config.getLoggingSampleRate())
+                .metricsListener(config.isMetricsEnabled() ? ClientMetrics.getDefault() : null)
+                .build();
+    }
+
+    /**
+     * Options of a configured service: logging profile, metrics, retry policy, and the connection pool or HTTP/2
+     * transport, circuit breaker, rate limiter, response cache and response store shared by the clients of the
+     * service. Replaying clients never reach the service, so they have no retries, circuit breaker or rate limit.
+     */
+    public static ClientOptions forService(ServiceConfig config) {
+        Http2Transport http2Transport = Http2Transport.forService(config);
+        ResponseRecorder responseRecorder = ResponseRecorder.forService(config);
+        boolean replaying = responseRecorder != null && responseRecorder.getMode() == ReplayMode.REPLAY;
+        return ClientOptions.builder()
+                .name(config.getServiceName())
+                .loggingProfile(LoggingProfile.fromValue(config.getLoggingProfile()))
+                .sampleRate(config.getLoggingSampleRate())
+                .connectionPool(http2Transport == null ? ConnectionPool.forService(config) : null)
+                .http2Transport(http2Transport)
+                .metricsListener(config.isMetricsEnabled() ? ClientMetrics.getDefault() : null)
+                .retryPolicy(replaying ? null : RetryPolicy.forService(config))
+                .circuitBreaker(replaying ? null : CircuitBreaker.forService(config))
+                .rateLimiter(replaying ? null : RateLimiter.forService(config))
+                .responseCache(ResponseCache.forService(config))
+                .responseRecorder(responseRecorder)
+                .build();
+    }
+}
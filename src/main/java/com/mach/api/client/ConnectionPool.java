@@ -0,0 +1,202 @@
+package com.mach.api.client;
+
+import com.mach.api.config.ServiceConfig;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.filter.Filter;
+import io.restassured.response.Response;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pooled, keep-alive HTTP connections shared by all RestClients of a service.
+ *
+ * RestAssured creates a new HTTP client, and therefore new TCP/TLS connections, for every request by default.
+ * A ConnectionPool holds a single connection manager per service whose connections are kept alive and reused.
+ * Every request still gets its own lightweight Apache HTTP client on top of that manager: RestAssured rewires the
+ * content-encoding interceptors of the client on each request, which is not safe on a client shared by threads.
+ *
+ * Configured per service (see {@link ServiceConfig}):
+ * <pre>
+ * api.account.pool.max.total=200         # ACCOUNT_API_POOL_MAX_TOTAL
+ * api.account.pool.max.per.route=50      # ACCOUNT_API_POOL_MAX_PER_ROUTE
+ * api.account.pool.idle.timeout.ms=30000 # ACCOUNT_API_POOL_IDLE_TIMEOUT_MS
+ * api.account.pool.keep.alive.ms=30000   # ACCOUNT_API_POOL_KEEP_ALIVE_MS
+ * </pre>
+ */
+@SuppressWarnings("deprecation")
+public class ConnectionPool implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ConnectionPool.class);
+    private static final Map<String, ConnectionPool> POOLS = new ConcurrentHashMap<>();
+    private static final Filter RELEASE_FILTER = (requestSpec, responseSpec, ctx) -> {
+        Response response = ctx.next(requestSpec, responseSpec);
+        response.asByteArray();
+        return response;
+    };
+    private static final ScheduledExecutorService EVICTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "rest-client-pool-evictor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String name;
+    private final PoolingClientConnectionManager connectionManager;
+    private final ConnectionKeepAliveStrategy keepAliveStrategy;
+    private final HttpClientConfig httpClientConfig;
+    private final ScheduledFuture<?> eviction;
+
+    /**
+     * Create a pool
+     *
+     * @param name Pool name (used in logs)
+     * @param maxTotal Maximum number of connections across all routes
+     * @param maxPerRoute Maximum number of connections per host
+     * @param idleTimeoutMillis Connections idle for longer than this are closed
+     * @param keepAliveMillis Keep-alive duration used when the server does not send a Keep-Alive header
+     */
+    public ConnectionPool(String name, int maxTotal, int maxPerRoute, long idleTimeoutMillis, long keepAliveMillis) {
+        this.name = name;
+        this.connectionManager = new PoolingClientConnectionManager();
+        this.connectionManager.setMaxTotal(maxTotal);
+        this.connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+
+        this.keepAliveStrategy = keepAliveStrategy(keepAliveMillis);
+
+        this.httpClientConfig = HttpClientConfig.httpClientConfig()
+                .httpClientFactory(this::newHttpClient)
+                .dontReuseHttpClientInstance();
+
+        long evictionPeriod = Math.max(1000, idleTimeoutMillis / 2);
+        this.eviction = EVICTOR.scheduleWithFixedDelay(() -> {
+            connectionManager.closeExpiredConnections();
+            connectionManager.closeIdleConnections(idleTimeoutMillis, TimeUnit.MILLISECONDS);
+        }, evictionPeriod, evictionPeriod, TimeUnit.MILLISECONDS);
+
+        LOG.debug("Connection pool '{}' created: maxTotal={}, maxPerRoute={}, idleTimeout={}ms, keepAlive={}ms",
+                name, maxTotal, maxPerRoute, idleTimeoutMillis, keepAliveMillis);
+    }
+
+    /**
+     * Get the pool of a service, creating it from its configuration on first use
+     *
+     * @param config Service configuration
+     * @return ConnectionPool shared by all clients of the service
+     */
+    public static ConnectionPool forService(ServiceConfig config) {
+        return POOLS.computeIfAbsent(config.getServiceName(), serviceName -> new ConnectionPool(serviceName,
+                config.getPoolMaxTotal(), config.getPoolMaxPerRoute(),
+                config.getPoolIdleTimeoutMillis(), config.getPoolKeepAliveMillis()));
+    }
+
+    /**
+     * RestAssured configuration that sends every request through this pool, with a new client per request
+     */
+    public HttpClientConfig httpClientConfig() {
+        return httpClientConfig;
+    }
+
+    /**
+     * Filter that reads the response body as soon as it arrives, which returns the connection to the pool.
+     * Without it a response whose body is never read would keep its connection leased forever.
+     */
+    public Filter releaseFilter() {
+        return RELEASE_FILTER;
+    }
+
+    /**
+     * Get a snapshot of the pool usage
+     */
+    public Stats getStats() {
+        PoolStats stats = connectionManager.getTotalStats();
+        return new Stats(stats.getLeased(), stats.getAvailable(), stats.getPending(), stats.getMax());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Close all connections and stop idle eviction
+     */
+    @Override
+    public void close() {
+        eviction.cancel(false);
+        POOLS.remove(name, this);
+        connectionManager.shutdown();
+    }
+
+    private DefaultHttpClient newHttpClient() {
+        DefaultHttpClient httpClient = new DefaultHttpClient(connectionManager);
+        httpClient.setKeepAliveStrategy(keepAliveStrategy);
+        return httpClient;
+    }
+
+    private static ConnectionKeepAliveStrategy keepAliveStrategy(long keepAliveMillis) {
+        return (response, context) -> {
+            long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return serverKeepAlive > 0 ? serverKeepAlive : keepAliveMillis;
+        };
+    }
+
+    /**
+     * Pool usage snapshot
+     */
+    public static final class Stats {
+        private final int leased;
+        private final int available;
+        private final int pending;
+        private final int max;
+
+        public Stats(int leased, int available, int pending, int max) {
+            this.leased = leased;
+            this.available = available;
+            this.pending = pending;
+            this.max = max;
+        }
+
+        /**
+         * Connections currently used by a request
+         */
+        public int getLeased() {
+            return leased;
+        }
+
+        /**
+         * Idle connections ready to be reused
+         */
+        public int getAvailable() {
+            return available;
+        }
+
+        /**
+         * Requests waiting for a connection
+         */
+        public int getPending() {
+            return pending;
+        }
+
+        /**
+         * Maximum number of connections
+         */
+        public int getMax() {
+            return max;
+        }
+
+        @Override
+        public String toString() {
+            return "leased=" + leased + ", available=" + available + ", pending=" + pending + ", max=" + max;
+        }
+    }
+}
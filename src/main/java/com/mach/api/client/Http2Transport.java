@@ -0,0 +1,295 @@
+package com.mach.api.client;
+
+import com.mach.api.config.ServiceConfig;
+import io.restassured.authentication.AuthenticationScheme;
+import io.restassured.authentication.ExplicitNoAuthScheme;
+import io.restassured.authentication.NoAuthScheme;
+import io.restassured.authentication.PreemptiveOAuth2HeaderScheme;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * HTTP/2 transport shared by all RestClients of a service.
+ *
+ * RestAssured sends every request through an HTTP/1.1 Apache client, so the number of requests in flight is
+ * bounded by the number of open connections. With an Http2Transport the requests are sent by a
+ * {@link java.net.http.HttpClient} instead, which multiplexes all concurrent requests to a host over a single
+ * HTTP/2 connection ({@code https} negotiated with ALPN, cleartext {@code http} upgraded to h2c). Servers that
+ * only speak HTTP/1.1 are still served, over HTTP/1.1.
+ *
+ * The transport is the last filter of the RestClient specification: the request is still built by RestAssured,
+ * logging, metrics and assertions work unchanged, and the answer is returned as a RestAssured {@link Response}.
+ * Requests the transport cannot express (multipart, form parameters, challenged or OAuth1 authentication) are
+ * passed on to the Apache client.
+ *
+ * Configured per service (see {@link ServiceConfig}):
+ * <pre>
+ * api.account.transport=http2 # ACCOUNT_API_TRANSPORT (default http1)
+ * </pre>
+ */
+public class Http2Transport {
+
+    private static final Logger LOG = LoggerFactory.getLogger(Http2Transport.class);
+    private static final Map<String, Http2Transport> TRANSPORTS = new ConcurrentHashMap<>();
+
+    /**
+     * Headers set by java.net.http itself, which it refuses to take from the caller
+     */
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host",
+            "upgrade");
+
+    private final String name;
+    private final HttpClient httpClient;
+    private final Map<String, Boolean> connectedOrigins = new ConcurrentHashMap<>();
+    private final Filter filter = new TransportFilter(false);
+    private final Filter streamingFilter = new TransportFilter(true);
+
+    /**
+     * Create a transport with its own HTTP/2 client
+     *
+     * @param name Transport name (used in logs)
+     */
+    public Http2Transport(String name) {
+        this(name, HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build());
+    }
+
+    /**
+     * Create a transport sending requests through the given client
+     *
+     * @param name Transport name (used in logs)
+     * @param httpClient Client used for every request
+     */
+    public Http2Transport(String name, HttpClient httpClient) {
+        this.name = name;
+        this.httpClient = httpClient;
+        LOG.debug("HTTP/2 transport '{}' created", name);
+    }
+
+    /**
+     * Get the transport of a service, creating it on first use
+     *
+     * @param config Service configuration
+     * @return Http2Transport shared by all clients of the service, or null if the service uses HTTP/1.1
+     * @throws IllegalArgumentException if the configured transport is unknown
+     */
+    public static Http2Transport forService(ServiceConfig config) {
+        String transport = config.getTransport().trim().toLowerCase(Locale.ROOT);
+        switch (transport) {
+            case "http1":
+            case "http/1.1":
+                return null;
+            case "http2":
+            case "h2":
+                return TRANSPORTS.computeIfAbsent(config.getServiceName(), Http2Transport::new);
+            default:
+                throw new IllegalArgumentException("Unknown transport for service '" + config.getServiceName()
+                        + "': " + config.getTransport());
+        }
+    }
+
+    /**
+     * Filter that sends the request and reads the whole response body
+     */
+    public Filter filter() {
+        return filter;
+    }
+
+    /**
+     * Filter that sends the request and leaves the response body as an unread stream; the HTTP/2 stream is
+     * released when the body is consumed or closed
+     */
+    public Filter streamingFilter() {
+        return streamingFilter;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Open the connection to the origin of a request before its first request. java.net.http only upgrades a
+     * cleartext connection to h2c on a request without body, and concurrent first requests would each open a
+     * connection of their own: a single OPTIONS request, which the other first requests wait for, avoids both.
+     */
+    private void connect(URI uri) {
+        String origin = uri.getScheme() + "://" + uri.getRawAuthority();
+        if (connectedOrigins.containsKey(origin)) {
+            return;
+        }
+        connectedOrigins.computeIfAbsent(origin, key -> {
+            try {
+                HttpResponse<Void> response = httpClient.send(HttpRequest.newBuilder(uri)
+                        .method("OPTIONS", HttpRequest.BodyPublishers.noBody())
+                        .build(), HttpResponse.BodyHandlers.discarding());
+                LOG.debug("HTTP/2 transport '{}' connected to {} with {}", name, origin, response.version());
+                return Boolean.TRUE;
+            } catch (IOException e) {
+                LOG.debug("HTTP/2 transport '{}' could not connect to {}: {}", name, origin, e.toString());
+                return null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Check if the request can be sent by java.net.http
+     */
+    private static boolean supports(FilterableRequestSpecification requestSpec) {
+        AuthenticationScheme authentication = requestSpec.getAuthenticationScheme();
+        boolean supportedAuthentication = authentication == null || authentication instanceof NoAuthScheme
+                || authentication instanceof ExplicitNoAuthScheme
+                || authentication instanceof PreemptiveOAuth2HeaderScheme;
+        Object body = requestSpec.getBody();
+        boolean supportedBody = body == null || body instanceof byte[] || body instanceof String
+                || body instanceof File || body instanceof InputStream;
+        return supportedAuthentication && supportedBody && requestSpec.getMultiPartParams().isEmpty()
+                && requestSpec.getFormParams().isEmpty();
+    }
+
+    private static HttpRequest toHttpRequest(FilterableRequestSpecification requestSpec) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(requestSpec.getURI()))
+                .method(requestSpec.getMethod(), bodyPublisher(requestSpec));
+        for (Header header : requestSpec.getHeaders()) {
+            if (!RESTRICTED_HEADERS.contains(header.getName().toLowerCase(Locale.ROOT))) {
+                request.header(header.getName(), header.getValue());
+            }
+        }
+        if (requestSpec.getCookies().exist()) {
+            request.header("Cookie", requestSpec.getCookies().asList().stream()
+                    .map(cookie -> cookie.getName() + "=" + cookie.getValue())
+                    .collect(Collectors.joining("; ")));
+        }
+        if (requestSpec.getAuthenticationScheme() instanceof PreemptiveOAuth2HeaderScheme) {
+            request.header("Authorization", "Bearer "
+                    + ((PreemptiveOAuth2HeaderScheme) requestSpec.getAuthenticationScheme()).getAccessToken());
+        }
+        return request.build();
+    }
+
+    private static HttpRequest.BodyPublisher bodyPublisher(FilterableRequestSpecification requestSpec) {
+        Object body = requestSpec.getBody();
+        if (body == null) {
+            return HttpRequest.BodyPublishers.noBody();
+        }
+        if (body instanceof byte[]) {
+            return HttpRequest.BodyPublishers.ofByteArray((byte[]) body);
+        }
+        if (body instanceof String) {
+            return HttpRequest.BodyPublishers.ofString((String) body, charset(requestSpec.getContentType()));
+        }
+        if (body instanceof File) {
+            try {
+                return HttpRequest.BodyPublishers.ofFile(((File) body).toPath());
+            } catch (FileNotFoundException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return HttpRequest.BodyPublishers.ofInputStream(() -> (InputStream) body);
+    }
+
+    /**
+     * Charset of a Content-Type header, UTF-8 when it has none
+     */
+    private static Charset charset(String contentType) {
+        if (contentType != null) {
+            for (String parameter : contentType.split(";")) {
+                String[] pair = parameter.trim().split("=", 2);
+                if (pair.length == 2 && "charset".equalsIgnoreCase(pair[0].trim())) {
+                    return Charset.forName(pair[1].trim().replace("\"", ""));
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    private static ResponseBuilder toResponseBuilder(HttpResponse<?> response) {
+        List<Header> headers = new ArrayList<>();
+        response.headers().map().forEach((headerName, values) -> {
+            if (!headerName.startsWith(":")) {
+                values.forEach(value -> headers.add(new Header(headerName, value)));
+            }
+        });
+        String version = response.version() == HttpClient.Version.HTTP_2 ? "HTTP/2" : "HTTP/1.1";
+        return new ResponseBuilder()
+                .setStatusCode(response.statusCode())
+                .setStatusLine(version + " " + response.statusCode())
+                .setHeaders(new Headers(headers))
+                .setContentType(response.headers().firstValue("Content-Type").orElse(""));
+    }
+
+    /**
+     * Terminal filter: sends the request with java.net.http instead of passing it on to RestAssured.
+     * Runs after every other filter, including Allure's, which also asks to be last.
+     */
+    private final class TransportFilter implements OrderedFilter {
+        private final boolean streaming;
+
+        private TransportFilter(boolean streaming) {
+            this.streaming = streaming;
+        }
+
+        @Override
+        public int getOrder() {
+            return LOWEST_PRECEDENCE;
+        }
+
+        @Override
+        public Response filter(FilterableRequestSpecification requestSpec,
+                               FilterableResponseSpecification responseSpec, FilterContext ctx) {
+            if (!supports(requestSpec)) {
+                LOG.debug("{} {} not supported by HTTP/2 transport '{}', sent over HTTP/1.1",
+                        requestSpec.getMethod(), requestSpec.getURI(), name);
+                return ctx.next(requestSpec, responseSpec);
+            }
+            HttpRequest request = toHttpRequest(requestSpec);
+            connect(request.uri());
+            try {
+                if (streaming) {
+                    HttpResponse<InputStream> response = httpClient.send(request,
+                            HttpResponse.BodyHandlers.ofInputStream());
+                    return toResponseBuilder(response).setBody(response.body()).build();
+                }
+                HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                return toResponseBuilder(response).setBody(response.body()).build();
+            } catch (IOException e) {
+                throw new UncheckedIOException(request.method() + " " + request.uri() + " failed", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for " + request.uri(), e);
+            }
+        }
+    }
+}
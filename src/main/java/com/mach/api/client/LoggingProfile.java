@@ -0,0 +1,123 @@
+package com.mach.api.client;
+
+import com.mach.api.client.logging.LogOnFailureFilter;
+import com.mach.api.client.logging.SampledFilter;
+import com.mach.api.client.logging.TextBodyFilter;
+import io.qameta.allure.restassured.AllureRestAssured;
+import io.restassured.filter.Filter;
+import io.restassured.filter.log.LogDetail;
+import io.restassured.filter.log.RequestLoggingFilter;
+import io.restassured.filter.log.ResponseLoggingFilter;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Filter chain attached to every request of a RestClient.
+ * The filters are created once per client and shared by all of its requests.
+ *
+ * Configured with {@code api.logging.profile} (or {@code api.{service}.logging.profile}) using one of:
+ * {@code full}, {@code headers-only}, {@code on-failure}, {@code sampled}, {@code off}.
+ */
+public enum LoggingProfile {
+
+    /**
+     * Log full request and response and attach both to the Allure report
+     */
+    FULL {
+        @Override
+        public List<Filter> createFilters(int sampleRate) {
+            return List.of(new TextBodyFilter(new RequestLoggingFilter()), new ResponseLoggingFilter(),
+                    new TextBodyFilter(new AllureRestAssured()));
+        }
+    },
+
+    /**
+     * Log request URI, status line and headers; bodies are never printed or buffered
+     */
+    HEADERS_ONLY {
+        @Override
+        public List<Filter> createFilters(int sampleRate) {
+            return List.of(
+                    new RequestLoggingFilter(LogDetail.URI),
+                    new RequestLoggingFilter(LogDetail.HEADERS),
+                    new ResponseLoggingFilter(LogDetail.STATUS),
+                    new ResponseLoggingFilter(LogDetail.HEADERS));
+        }
+    },
+
+    /**
+     * Write request and response out only for non-2xx responses or failed tests
+     *
+     * @see LogOnFailureFilter
+     */
+    ON_FAILURE {
+        @Override
+        public List<Filter> createFilters(int sampleRate) {
+            return List.of(new LogOnFailureFilter());
+        }
+    },
+
+    /**
+     * Apply the {@link #FULL} profile to one request out of every {@code sampleRate}
+     */
+    SAMPLED {
+        @Override
+        public List<Filter> createFilters(int sampleRate) {
+            SampledFilter.Sampler sampler = new SampledFilter.Sampler(sampleRate);
+            return FULL.createFilters(sampleRate).stream()
+                    .map(filter -> new SampledFilter(filter, sampler))
+                    .collect(Collectors.toUnmodifiableList());
+        }
+    },
+
+    /**
+     * No logging and no Allure attachments
+     */
+    OFF {
+        @Override
+        public List<Filter> createFilters(int sampleRate) {
+            return Collections.emptyList();
+        }
+    };
+
+    /**
+     * Sample rate used when none is configured
+     */
+    public static final int DEFAULT_SAMPLE_RATE = 100;
+
+    /**
+     * Create the filters for this profile
+     *
+     * @param sampleRate Sample one request out of every {@code sampleRate} (only used by {@link #SAMPLED})
+     */
+    public abstract List<Filter> createFilters(int sampleRate);
+
+    /**
+     * Create the filters for this profile using the default sample rate
+     */
+    public List<Filter> createFilters() {
+        return createFilters(DEFAULT_SAMPLE_RATE);
+    }
+
+    /**
+     * Parse a profile name as written in configuration, e.g. "full", "headers-only", "on-failure"
+     *
+     * @param value Profile name (case insensitive, '-' and '_' are equivalent); null means {@link #FULL}
+     * @return LoggingProfile
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    public static LoggingProfile fromValue(String value) {
+        if (value == null || value.isBlank()) {
+            return FULL;
+        }
+        String name = value.trim().toUpperCase(Locale.ROOT).replace('-', '_');
+        try {
+            return valueOf(name);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown logging profile: " + value, e);
+        }
+    }
+}
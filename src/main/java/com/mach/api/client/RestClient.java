@@ -1,95 +1,270 @@
 package com.mach.api.client;
 
+import com.mach.api.client.auth.BearerTokenFilter;
+import com.mach.api.client.auth.TokenProvider;
+import com.mach.api.client.cache.ResponseCache;
+import com.mach.api.client.resilience.CircuitBreaker;
+import com.mach.api.client.resilience.RateLimiter;
+import com.mach.api.client.resilience.RetryPolicy;
 import com.mach.api.config.ApiConfig;
+import com.mach.api.config.ServiceConfig;
+import com.mach.api.metrics.MetricsFilter;
+import com.mach.api.util.JsonMapping;
 import com.mach.api.util.SessionStorage;
-import io.qameta.allure.restassured.AllureRestAssured;
 import io.restassured.RestAssured;
+import io.restassured.authentication.AuthenticationScheme;
+import io.restassured.authentication.BasicAuthScheme;
+import io.restassured.authentication.OAuth2Scheme;
+import io.restassured.authentication.PreemptiveBasicAuthScheme;
+import io.restassured.authentication.PreemptiveOAuth2HeaderScheme;
 import io.restassured.builder.RequestSpecBuilder;
-import io.restassured.filter.Filter;
-import io.restassured.filter.log.RequestLoggingFilter;
-import io.restassured.filter.log.ResponseLoggingFilter;
+import io.restassured.config.ObjectMapperConfig;
+import io.restassured.config.RestAssuredConfig;
 import io.restassured.http.ContentType;
 import io.restassured.http.Method;
 import io.restassured.response.Response;
 import io.restassured.response.ValidatableResponse;
+import io.restassured.specification.FilterableRequestSpecification;
 import io.restassured.specification.RequestSpecification;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.InputStream;
 import java.security.InvalidParameterException;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static io.restassured.RestAssured.given;
 
 /**
  * Reusable REST Client for consuming REST services.
  * Can be used as a library in any Java project.
+ * 
+ * Each instance owns its own request specification (base URI, base path, authentication),
+ * so several clients can coexist and run in parallel in the same JVM.
  */
 public class RestClient {
 
     private static final Logger LOG = LoggerFactory.getLogger(RestClient.class);
 
+    private final RequestSpecification requestSpecification;
+    private final RequestSpecification streamingSpecification;
+    private final ClientOptions options;
+    private final String cacheIdentity;
+
     /**
      * Default constructor using ApiConfig for configuration
      */
     public RestClient() {
-        ApiConfig config = ApiConfig.getInstance();
-        if (config.hasAuth()) {
-            if (config.getBearerToken() != null) {
-                RestAssured.baseURI = config.getBaseUri();
-                RestAssured.basePath = config.getBasePath();
-                RestAssured.authentication = RestAssured.oauth2(config.getBearerToken());
-            } else if (config.getUsername() != null && config.getPassword() != null) {
-                RestAssured.baseURI = config.getBaseUri();
-                RestAssured.basePath = config.getBasePath();
-                RestAssured.authentication = RestAssured.preemptive().basic(config.getUsername(), config.getPassword());
-            } else {
-                RestAssured.baseURI = config.getBaseUri();
-                RestAssured.basePath = config.getBasePath();
-            }
-        } else {
-            RestAssured.baseURI = config.getBaseUri();
-            RestAssured.basePath = config.getBasePath();
-        }
+        this(ApiConfig.getInstance());
+    }
+
+    private RestClient(ApiConfig config) {
+        this(config.getBaseUri(), config.getBasePath(), authenticationFor(config), ClientOptions.defaults());
+    }
+
+    /**
+     * Constructor for a configured service: base URI, base path, authentication (Bearer token first,
+     * then Basic Auth), logging profile, connection pool and metrics are taken from the ServiceConfig
+     */
+    public RestClient(ServiceConfig config) {
+        this(config, authenticationFor(config));
+    }
+
+    /**
+     * Constructor for a configured service with an explicit authentication scheme (null for none)
+     * overriding the one in the ServiceConfig
+     */
+    public RestClient(ServiceConfig config, AuthenticationScheme authentication) {
+        this(config.getBaseUri(), config.getBasePath(), authentication, ClientOptions.forService(config));
+    }
+
+    /**
+     * Constructor for a configured service whose Bearer token is asked from a token provider on every request,
+     * overriding the authentication in the ServiceConfig
+     */
+    public RestClient(ServiceConfig config, TokenProvider tokenProvider) {
+        this(config.getBaseUri(), config.getBasePath(), null, ClientOptions.forService(config).toBuilder()
+                .tokenProvider(tokenProvider)
+                .build());
     }
 
     /**
      * Constructor with base URI and base path
      */
     public RestClient(String baseURI, String basePath) {
-        RestAssured.baseURI = baseURI;
-        RestAssured.basePath = basePath;
+        this(baseURI, basePath, (AuthenticationScheme) null);
     }
 
     /**
      * Constructor with base URI, base path and Bearer token
      */
     public RestClient(String baseURI, String basePath, String token) {
-        RestAssured.baseURI = baseURI;
-        RestAssured.basePath = basePath;
-        RestAssured.authentication = RestAssured.oauth2(token);
+        this(baseURI, basePath, RestAssured.oauth2(token));
     }
 
     /**
      * Constructor with base URI, base path and Basic Auth credentials
      */
     public RestClient(String baseURI, String basePath, String username, String password) {
-        RestAssured.baseURI = baseURI;
-        RestAssured.basePath = basePath;
-        RestAssured.authentication = RestAssured.preemptive().basic(username, password);
+        this(baseURI, basePath, RestAssured.preemptive().basic(username, password));
+    }
+
+    /**
+     * Constructor with base URI, base path and an authentication scheme (null for none).
+     * The resulting specification belongs to this client only; RestAssured global state is never touched,
+     * so clients for different services can be used concurrently.
+     */
+    public RestClient(String baseURI, String basePath, AuthenticationScheme authentication) {
+        this(baseURI, basePath, authentication, ClientOptions.defaults());
+    }
+
+    /**
+     * Constructor with base URI, base path, authentication scheme (null for none) and logging profile
+     */
+    public RestClient(String baseURI, String basePath, AuthenticationScheme authentication,
+                      LoggingProfile loggingProfile) {
+        this(baseURI, basePath, authentication, ClientOptions.defaults().toBuilder()
+                .loggingProfile(loggingProfile)
+                .build());
+    }
+
+    /**
+     * Constructor with base URI, base path, authentication scheme (null for none), logging profile and
+     * sample rate (one request out of every {@code sampleRate} is logged with {@link LoggingProfile#SAMPLED})
+     */
+    public RestClient(String baseURI, String basePath, AuthenticationScheme authentication,
+                      LoggingProfile loggingProfile, int sampleRate) {
+        this(baseURI, basePath, authentication, ClientOptions.defaults().toBuilder()
+                .loggingProfile(loggingProfile)
+                .sampleRate(sampleRate)
+                .build());
+    }
+
+    /**
+     * Constructor with base URI, base path, authentication scheme (null for none) and client options.
+     * The specification, including the filter chain, is built once and reused by every request.
+     */
+    public RestClient(String baseURI, String basePath, AuthenticationScheme authentication, ClientOptions options) {
+        this.requestSpecification = buildSpecification(baseURI, basePath, authentication, options, false);
+        this.streamingSpecification = buildSpecification(baseURI, basePath, authentication, options, true);
+        this.options = options;
+        this.cacheIdentity = options.getResponseCache() != null
+                ? cacheIdentityOf(authentication, options.getTokenProvider()) : null;
+    }
+
+    /**
+     * Build the request specification shared by all requests of this client.
+     * JSON bodies are mapped with the shared {@link JsonMapping} ObjectMapper; RestAssured keeps choosing the
+     * mapper by content type, so other content types get its own serialization.
+     * The streaming variant leaves the response body unread: it has no connection release filter,
+     * logs at most headers and measures the response size from Content-Length.
+     * With a token provider its filter comes first, so that every other filter sees the Authorization header.
+     * With a response recorder its filter comes after logging, so that replayed responses are logged too.
+     * With an HTTP/2 transport its filter is added last and sends the requests instead of RestAssured.
+     */
+    private static RequestSpecification buildSpecification(String baseURI, String basePath,
+                                                           AuthenticationScheme authentication,
+                                                           ClientOptions options, boolean streaming) {
+        RequestSpecBuilder builder = new RequestSpecBuilder()
+                .setBaseUri(baseURI)
+                .setBasePath(basePath != null ? basePath : "");
+        if (options.getTokenProvider() != null) {
+            builder.addFilter(new BearerTokenFilter(options.getTokenProvider()));
+        }
+        if (options.getMetricsListener() != null) {
+            builder.addFilter(streaming
+                    ? MetricsFilter.streaming(options.getName(), options.getMetricsListener())
+                    : new MetricsFilter(options.getName(), options.getMetricsListener()));
+        }
+        RestAssuredConfig config = RestAssuredConfig.config()
+                .objectMapperConfig(ObjectMapperConfig.objectMapperConfig()
+                        .jackson2ObjectMapperFactory((type, charset) -> JsonMapping.mapper()));
+        if (options.getConnectionPool() != null && options.getHttp2Transport() == null) {
+            config = config.httpClient(options.getConnectionPool().httpClientConfig());
+            if (!streaming) {
+                builder.addFilter(options.getConnectionPool().releaseFilter());
+            }
+        }
+        builder.setConfig(config);
+        if (!streaming) {
+            builder.addFilters(options.getLoggingProfile().createFilters(options.getSampleRate()));
+        } else if (options.getLoggingProfile() != LoggingProfile.OFF) {
+            builder.addFilters(LoggingProfile.HEADERS_ONLY.createFilters());
+        }
+        if (options.getResponseRecorder() != null) {
+            builder.addFilter(streaming
+                    ? options.getResponseRecorder().streamingFilter()
+                    : options.getResponseRecorder().filter());
+        }
+        if (options.getHttp2Transport() != null) {
+            builder.addFilter(streaming
+                    ? options.getHttp2Transport().streamingFilter()
+                    : options.getHttp2Transport().filter());
+        }
+        if (authentication != null) {
+            builder.setAuth(authentication);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Resolve the authentication scheme configured in ApiConfig (Bearer token first, then Basic Auth)
+     */
+    private static AuthenticationScheme authenticationFor(ApiConfig config) {
+        if (config.getBearerToken() != null) {
+            return RestAssured.oauth2(config.getBearerToken());
+        }
+        if (config.getUsername() != null && config.getPassword() != null) {
+            return RestAssured.preemptive().basic(config.getUsername(), config.getPassword());
+        }
+        return null;
+    }
+
+    /**
+     * Resolve the authentication scheme configured in ServiceConfig (Bearer token first, then Basic Auth)
+     */
+    private static AuthenticationScheme authenticationFor(ServiceConfig config) {
+        if (config.hasBearerToken()) {
+            return RestAssured.oauth2(config.getBearerToken());
+        }
+        if (config.hasBasicAuth()) {
+            return RestAssured.preemptive().basic(config.getUsername(), config.getPassword());
+        }
+        return null;
     }
 
     /**
-     * Get default request specification with filters
+     * Identity of the credentials of a token provider or authentication scheme, so that clients with different
+     * credentials never share cached responses. The tokens of a provider are renewed, so the provider itself is
+     * the identity.
      */
-    private static RequestSpecification defaultRequestSpecification() {
-        List<Filter> filters = new ArrayList<>();
-        filters.add(new RequestLoggingFilter());
-        filters.add(new ResponseLoggingFilter());
-        filters.add(new AllureRestAssured());
-        return new RequestSpecBuilder().addFilters(filters).build();
+    private static String cacheIdentityOf(AuthenticationScheme authentication, TokenProvider tokenProvider) {
+        if (tokenProvider != null) {
+            return ResponseCache.identity("token-provider", String.valueOf(System.identityHashCode(tokenProvider)));
+        }
+        if (authentication == null) {
+            return ResponseCache.identity();
+        }
+        if (authentication instanceof PreemptiveOAuth2HeaderScheme) {
+            return ResponseCache.identity("oauth2", ((PreemptiveOAuth2HeaderScheme) authentication).getAccessToken());
+        }
+        if (authentication instanceof OAuth2Scheme) {
+            return ResponseCache.identity("oauth2", ((OAuth2Scheme) authentication).getAccessToken());
+        }
+        if (authentication instanceof PreemptiveBasicAuthScheme) {
+            PreemptiveBasicAuthScheme basic = (PreemptiveBasicAuthScheme) authentication;
+            return ResponseCache.identity("basic", basic.getUserName(), basic.getPassword());
+        }
+        if (authentication instanceof BasicAuthScheme) {
+            BasicAuthScheme basic = (BasicAuthScheme) authentication;
+            return ResponseCache.identity("basic", basic.getUserName(), basic.getPassword());
+        }
+        // Unknown scheme: do not share cached responses with any other client
+        return ResponseCache.identity(authentication.getClass().getName(),
+                String.valueOf(System.identityHashCode(authentication)));
     }
 
     /**
@@ -101,9 +276,8 @@ public class RestClient {
      * @return ValidatableResponse for assertions
      */
     public ValidatableResponse runWebServiceWithBody(Method httpMethod, String resource, Object requestBody) {
-        RequestSpecification requestSpec = given().spec(defaultRequestSpecification())
-                .contentType(ContentType.JSON)
-                .body(requestBody);
+        RequestSpecification requestSpec = body(given().spec(requestSpecification)
+                .contentType(ContentType.JSON), requestBody);
         return call(httpMethod, resource, requestSpec).then();
     }
 
@@ -118,10 +292,9 @@ public class RestClient {
      */
     public ValidatableResponse runWebServiceWithBody(Method httpMethod, Map<String, ?> headers, 
                                                      String resource, Object requestBody) {
-        RequestSpecification requestSpec = given().spec(defaultRequestSpecification())
+        RequestSpecification requestSpec = body(given().spec(requestSpecification)
                 .contentType(ContentType.JSON)
-                .headers(headers)
-                .body(requestBody);
+                .headers(headers), requestBody);
         return call(httpMethod, resource, requestSpec).then();
     }
 
@@ -133,7 +306,7 @@ public class RestClient {
      * @return ValidatableResponse for assertions
      */
     public ValidatableResponse runSimpleWebService(Method httpMethod, String resource) {
-        RequestSpecification requestSpec = given().spec(defaultRequestSpecification());
+        RequestSpecification requestSpec = given().spec(requestSpecification);
         return call(httpMethod, resource, requestSpec).then();
     }
 
@@ -148,7 +321,7 @@ public class RestClient {
      */
     public ValidatableResponse runSimpleWebService(Method httpMethod, Map<String, ?> headers, 
                                                     Map<String, ?> parameters, String resource) {
-        RequestSpecification requestSpec = given().spec(defaultRequestSpecification())
+        RequestSpecification requestSpec = given().spec(requestSpecification)
                 .headers(headers)
                 .queryParams(parameters);
         return call(httpMethod, resource, requestSpec).then();
@@ -163,7 +336,7 @@ public class RestClient {
      * @return ValidatableResponse for assertions
      */
     public ValidatableResponse runSimpleWebService(Method httpMethod, Map<String, ?> headers, String resource) {
-        RequestSpecification requestSpec = given().spec(defaultRequestSpecification())
+        RequestSpecification requestSpec = given().spec(requestSpecification)
                 .headers(headers);
         return call(httpMethod, resource, requestSpec).then();
     }
@@ -179,7 +352,7 @@ public class RestClient {
      */
     public ValidatableResponse runSimpleWebService(Method httpMethod, Map<String, ?> headers, 
                                                    String resource, Map<String, ?> pathParameters) {
-        RequestSpecification requestSpec = given().spec(defaultRequestSpecification())
+        RequestSpecification requestSpec = given().spec(requestSpecification)
                 .headers(headers)
                 .pathParams(pathParameters);
         return call(httpMethod, resource, requestSpec).then();
@@ -198,13 +371,13 @@ public class RestClient {
     public ValidatableResponse runWebServiceWithBodyAndPathParams(Method httpMethod, Map<String, ?> headers,
                                                                   String resource, Map<String, ?> pathParameters,
                                                                   Object requestBody) {
-        RequestSpecification requestSpec = given().spec(defaultRequestSpecification())
-                .contentType(ContentType.JSON)
-                .body(requestBody);
+        RequestSpecification requestSpec = given().spec(requestSpecification)
+                .contentType(ContentType.JSON);
         
         if (headers != null && !headers.isEmpty()) {
             requestSpec.headers(headers);
         }
+        body(requestSpec, requestBody);
         
         if (pathParameters != null && !pathParameters.isEmpty()) {
             requestSpec.pathParams(pathParameters);
@@ -214,7 +387,83 @@ public class RestClient {
     }
 
     /**
-     * Core method to execute HTTP requests
+     * Execute a web service without reading its response body, so that the body can be consumed as a stream
+     * (see {@link com.mach.api.util.ResponseExtractor#streamArray}). Memory stays bounded whatever the payload size.
+     * Only headers are logged, and with a connection pool the connection is released when the body stream is
+     * closed, so the body must always be consumed or closed.
+     * 
+     * @param httpMethod HTTP method
+     * @param resource Resource endpoint
+     * @return Response whose body has not been read
+     */
+    public Response runStreamingWebService(Method httpMethod, String resource) {
+        return execute(httpMethod, resource, given().spec(streamingSpecification));
+    }
+
+    /**
+     * Execute a web service with headers and query parameters without reading its response body
+     * 
+     * @param httpMethod HTTP method
+     * @param headers Custom headers map
+     * @param parameters Query parameters map
+     * @param resource Resource endpoint
+     * @return Response whose body has not been read
+     * @see #runStreamingWebService(Method, String)
+     */
+    public Response runStreamingWebService(Method httpMethod, Map<String, ?> headers,
+                                           Map<String, ?> parameters, String resource) {
+        RequestSpecification requestSpec = given().spec(streamingSpecification)
+                .headers(headers)
+                .queryParams(parameters);
+        return execute(httpMethod, resource, requestSpec);
+    }
+
+    /**
+     * Set the request body. With a JSON content type sent as UTF-8, objects are serialized here to UTF-8 JSON bytes
+     * ({@link JsonMapping#writeValueAsBytes}) instead of letting RestAssured turn them into a String first;
+     * with any other content type or charset they are left to RestAssured's serialization for that type.
+     * Strings, byte arrays, files and streams are passed through unchanged.
+     */
+    private static RequestSpecification body(RequestSpecification requestSpec, Object requestBody) {
+        if (requestBody instanceof String) {
+            return requestSpec.body((String) requestBody);
+        }
+        if (requestBody instanceof byte[]) {
+            return requestSpec.body((byte[]) requestBody);
+        }
+        if (requestBody instanceof File) {
+            return requestSpec.body((File) requestBody);
+        }
+        if (requestBody instanceof InputStream) {
+            return requestSpec.body((InputStream) requestBody);
+        }
+        if (requestBody != null && isUtf8Json(((FilterableRequestSpecification) requestSpec).getContentType())) {
+            return requestSpec.body(JsonMapping.writeValueAsBytes(requestBody));
+        }
+        return requestSpec.body(requestBody);
+    }
+
+    /**
+     * Check if RestAssured sends a body of this content type as UTF-8 JSON: a JSON type with an explicit UTF-8
+     * charset, or {@code application/json} without charset (RestAssured appends ISO-8859-1 to the other types)
+     */
+    private static boolean isUtf8Json(String contentType) {
+        if (contentType == null) {
+            return true;
+        }
+        String normalized = contentType.toLowerCase(Locale.ROOT).replace(" ", "").replace("\"", "");
+        if (!normalized.contains("json")) {
+            return false;
+        }
+        int charset = normalized.indexOf("charset=");
+        return charset >= 0
+                ? normalized.startsWith("utf-8", charset + "charset=".length())
+                : normalized.split(";", 2)[0].equals("application/json");
+    }
+
+    /**
+     * Core method to execute HTTP requests. GET requests go through the response cache of the client options,
+     * when there is one.
      * 
      * @param httpMethod HTTP method
      * @param resource Resource endpoint
@@ -222,6 +471,120 @@ public class RestClient {
      * @return Response object
      */
     private Response call(Method httpMethod, String resource, RequestSpecification requestSpecification) {
+        ResponseCache responseCache = options.getResponseCache();
+        if (responseCache == null || httpMethod != Method.GET
+                || !(requestSpecification instanceof FilterableRequestSpecification)) {
+            return execute(httpMethod, resource, requestSpecification);
+        }
+        FilterableRequestSpecification filterable = (FilterableRequestSpecification) requestSpecification;
+        Response response = responseCache.call(ResponseCache.key(cacheIdentity, resource, filterable), filterable,
+                () -> execute(httpMethod, resource, requestSpecification));
+        SessionStorage.setLastResponse(response);
+        return response;
+    }
+
+    /**
+     * Execute an HTTP request, applying the rate limiter, circuit breaker and retry policy of the
+     * client options. Every attempt takes a rate limiter permit, waiting for it on the calling thread.
+     * Each retry sends a copy of the original specification and waits for the backoff (or Retry-After) on the
+     * calling thread; the response of the last attempt is returned.
+     * 
+     * @param httpMethod HTTP method
+     * @param resource Resource endpoint
+     * @param requestSpecification Request specification
+     * @return Response object
+     * @throws com.mach.api.client.resilience.CircuitBreakerOpenException if the circuit breaker of the service is open
+     */
+    private Response execute(Method httpMethod, String resource, RequestSpecification requestSpecification) {
+        RetryPolicy retryPolicy = options.getRetryPolicy();
+        CircuitBreaker circuitBreaker = options.getCircuitBreaker();
+        RateLimiter rateLimiter = options.getRateLimiter();
+        if (retryPolicy == null && circuitBreaker == null && rateLimiter == null) {
+            return send(httpMethod, resource, requestSpecification);
+        }
+        int maxAttempts = retryPolicy != null
+                && retryPolicy.canRetry(httpMethod, hasIdempotencyKey(requestSpecification))
+                ? retryPolicy.getMaxAttempts() : 1;
+        for (int attempt = 1; ; attempt++) {
+            if (rateLimiter != null) {
+                rateLimiter.acquire();
+            }
+            if (circuitBreaker != null) {
+                circuitBreaker.acquirePermission();
+            }
+            RequestSpecification attemptSpecification = maxAttempts > 1
+                    ? given().spec(requestSpecification) : requestSpecification;
+            Response response;
+            try {
+                response = send(httpMethod, resource, attemptSpecification);
+            } catch (Exception e) {
+                if (circuitBreaker != null) {
+                    circuitBreaker.onFailure();
+                }
+                if (attempt >= maxAttempts || !awaitRetry(httpMethod, resource, 0, attempt,
+                        retryPolicy.delayNanos(attempt, null))) {
+                    throw e;
+                }
+                continue;
+            }
+            int statusCode = response.getStatusCode();
+            if (circuitBreaker != null) {
+                if (CircuitBreaker.isFailure(statusCode)) {
+                    circuitBreaker.onFailure();
+                } else {
+                    circuitBreaker.onSuccess();
+                }
+            }
+            if (attempt >= maxAttempts || !retryPolicy.isRetryable(statusCode)) {
+                return response;
+            }
+            long delayNanos = retryPolicy.delayNanos(attempt, response.getHeader("Retry-After"));
+            if (delayNanos < 0) {
+                return response;
+            }
+            // Read the body of the discarded response (streaming calls) so its pooled connection is released
+            response.asByteArray();
+            if (!awaitRetry(httpMethod, resource, statusCode, attempt, delayNanos)) {
+                return response;
+            }
+        }
+    }
+
+    /**
+     * Report a retry and wait before it
+     * 
+     * @return false if the request must not be retried: the wait is negative (Retry-After too long)
+     *         or the thread was interrupted
+     */
+    private boolean awaitRetry(Method httpMethod, String resource, int statusCode, int attempt, long delayNanos) {
+        if (delayNanos < 0) {
+            return false;
+        }
+        LOG.debug("{} {} - attempt {} failed (status {}), retrying in {} ms",
+                httpMethod, resource, attempt, statusCode, TimeUnit.NANOSECONDS.toMillis(delayNanos));
+        if (options.getMetricsListener() != null) {
+            options.getMetricsListener().onRetry(options.getName(), httpMethod.name(), resource, statusCode,
+                    attempt, delayNanos);
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(delayNanos);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static boolean hasIdempotencyKey(RequestSpecification requestSpecification) {
+        return requestSpecification instanceof FilterableRequestSpecification
+                && ((FilterableRequestSpecification) requestSpecification).getHeaders()
+                        .hasHeaderWithName(RetryPolicy.IDEMPOTENCY_KEY_HEADER);
+    }
+
+    /**
+     * Send a single HTTP request
+     */
+    private Response send(Method httpMethod, String resource, RequestSpecification requestSpecification) {
         Response response;
         switch (httpMethod) {
             case GET:
@@ -249,9 +612,25 @@ public class RestClient {
     }
 
     /**
-     * Get the last response stored in SessionStorage
+     * Get the connection pool used by this client
+     * 
+     * @return ConnectionPool or null if every request opens its own connection
+     */
+    public ConnectionPool getConnectionPool() {
+        return options.getConnectionPool();
+    }
+
+    /**
+     * Get the options this client was created with
+     */
+    public ClientOptions getOptions() {
+        return options;
+    }
+
+    /**
+     * Get the last response stored in SessionStorage for the current thread
      * 
-     * @return Last Response object or null if no request has been made
+     * @return Last Response object or null if no request has been made on this thread
      */
     public static Response getLastResponse() {
         return SessionStorage.getLastResponse();
@@ -0,0 +1,27 @@
+package com.mach.api.client.auth;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Sets the Authorization header of every request to the current token of a {@link TokenProvider}.
+ * Each retry attempt passes through the filter again and therefore sends the token current at that moment.
+ */
+public class BearerTokenFilter implements Filter {
+
+    private final TokenProvider tokenProvider;
+
+    public BearerTokenFilter(TokenProvider tokenProvider) {
+        this.tokenProvider = tokenProvider;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        requestSpec.replaceHeader("Authorization", "Bearer " + tokenProvider.getToken());
+        return ctx.next(requestSpec, responseSpec);
+    }
+}
@@ -0,0 +1,40 @@
+package com.mach.api.client.auth;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.mach.api.util.JsonMapping;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Reads claims of JSON Web Tokens. Signatures are not verified: the claims are only used to know when a token
+ * the client was given expires.
+ */
+public final class Jwt {
+
+    private Jwt() {
+    }
+
+    /**
+     * Read the expiration ({@code exp} claim) of a JWT
+     *
+     * @param token Token in JWS compact form (header.payload.signature)
+     * @return Expiration, or null if the token is not a JWT or has no numeric {@code exp} claim
+     */
+    public static Instant expiration(String token) {
+        if (token == null) {
+            return null;
+        }
+        String[] parts = token.split("\\.", -1);
+        if (parts.length != 3) {
+            return null;
+        }
+        try {
+            JsonNode exp = JsonMapping.mapper().readTree(Base64.getUrlDecoder().decode(parts[1])).get("exp");
+            return exp != null && exp.isNumber() ? Instant.ofEpochSecond(exp.asLong()) : null;
+        } catch (IllegalArgumentException | IOException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.mach.api.client.auth;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * TokenProvider that fetches tokens on demand, caches them until they expire and renews them in the background.
+ *
+ * The expiration of a token is read from its JWT {@code exp} claim; a token that is not a JWT is kept for
+ * {@code defaultLifetime}. A background refresh runs {@code refreshAhead} before the expiration (but not before
+ * halfway through the lifetime of the token), so callers keep getting the cached token without waiting while the
+ * next one is fetched. Callers only wait for a fetch when there is no usable token: on first use, or when the
+ * background refreshes failed until the token expired.
+ *
+ * Fetches are single-flight: however many threads find the token expired at the same time, one of them fetches
+ * and all the others wait for its result.
+ *
+ * Example usage:
+ * <pre>
+ * RefreshingTokenProvider tokens = new RefreshingTokenProvider("account", () -&gt; authClient.login());
+ * AccountApiClient accountClient = new AccountApiClient(tokens);
+ * </pre>
+ */
+public class RefreshingTokenProvider implements TokenProvider, AutoCloseable {
+
+    /**
+     * Default time before expiration at which the token is renewed
+     */
+    public static final Duration DEFAULT_REFRESH_AHEAD = Duration.ofSeconds(60);
+
+    /**
+     * Default lifetime of tokens that are not JWTs
+     */
+    public static final Duration DEFAULT_LIFETIME = Duration.ofMinutes(5);
+
+    private static final Logger LOG = LoggerFactory.getLogger(RefreshingTokenProvider.class);
+
+    /**
+     * A token is no longer handed out during its last seconds (at most a tenth of its lifetime), so that it does
+     * not expire on its way to the server or because of clock skew
+     */
+    private static final long EXPIRY_MARGIN_MILLIS = 5_000;
+
+    /**
+     * Wait before retrying a failed background refresh (at most half the remaining lifetime of the token)
+     */
+    private static final long RETRY_DELAY_MILLIS = 5_000;
+
+    private static final ScheduledExecutorService REFRESHER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "rest-client-token-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String name;
+    private final Callable<String> fetcher;
+    private final long refreshAheadMillis;
+    private final long defaultLifetimeMillis;
+    private final AtomicReference<CompletableFuture<CachedToken>> inFlight = new AtomicReference<>();
+    private final LongAdder fetches = new LongAdder();
+    private volatile CachedToken current;
+    private volatile ScheduledFuture<?> scheduledRefresh;
+    private volatile boolean closed;
+
+    /**
+     * Create a provider with the default refresh ahead time and lifetime
+     *
+     * @param name Provider name (used in logs)
+     * @param fetcher Obtains a new token, e.g. by calling the login or token endpoint
+     */
+    public RefreshingTokenProvider(String name, Callable<String> fetcher) {
+        this(name, fetcher, DEFAULT_REFRESH_AHEAD, DEFAULT_LIFETIME);
+    }
+
+    /**
+     * Create a provider
+     *
+     * @param name Provider name (used in logs)
+     * @param fetcher Obtains a new token, e.g. by calling the login or token endpoint
+     * @param refreshAhead Time before expiration at which the token is renewed in the background
+     * @param defaultLifetime Lifetime of tokens without a JWT {@code exp} claim
+     */
+    public RefreshingTokenProvider(String name, Callable<String> fetcher, Duration refreshAhead,
+                                   Duration defaultLifetime) {
+        if (refreshAhead.isNegative() || defaultLifetime.isNegative() || defaultLifetime.isZero()) {
+            throw new IllegalArgumentException(
+                    "refreshAhead must not be negative and defaultLifetime must be positive");
+        }
+        this.name = name;
+        this.fetcher = fetcher;
+        this.refreshAheadMillis = refreshAhead.toMillis();
+        this.defaultLifetimeMillis = defaultLifetime.toMillis();
+    }
+
+    /**
+     * Get the cached token, fetching one first if there is no usable token
+     *
+     * @throws IllegalStateException if the token had to be fetched and the fetch failed
+     */
+    @Override
+    public String getToken() {
+        CachedToken token = current;
+        if (token != null && token.isUsable(System.currentTimeMillis())) {
+            return token.value;
+        }
+        return refresh(token).value;
+    }
+
+    /**
+     * Fetch a new token now, even if the cached one is still usable (e.g. after the server rejected it)
+     *
+     * @return The new token
+     * @throws IllegalStateException if the fetch failed
+     */
+    public String refresh() {
+        return refresh(current).value;
+    }
+
+    /**
+     * Get the expiration of the cached token, or null if no token was fetched yet
+     */
+    public Instant getExpiration() {
+        CachedToken token = current;
+        return token != null ? Instant.ofEpochMilli(token.expiresAtMillis) : null;
+    }
+
+    /**
+     * Get the number of fetches started so far
+     */
+    public long getFetchCount() {
+        return fetches.sum();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Stop refreshing in the background; the cached token is still returned until it expires
+     */
+    @Override
+    public void close() {
+        closed = true;
+        ScheduledFuture<?> refresh = scheduledRefresh;
+        if (refresh != null) {
+            refresh.cancel(false);
+        }
+    }
+
+    /**
+     * Replace {@code stale} with a new token. If a fetch is already in flight its result is awaited instead, and if
+     * the cached token is no longer {@code stale} (another thread just replaced it) it is returned as is.
+     */
+    private CachedToken refresh(CachedToken stale) {
+        while (true) {
+            CompletableFuture<CachedToken> pending = inFlight.get();
+            if (pending != null) {
+                return await(pending);
+            }
+            CachedToken latest = current;
+            if (latest != stale && latest != null && latest.isUsable(System.currentTimeMillis())) {
+                return latest;
+            }
+            CompletableFuture<CachedToken> fetch = new CompletableFuture<>();
+            if (inFlight.compareAndSet(null, fetch)) {
+                try {
+                    CachedToken token = fetch();
+                    current = token;
+                    scheduleRefresh(token);
+                    fetch.complete(token);
+                    return token;
+                } catch (Throwable e) {
+                    // Also Errors, e.g. an AssertionError of the login call: waiting threads must not hang
+                    fetch.completeExceptionally(e);
+                    throw e;
+                } finally {
+                    inFlight.compareAndSet(fetch, null);
+                }
+            }
+        }
+    }
+
+    private CachedToken fetch() {
+        fetches.increment();
+        String value;
+        try {
+            value = fetcher.call();
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not fetch token '" + name + "'", e);
+        }
+        if (value == null || value.isEmpty()) {
+            throw new IllegalStateException("Token fetcher '" + name + "' returned no token");
+        }
+        long now = System.currentTimeMillis();
+        Instant expiration = Jwt.expiration(value);
+        long expiresAt = expiration != null ? expiration.toEpochMilli() : now + defaultLifetimeMillis;
+        LOG.debug("Token '{}' fetched, expires in {} ms", name, expiresAt - now);
+        return new CachedToken(value, now, expiresAt);
+    }
+
+    /**
+     * Schedule the background refresh of a token: {@code refreshAhead} before it expires, but not before half
+     * of its lifetime
+     */
+    private void scheduleRefresh(CachedToken token) {
+        long lifetime = token.expiresAtMillis - token.fetchedAtMillis;
+        long refreshAt = Math.max(token.fetchedAtMillis + lifetime / 2, token.expiresAtMillis - refreshAheadMillis);
+        schedule(refreshAt - System.currentTimeMillis());
+    }
+
+    private void schedule(long delayMillis) {
+        if (closed) {
+            return;
+        }
+        ScheduledFuture<?> previous = scheduledRefresh;
+        scheduledRefresh = REFRESHER.schedule(this::refreshInBackground, Math.max(0, delayMillis),
+                TimeUnit.MILLISECONDS);
+        if (previous != null) {
+            previous.cancel(false);
+        }
+    }
+
+    private void refreshInBackground() {
+        CachedToken token = current;
+        try {
+            refresh(token);
+        } catch (Throwable e) {
+            long remaining = token != null ? token.expiresAtMillis - System.currentTimeMillis() : 0;
+            if (remaining <= 0) {
+                LOG.warn("Background refresh of token '{}' failed, it will be fetched on next use", name, e);
+                return;
+            }
+            long retryDelay = Math.min(RETRY_DELAY_MILLIS, remaining / 2);
+            LOG.warn("Background refresh of token '{}' failed, retrying in {} ms", name, retryDelay, e);
+            schedule(retryDelay);
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static final class CachedToken {
+        private final String value;
+        private final long fetchedAtMillis;
+        private final long expiresAtMillis;
+        private final long usableUntilMillis;
+
+        private CachedToken(String value, long fetchedAtMillis, long expiresAtMillis) {
+            this.value = value;
+            this.fetchedAtMillis = fetchedAtMillis;
+            this.expiresAtMillis = expiresAtMillis;
+            long lifetime = Math.max(0, expiresAtMillis - fetchedAtMillis);
+            this.usableUntilMillis = expiresAtMillis - Math.min(EXPIRY_MARGIN_MILLIS, lifetime / 10);
+        }
+
+        private boolean isUsable(long now) {
+            return now < usableUntilMillis;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.mach.api.client.auth;
+
+import java.util.Objects;
+
+/**
+ * Source of the Bearer token sent with every request of a RestClient (see
+ * {@link com.mach.api.client.ClientOptions#getTokenProvider()}).
+ * Unlike a token passed to a RestClient constructor, it is asked for the token on every request, so clients keep
+ * working when the token is renewed.
+ *
+ * @see RefreshingTokenProvider
+ */
+@FunctionalInterface
+public interface TokenProvider {
+
+    /**
+     * Get the token to send now
+     *
+     * @return Bearer token (without the "Bearer " prefix)
+     * @throws IllegalStateException if no token can be obtained
+     */
+    String getToken();
+
+    /**
+     * Provider always returning the same token
+     */
+    static TokenProvider fixed(String token) {
+        Objects.requireNonNull(token, "token");
+        return () -> token;
+    }
+}
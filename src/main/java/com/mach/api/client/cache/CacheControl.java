@@ -0,0 +1,108 @@
+package com.mach.api.client.cache;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Directives of a response Cache-Control header relevant to a private client cache.
+ */
+final class CacheControl {
+
+    private final boolean noStore;
+    private final boolean noCache;
+    private final long maxAgeSeconds;
+
+    private CacheControl(boolean noStore, boolean noCache, long maxAgeSeconds) {
+        this.noStore = noStore;
+        this.noCache = noCache;
+        this.maxAgeSeconds = maxAgeSeconds;
+    }
+
+    /**
+     * Parse a Cache-Control header
+     * 
+     * @param header Header value, or null
+     */
+    static CacheControl parse(String header) {
+        boolean noStore = false;
+        boolean noCache = false;
+        long maxAge = -1;
+        if (header != null) {
+            for (String directive : header.split(",")) {
+                String value = directive.trim().toLowerCase(Locale.ROOT);
+                if (value.equals("no-store")) {
+                    noStore = true;
+                } else if (value.equals("no-cache")) {
+                    noCache = true;
+                } else if (value.startsWith("max-age=")) {
+                    maxAge = parseSeconds(value.substring("max-age=".length()));
+                }
+            }
+        }
+        return new CacheControl(noStore, noCache, maxAge);
+    }
+
+    boolean isNoStore() {
+        return noStore;
+    }
+
+    /**
+     * Check if stored responses must be revalidated before every use
+     */
+    boolean isNoCache() {
+        return noCache;
+    }
+
+    /**
+     * max-age in seconds, or -1 when absent
+     */
+    long getMaxAgeSeconds() {
+        return maxAgeSeconds;
+    }
+
+    /**
+     * Freshness lifetime of a response in milliseconds, from Cache-Control max-age or else Expires
+     * (0 when the response must be revalidated, -1 when it carries no freshness information)
+     */
+    long freshnessMillis(String expires, String date, String age) {
+        if (noCache) {
+            return 0;
+        }
+        long ageMillis = Math.max(parseSeconds(age), 0) * 1000;
+        if (maxAgeSeconds >= 0) {
+            return Math.max(TimeUnit.SECONDS.toMillis(maxAgeSeconds) - ageMillis, 0);
+        }
+        long expiresAt = parseDate(expires);
+        if (expiresAt < 0) {
+            return expires != null ? 0 : -1;
+        }
+        long dateAt = parseDate(date);
+        long now = dateAt >= 0 ? dateAt : System.currentTimeMillis();
+        return Math.max(expiresAt - now - ageMillis, 0);
+    }
+
+    private static long parseSeconds(String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value.trim().replace("\"", ""));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static long parseDate(String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+}
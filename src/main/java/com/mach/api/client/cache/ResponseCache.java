@@ -0,0 +1,396 @@
+package com.mach.api.client.cache;
+
+import com.mach.api.config.ServiceConfig;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Private HTTP cache for the GET requests of the RestClients of a service, bounded in entries and bytes with
+ * least-recently-used eviction.
+ * 
+ * A 200 response is stored unless it has {@code Cache-Control: no-store} or {@code Vary: *}. It is served without
+ * a request while fresh (Cache-Control max-age, else Expires). Once stale, or with {@code no-cache}, it is
+ * revalidated with If-None-Match / If-Modified-Since and served again on 304 Not Modified. Responses without
+ * freshness information are stored only if they have an ETag or Last-Modified, and revalidated on every use.
+ * Keys include the service, the credentials of the request (hashed), the URI with its parameters and the
+ * request headers named in Vary.
+ * 
+ * Configured per service (see {@link ServiceConfig}):
+ * <pre>
+ * api.account.cache.enabled=true          # ACCOUNT_API_CACHE_ENABLED (disabled by default)
+ * api.account.cache.max.entries=1000      # ACCOUNT_API_CACHE_MAX_ENTRIES
+ * api.account.cache.max.bytes=10485760    # ACCOUNT_API_CACHE_MAX_BYTES
+ * </pre>
+ */
+public class ResponseCache {
+
+    private static final Map<String, ResponseCache> CACHES = new ConcurrentHashMap<>();
+    private static final long ENTRY_OVERHEAD_BYTES = 256;
+
+    private final String name;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Create a cache
+     * 
+     * @param name Cache name (service name)
+     * @param maxEntries Maximum number of stored responses
+     * @param maxBytes Maximum total size of the stored responses
+     */
+    public ResponseCache(String name, int maxEntries, long maxBytes) {
+        if (maxEntries <= 0 || maxBytes <= 0) {
+            throw new IllegalArgumentException("maxEntries and maxBytes must be positive");
+        }
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Get the cache of a service, creating it from its configuration on first use
+     * 
+     * @param config Service configuration
+     * @return ResponseCache shared by all clients of the service, or null if caching is disabled
+     */
+    public static ResponseCache forService(ServiceConfig config) {
+        if (!config.isCacheEnabled()) {
+            return null;
+        }
+        return CACHES.computeIfAbsent(config.getServiceName(), serviceName ->
+                new ResponseCache(serviceName, config.getCacheMaxEntries(), config.getCacheMaxBytes()));
+    }
+
+    /**
+     * Build the cache key of a GET request
+     * 
+     * @param identity Credentials of the client (see {@link #identity(String...)})
+     * @param resource Resource template as passed to RestClient
+     * @param requestSpec Request specification, before it is sent
+     */
+    public static String key(String identity, String resource, FilterableRequestSpecification requestSpec) {
+        Headers headers = requestSpec.getHeaders();
+        return identity(identity, headers.getValue("Authorization"), headers.getValue("X-Api-Key"))
+                + ' ' + requestSpec.getBaseUri() + requestSpec.getBasePath() + resource
+                + ' ' + new TreeMap<>(requestSpec.getNamedPathParams()) + requestSpec.getUnnamedPathParamValues()
+                + ' ' + new TreeMap<>(requestSpec.getQueryParams()) + new TreeMap<>(requestSpec.getRequestParams());
+    }
+
+    /**
+     * Hash credentials into a short identity, so that keys never contain secrets
+     * 
+     * @param credentials Tokens, user names, passwords... (nulls allowed)
+     */
+    public static String identity(String... credentials) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String credential : credentials) {
+                digest.update(String.valueOf(credential).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            byte[] hash = digest.digest();
+            StringBuilder identity = new StringBuilder(16);
+            for (int i = 0; i < 8; i++) {
+                identity.append(Character.forDigit((hash[i] >> 4) & 0xF, 16))
+                        .append(Character.forDigit(hash[i] & 0xF, 16));
+            }
+            return identity.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Execute a GET request through the cache
+     * 
+     * @param key Cache key (see {@link #key})
+     * @param requestSpec Request specification; validators are added to it when a stale response is stored
+     * @param network Sends the request
+     * @return Stored response (fresh or revalidated) or the network response
+     */
+    public Response call(String key, FilterableRequestSpecification requestSpec, Supplier<Response> network) {
+        Entry entry = get(key, requestSpec.getHeaders());
+        if (entry != null && entry.isFresh()) {
+            hits.increment();
+            return entry.toResponse();
+        }
+        if (entry != null) {
+            if (entry.etag != null) {
+                requestSpec.header("If-None-Match", entry.etag);
+            }
+            if (entry.lastModified != null) {
+                requestSpec.header("If-Modified-Since", entry.lastModified);
+            }
+        }
+
+        Response response = network.get();
+        if (entry != null && response.getStatusCode() == 304) {
+            revalidations.increment();
+            Entry revalidated = entry.revalidate(response);
+            put(key, revalidated);
+            return revalidated.toResponse();
+        }
+        misses.increment();
+        if (response.getStatusCode() == 200) {
+            Entry stored = Entry.of(response, requestSpec.getHeaders());
+            if (stored != null) {
+                put(key, stored);
+            } else if (entry != null) {
+                remove(key);
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Remove every stored response
+     */
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    /**
+     * Get a snapshot of the cache usage
+     */
+    public Stats getStats() {
+        int size;
+        long storedBytes;
+        synchronized (this) {
+            size = entries.size();
+            storedBytes = bytes;
+        }
+        return new Stats(hits.sum(), revalidations.sum(), misses.sum(), evictions.sum(), size, storedBytes);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private synchronized Entry get(String key, Headers requestHeaders) {
+        Entry entry = entries.get(key);
+        return entry != null && entry.matchesVary(requestHeaders) ? entry : null;
+    }
+
+    private synchronized void put(String key, Entry entry) {
+        if (entry.size > maxBytes) {
+            return;
+        }
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            bytes -= previous.size;
+        }
+        bytes += entry.size;
+        Iterator<Entry> eldest = entries.values().iterator();
+        while ((entries.size() > maxEntries || bytes > maxBytes) && eldest.hasNext()) {
+            bytes -= eldest.next().size;
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private synchronized void remove(String key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            bytes -= removed.size;
+        }
+    }
+
+    /**
+     * Stored response
+     */
+    private static final class Entry {
+        private final byte[] body;
+        private final Headers headers;
+        private final String statusLine;
+        private final String contentType;
+        private final Map<String, String> vary;
+        private final String etag;
+        private final String lastModified;
+        private final long expiresAtNanos;
+        private final long size;
+
+        private Entry(byte[] body, Headers headers, String statusLine, String contentType, Map<String, String> vary,
+                      long freshnessMillis) {
+            this.body = body;
+            this.headers = headers;
+            this.statusLine = statusLine;
+            this.contentType = contentType;
+            this.vary = vary;
+            this.etag = headers.getValue("ETag");
+            this.lastModified = headers.getValue("Last-Modified");
+            this.expiresAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(freshnessMillis);
+            this.size = body.length + ENTRY_OVERHEAD_BYTES;
+        }
+
+        /**
+         * Entry for a 200 response, or null if it must not be stored
+         */
+        static Entry of(Response response, Headers requestHeaders) {
+            CacheControl cacheControl = CacheControl.parse(response.getHeader("Cache-Control"));
+            String varyHeader = response.getHeader("Vary");
+            if (cacheControl.isNoStore() || varyHeader != null && varyHeader.trim().equals("*")) {
+                return null;
+            }
+            long freshness = cacheControl.freshnessMillis(response.getHeader("Expires"), response.getHeader("Date"),
+                    response.getHeader("Age"));
+            if (freshness < 0) {
+                if (response.getHeader("ETag") == null && response.getHeader("Last-Modified") == null) {
+                    return null;
+                }
+                freshness = 0;
+            }
+            Map<String, String> vary = Collections.emptyMap();
+            if (varyHeader != null) {
+                vary = new TreeMap<>();
+                for (String name : varyHeader.split(",")) {
+                    String headerName = name.trim().toLowerCase(Locale.ROOT);
+                    vary.put(headerName, requestHeaders.getValue(headerName));
+                }
+            }
+            return new Entry(response.asByteArray(), response.getHeaders(), response.getStatusLine(),
+                    response.getContentType(), vary, freshness);
+        }
+
+        /**
+         * Same stored response with the freshness and validators of a 304 response
+         */
+        Entry revalidate(Response notModified) {
+            String cacheControlHeader = notModified.getHeader("Cache-Control") != null
+                    ? notModified.getHeader("Cache-Control") : headers.getValue("Cache-Control");
+            String expires = notModified.getHeader("Expires") != null
+                    ? notModified.getHeader("Expires") : headers.getValue("Expires");
+            long freshness = CacheControl.parse(cacheControlHeader)
+                    .freshnessMillis(expires, notModified.getHeader("Date"), notModified.getHeader("Age"));
+            Map<String, Header> merged = new LinkedHashMap<>();
+            for (Header header : headers) {
+                merged.putIfAbsent(header.getName().toLowerCase(Locale.ROOT), header);
+            }
+            for (Header header : notModified.getHeaders()) {
+                String headerName = header.getName().toLowerCase(Locale.ROOT);
+                if (!headerName.equals("content-length") && !headerName.equals("transfer-encoding")) {
+                    merged.put(headerName, header);
+                }
+            }
+            return new Entry(body, new Headers(merged.values().toArray(new Header[0])), statusLine, contentType,
+                    vary, Math.max(freshness, 0));
+        }
+
+        boolean isFresh() {
+            return expiresAtNanos - System.nanoTime() > 0;
+        }
+
+        boolean matchesVary(Headers requestHeaders) {
+            for (Map.Entry<String, String> header : vary.entrySet()) {
+                String value = requestHeaders.getValue(header.getKey());
+                if (value == null ? header.getValue() != null : !value.equals(header.getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        Response toResponse() {
+            return new ResponseBuilder()
+                    .setStatusCode(200)
+                    .setStatusLine(statusLine)
+                    .setHeaders(headers)
+                    .setContentType(contentType)
+                    .setBody(body)
+                    .build();
+        }
+    }
+
+    /**
+     * Cache usage snapshot
+     */
+    public static final class Stats {
+        private final long hits;
+        private final long revalidations;
+        private final long misses;
+        private final long evictions;
+        private final int entries;
+        private final long bytes;
+
+        public Stats(long hits, long revalidations, long misses, long evictions, int entries, long bytes) {
+            this.hits = hits;
+            this.revalidations = revalidations;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.entries = entries;
+            this.bytes = bytes;
+        }
+
+        /**
+         * Requests served from a fresh stored response, without network
+         */
+        public long getHits() {
+            return hits;
+        }
+
+        /**
+         * Requests served from a stored response after a 304 Not Modified
+         */
+        public long getRevalidations() {
+            return revalidations;
+        }
+
+        /**
+         * Requests answered with a full response from the network
+         */
+        public long getMisses() {
+            return misses;
+        }
+
+        /**
+         * Responses removed to stay within the size limits
+         */
+        public long getEvictions() {
+            return evictions;
+        }
+
+        /**
+         * Number of stored responses
+         */
+        public int getEntries() {
+            return entries;
+        }
+
+        /**
+         * Approximate size of the stored responses
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        @Override
+        public String toString() {
+            return "hits=" + hits + ", revalidations=" + revalidations + ", misses=" + misses
+                    + ", evictions=" + evictions + ", entries=" + entries + ", bytes=" + bytes;
+        }
+    }
+}
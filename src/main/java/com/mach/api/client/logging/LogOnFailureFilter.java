@@ -0,0 +1,164 @@
+package com.mach.api.client.logging;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.http.Header;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Filter that only writes out a request/response pair when something goes wrong.
+ * 
+ * Nothing is formatted or copied while the request runs: the filter keeps references to the last exchanges
+ * of the current test in a small buffer and renders them only when the status is not 2xx, or when
+ * {@link #flushCurrentThread(String)} is called (e.g. by {@code LogOnFailureListener} when a test fails).
+ * The buffer belongs to the test thread; calls run on other threads (e.g. by {@code AsyncRestClient}) record
+ * into it when wrapped with {@link #propagate(Supplier)}.
+ */
+public class LogOnFailureFilter implements Filter {
+
+    private static final int BUFFERED_EXCHANGES = 8;
+    private static final ThreadLocal<ExchangeBuffer> CURRENT = new ThreadLocal<>();
+
+    private final PrintStream stream;
+
+    public LogOnFailureFilter() {
+        this(System.out);
+    }
+
+    public LogOnFailureFilter(PrintStream stream) {
+        this.stream = stream;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        Response response = ctx.next(requestSpec, responseSpec);
+        Exchange exchange = new Exchange(requestSpec, response, stream);
+        int statusCode = response.getStatusCode();
+        if (statusCode < 200 || statusCode >= 300) {
+            exchange.writeTo("Unexpected status " + statusCode);
+        } else {
+            buffer().add(exchange);
+        }
+        return response;
+    }
+
+    /**
+     * Write out the buffered exchanges of the current thread, oldest first, and forget them
+     * 
+     * @param reason Reason printed in the header of the output
+     */
+    public static void flushCurrentThread(String reason) {
+        ExchangeBuffer buffer = CURRENT.get();
+        if (buffer != null) {
+            for (Exchange exchange : buffer.drain()) {
+                exchange.writeTo(reason);
+            }
+        }
+    }
+
+    /**
+     * Start an empty buffer for the current thread, e.g. before each test method.
+     * Async calls still running for the previous test keep recording into the previous buffer.
+     */
+    public static void clearCurrentThread() {
+        CURRENT.set(new ExchangeBuffer());
+    }
+
+    /**
+     * Wrap a call so that it records into the buffer of the current thread, wherever it runs
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> call) {
+        ExchangeBuffer buffer = buffer();
+        return () -> {
+            ExchangeBuffer previous = CURRENT.get();
+            CURRENT.set(buffer);
+            try {
+                return call.get();
+            } finally {
+                if (previous != null) {
+                    CURRENT.set(previous);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+
+    private static ExchangeBuffer buffer() {
+        ExchangeBuffer buffer = CURRENT.get();
+        if (buffer == null) {
+            buffer = new ExchangeBuffer();
+            CURRENT.set(buffer);
+        }
+        return buffer;
+    }
+
+    /**
+     * Last exchanges of one test; the oldest is dropped when it is full
+     */
+    private static final class ExchangeBuffer {
+        private final ArrayDeque<Exchange> exchanges = new ArrayDeque<>(BUFFERED_EXCHANGES);
+
+        private synchronized void add(Exchange exchange) {
+            if (exchanges.size() == BUFFERED_EXCHANGES) {
+                exchanges.removeFirst();
+            }
+            exchanges.addLast(exchange);
+        }
+
+        private synchronized List<Exchange> drain() {
+            List<Exchange> drained = new ArrayList<>(exchanges);
+            exchanges.clear();
+            return drained;
+        }
+    }
+
+    /**
+     * References to a request and its response, rendered only on demand
+     */
+    private static final class Exchange {
+        private final FilterableRequestSpecification request;
+        private final Response response;
+        private final PrintStream stream;
+
+        private Exchange(FilterableRequestSpecification request, Response response, PrintStream stream) {
+            this.request = request;
+            this.response = response;
+            this.stream = stream;
+        }
+
+        private void writeTo(String reason) {
+            StringBuilder out = new StringBuilder(256);
+            out.append("---- ").append(reason).append(" ----").append(System.lineSeparator());
+            out.append("Request: ").append(request.getMethod()).append(' ').append(request.getURI())
+                    .append(System.lineSeparator());
+            for (Header header : request.getHeaders()) {
+                out.append("  ").append(header.getName()).append(": ").append(header.getValue())
+                        .append(System.lineSeparator());
+            }
+            Object body = request.getBody();
+            if (body != null) {
+                out.append("Request body: ")
+                        .append(body instanceof byte[] ? new String((byte[]) body, StandardCharsets.UTF_8) : body)
+                        .append(System.lineSeparator());
+            }
+            out.append("Response: ").append(response.getStatusLine()).append(System.lineSeparator());
+            for (Header header : response.getHeaders()) {
+                out.append("  ").append(header.getName()).append(": ").append(header.getValue())
+                        .append(System.lineSeparator());
+            }
+            out.append("Response body: ").append(response.asString()).append(System.lineSeparator());
+            stream.print(out);
+        }
+    }
+}
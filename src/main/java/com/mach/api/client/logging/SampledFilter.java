@@ -0,0 +1,61 @@
+package com.mach.api.client.logging;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Applies a delegate filter to one request out of every N.
+ * 
+ * All SampledFilter instances sharing a {@link Sampler} take the same decision for a given request:
+ * the first one draws from the sampler and stores the outcome in the filter context for the others.
+ */
+public class SampledFilter implements Filter {
+
+    private static final String SAMPLED_KEY = SampledFilter.class.getName() + ".sampled";
+
+    private final Filter delegate;
+    private final Sampler sampler;
+
+    public SampledFilter(Filter delegate, Sampler sampler) {
+        this.delegate = delegate;
+        this.sampler = sampler;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        Boolean sampled = ctx.getValue(SAMPLED_KEY);
+        if (sampled == null) {
+            sampled = sampler.sample();
+            ctx.setValue(SAMPLED_KEY, sampled);
+        }
+        return sampled ? delegate.filter(requestSpec, responseSpec, ctx) : ctx.next(requestSpec, responseSpec);
+    }
+
+    /**
+     * Lock-free 1-in-N sampler
+     */
+    public static final class Sampler {
+        private final int rate;
+        private final AtomicLong counter = new AtomicLong();
+
+        /**
+         * @param rate Sample one request out of every {@code rate} (1 samples every request)
+         */
+        public Sampler(int rate) {
+            if (rate < 1) {
+                throw new IllegalArgumentException("Sample rate must be at least 1: " + rate);
+            }
+            this.rate = rate;
+        }
+
+        public boolean sample() {
+            return counter.getAndIncrement() % rate == 0;
+        }
+    }
+}
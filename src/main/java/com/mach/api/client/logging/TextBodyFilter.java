@@ -0,0 +1,105 @@
+package com.mach.api.client.logging;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import io.restassured.specification.RequestSender;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Shows a request body serialized to UTF-8 bytes as text to a wrapped logging filter, and to that filter only.
+ * RestClient sends JSON bodies as bytes; RestAssured's logging and Allure filters would print them as
+ * a list of numbers. The text is decoded once per request, only when a wrapped filter runs, and the bytes
+ * are put back before the request continues down the chain, so what is sent is never re-encoded.
+ */
+public class TextBodyFilter implements OrderedFilter {
+
+    private static final String TEXT_KEY = TextBodyFilter.class.getName() + ".text";
+
+    private final Filter delegate;
+
+    public TextBodyFilter(Filter delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        Object body = requestSpec.getBody();
+        if (!(body instanceof byte[])) {
+            return delegate.filter(requestSpec, responseSpec, ctx);
+        }
+        byte[] bytes = (byte[]) body;
+        String text = ctx.getValue(TEXT_KEY);
+        if (text == null) {
+            text = new String(bytes, StandardCharsets.UTF_8);
+            ctx.setValue(TEXT_KEY, text);
+        }
+        requestSpec.body(text);
+        try {
+            return delegate.filter(requestSpec, responseSpec, new BytesBodyContext(ctx, bytes));
+        } finally {
+            // Also restores the bytes when the delegate short-circuits without calling next
+            if (requestSpec.getBody() == text) {
+                requestSpec.body(bytes);
+            }
+        }
+    }
+
+    /**
+     * Same order as the wrapped filter, so that e.g. Allure still runs last
+     */
+    @Override
+    public int getOrder() {
+        return delegate instanceof OrderedFilter ? ((OrderedFilter) delegate).getOrder() : DEFAULT_PRECEDENCE;
+    }
+
+    /**
+     * Filter context that puts the byte body back when the wrapped filter passes the request on
+     */
+    private static final class BytesBodyContext implements FilterContext {
+        private final FilterContext ctx;
+        private final byte[] bytes;
+
+        private BytesBodyContext(FilterContext ctx, byte[] bytes) {
+            this.ctx = ctx;
+            this.bytes = bytes;
+        }
+
+        @Override
+        public Response next(FilterableRequestSpecification requestSpec,
+                             FilterableResponseSpecification responseSpec) {
+            requestSpec.body(bytes);
+            return ctx.next(requestSpec, responseSpec);
+        }
+
+        @Override
+        public Response send(RequestSender requestSender) {
+            return ctx.send(requestSender);
+        }
+
+        @Override
+        public void setValue(String name, Object value) {
+            ctx.setValue(name, value);
+        }
+
+        @Override
+        public <T> T getValue(String name) {
+            return ctx.getValue(name);
+        }
+
+        @Override
+        public boolean hasValue(String name) {
+            return ctx.hasValue(name);
+        }
+
+        @Override
+        public boolean hasValue(String name, Object value) {
+            return ctx.hasValue(name, value);
+        }
+    }
+}
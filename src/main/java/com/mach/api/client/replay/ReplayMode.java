@@ -0,0 +1,42 @@
+package com.mach.api.client.replay;
+
+import java.util.Locale;
+
+/**
+ * What a {@link ResponseRecorder} does with the requests of a RestClient.
+ *
+ * Configured with {@code api.{service}.replay.mode} using one of: {@code off}, {@code record}, {@code replay}.
+ */
+public enum ReplayMode {
+
+    /**
+     * Requests go to the network and nothing is recorded
+     */
+    OFF,
+
+    /**
+     * Requests go to the network and their responses are appended to the store
+     */
+    RECORD,
+
+    /**
+     * Requests never go to the network: they are answered from the store, and fail if they were not recorded
+     */
+    REPLAY;
+
+    /**
+     * Resolve a mode from its configuration value (case insensitive, off when empty)
+     *
+     * @throws IllegalArgumentException if the value is not a known mode
+     */
+    public static ReplayMode fromValue(String value) {
+        if (value == null || value.isBlank()) {
+            return OFF;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown replay mode: " + value, e);
+        }
+    }
+}
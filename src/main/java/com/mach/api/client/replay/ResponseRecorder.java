@@ -0,0 +1,239 @@
+package com.mach.api.client.replay;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.mach.api.config.ServiceConfig;
+import com.mach.api.util.JsonMapping;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the responses of a RestClient into a {@link ResponseStore}, or answers its requests from the store.
+ *
+ * Requests are keyed by method, path with sorted query parameters and a hash of the normalized body: JSON bodies
+ * are compared with their object fields sorted and without whitespace, other bodies byte for byte. Host, headers
+ * and credentials are not part of the key, so responses recorded against one environment replay against any other.
+ * In replay mode a request that was not recorded fails with an IllegalStateException instead of going to the
+ * network.
+ *
+ * The recorder is the last filter of the RestClient specification before the transport: logging, metrics and
+ * Allure see replayed responses like network ones.
+ *
+ * Configured per service (see {@link ServiceConfig}):
+ * <pre>
+ * api.account.replay.mode=record               # ACCOUNT_API_REPLAY_MODE: off (default), record or replay
+ * api.account.replay.store=replay/account.store # ACCOUNT_API_REPLAY_STORE
+ * </pre>
+ */
+public class ResponseRecorder {
+
+    private static final Map<Path, ResponseStore> STORES = new ConcurrentHashMap<>();
+
+    private final ReplayMode mode;
+    private final ResponseStore store;
+    private final Filter filter = new RecorderFilter(false);
+    private final Filter streamingFilter = new RecorderFilter(true);
+
+    /**
+     * Create a recorder
+     *
+     * @param mode Record or replay
+     * @param store Store the responses are written to or read from
+     */
+    public ResponseRecorder(ReplayMode mode, ResponseStore store) {
+        this.mode = mode;
+        this.store = store;
+    }
+
+    /**
+     * Get the recorder of a service, opening its store on first use. Services configured with the same store file
+     * share it.
+     *
+     * @param config Service configuration
+     * @return ResponseRecorder in the configured mode, or null if record and replay is off
+     * @throws IllegalArgumentException if the configured mode is unknown
+     */
+    public static ResponseRecorder forService(ServiceConfig config) {
+        ReplayMode mode = ReplayMode.fromValue(config.getReplayMode());
+        if (mode == ReplayMode.OFF) {
+            return null;
+        }
+        Path file = Paths.get(config.getReplayStore()).toAbsolutePath().normalize();
+        return new ResponseRecorder(mode, STORES.computeIfAbsent(file, ResponseStore::new));
+    }
+
+    /**
+     * Build the key of a request
+     *
+     * @param requestSpec Request specification, as it is about to be sent
+     */
+    public static String key(FilterableRequestSpecification requestSpec) {
+        URI uri = URI.create(requestSpec.getURI());
+        StringBuilder key = new StringBuilder(requestSpec.getMethod()).append(' ').append(uri.getRawPath());
+        String query = uri.getRawQuery();
+        if (query != null && !query.isEmpty()) {
+            String[] parameters = query.split("&");
+            Arrays.sort(parameters);
+            key.append('?').append(String.join("&", parameters));
+        }
+        byte[] body = body(requestSpec.getBody());
+        if (body != null) {
+            key.append(' ').append(sha256(normalize(body)));
+        }
+        return key.toString();
+    }
+
+    /**
+     * Filter that records or replays responses with their body read
+     */
+    public Filter filter() {
+        return filter;
+    }
+
+    /**
+     * Filter for streaming requests: recorded bodies are read to be stored, so the response returned is the
+     * recorded copy
+     */
+    public Filter streamingFilter() {
+        return streamingFilter;
+    }
+
+    public ReplayMode getMode() {
+        return mode;
+    }
+
+    public ResponseStore getStore() {
+        return store;
+    }
+
+    /**
+     * Bytes of a request body, or null if it has none or is a stream (which cannot be read twice)
+     */
+    private static byte[] body(Object body) {
+        if (body instanceof byte[]) {
+            return (byte[]) body;
+        }
+        if (body instanceof String) {
+            return ((String) body).getBytes(StandardCharsets.UTF_8);
+        }
+        if (body instanceof File) {
+            try {
+                return Files.readAllBytes(((File) body).toPath());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * JSON with sorted object fields and no whitespace; bodies that are not JSON are returned unchanged
+     */
+    private static byte[] normalize(byte[] body) {
+        JsonNode json;
+        try {
+            json = JsonMapping.mapper().readTree(body);
+        } catch (IOException e) {
+            return body;
+        }
+        if (json == null || json.isMissingNode()) {
+            return body;
+        }
+        return sorted(json).toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static JsonNode sorted(JsonNode json) {
+        if (json.isObject()) {
+            Map<String, JsonNode> fields = new TreeMap<>();
+            Iterator<Map.Entry<String, JsonNode>> iterator = json.fields();
+            while (iterator.hasNext()) {
+                Map.Entry<String, JsonNode> field = iterator.next();
+                fields.put(field.getKey(), sorted(field.getValue()));
+            }
+            ObjectNode object = JsonNodeFactory.instance.objectNode();
+            object.setAll(fields);
+            return object;
+        }
+        if (json.isArray()) {
+            List<JsonNode> elements = new ArrayList<>(json.size());
+            json.forEach(element -> elements.add(sorted(element)));
+            ArrayNode array = JsonNodeFactory.instance.arrayNode(elements.size());
+            array.addAll(elements);
+            return array;
+        }
+        return json;
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(bytes);
+            StringBuilder hex = new StringBuilder(32);
+            for (int i = 0; i < 16; i++) {
+                hex.append(Character.forDigit((hash[i] >> 4) & 0xF, 16)).append(Character.forDigit(hash[i] & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Terminal filter in replay mode; in record mode it sends the request on and stores the response.
+     * Runs after every other filter, including Allure's, and before an HTTP/2 transport.
+     */
+    private final class RecorderFilter implements OrderedFilter {
+        private final boolean streaming;
+
+        private RecorderFilter(boolean streaming) {
+            this.streaming = streaming;
+        }
+
+        @Override
+        public int getOrder() {
+            return LOWEST_PRECEDENCE;
+        }
+
+        @Override
+        public Response filter(FilterableRequestSpecification requestSpec,
+                               FilterableResponseSpecification responseSpec, FilterContext ctx) {
+            if (mode == ReplayMode.OFF) {
+                return ctx.next(requestSpec, responseSpec);
+            }
+            String key = key(requestSpec);
+            if (mode == ReplayMode.REPLAY) {
+                Response recorded = store.get(key);
+                if (recorded == null) {
+                    throw new IllegalStateException("No recorded response for " + key + " in " + store.getFile());
+                }
+                return recorded;
+            }
+            Response response = ctx.next(requestSpec, responseSpec);
+            store.put(key, response);
+            return streaming ? store.get(key) : response;
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.mach.api.client.replay;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only file of recorded responses, looked up by request key.
+ *
+ * The file is a single segment: a header followed by records appended one after the other, each holding the key,
+ * the status, headers and body of a response and a CRC32 of all of them. Recording a key again appends a new record
+ * which replaces the previous one. An in-memory hash index maps every key to the offset of its latest record; it is
+ * rebuilt by scanning the file when the store is opened, and a record cut short by an interrupted run is dropped.
+ * Records are read through a memory mapping of the file, so lookups do not make system calls.
+ *
+ * Appends are serialized; lookups are lock-free and may run concurrently with them. The file is limited to 2 GB.
+ */
+public class ResponseStore implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ResponseStore.class);
+
+    private static final int MAGIC = 0x4D524553; // "MRES"
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER_BYTES = 8;
+    /**
+     * Record length before the record and CRC32 after it
+     */
+    private static final int RECORD_OVERHEAD_BYTES = 8;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final Map<String, Integer> index = new ConcurrentHashMap<>();
+    private volatile MappedByteBuffer mapping;
+    private long size;
+
+    /**
+     * Open a store, creating its file if it does not exist
+     *
+     * @param file Segment file
+     * @throws UncheckedIOException if the file cannot be opened or is not a response store
+     */
+    public ResponseStore(Path file) {
+        this.file = file;
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            if (channel.size() == 0) {
+                channel.write(ByteBuffer.allocate(FILE_HEADER_BYTES).putInt(MAGIC).putInt(VERSION).flip(), 0);
+            }
+            size = channel.size();
+            mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (size < FILE_HEADER_BYTES || mapping.getInt(0) != MAGIC || mapping.getInt(4) != VERSION) {
+                channel.close();
+                throw new IOException(file + " is not a response store");
+            }
+            load();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open response store " + file, e);
+        }
+        LOG.debug("Response store {} opened with {} responses", file, index.size());
+    }
+
+    /**
+     * Get the recorded response of a request
+     *
+     * @param key Request key (see {@link ResponseRecorder#key})
+     * @return Response with the recorded status, headers and body, or null if the key was not recorded
+     */
+    public Response get(String key) {
+        Integer offset = index.get(key);
+        if (offset == null) {
+            return null;
+        }
+        ByteBuffer record = mappingCovering(offset).duplicate();
+        record.position(offset + Integer.BYTES);
+        readString(record); // key
+        int statusCode = record.getInt();
+        String statusLine = readString(record);
+        String contentType = readString(record);
+        int headerCount = record.getInt();
+        List<Header> headers = new ArrayList<>(headerCount);
+        for (int i = 0; i < headerCount; i++) {
+            headers.add(new Header(readString(record), readString(record)));
+        }
+        byte[] body = new byte[record.getInt()];
+        record.get(body);
+        return new ResponseBuilder()
+                .setStatusCode(statusCode)
+                .setStatusLine(statusLine)
+                .setHeaders(new Headers(headers))
+                .setContentType(contentType)
+                .setBody(body)
+                .build();
+    }
+
+    /**
+     * Append a response, replacing the one recorded for the same key
+     *
+     * @param key Request key (see {@link ResponseRecorder#key})
+     * @param response Response to record; its body is read
+     * @throws UncheckedIOException if the record cannot be written
+     * @throws IllegalStateException if the file would grow beyond 2 GB
+     */
+    public void put(String key, Response response) {
+        byte[] body = response.asByteArray();
+        List<byte[]> strings = new ArrayList<>();
+        strings.add(utf8(key));
+        strings.add(utf8(response.getStatusLine()));
+        strings.add(utf8(response.getContentType()));
+        for (Header header : response.getHeaders()) {
+            strings.add(utf8(header.getName()));
+            strings.add(utf8(header.getValue()));
+        }
+        int length = Integer.BYTES * 3 + body.length;
+        for (byte[] string : strings) {
+            length += Integer.BYTES + string.length;
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(length + RECORD_OVERHEAD_BYTES);
+        record.putInt(length);
+        putString(record, strings.get(0));
+        record.putInt(response.getStatusCode());
+        putString(record, strings.get(1));
+        putString(record, strings.get(2));
+        record.putInt(response.getHeaders().size());
+        for (int i = 3; i < strings.size(); i++) {
+            putString(record, strings.get(i));
+        }
+        record.putInt(body.length).put(body);
+        record.putInt(crc(record.array(), Integer.BYTES, length));
+        record.flip();
+        append(key, record);
+    }
+
+    /**
+     * Number of recorded keys
+     */
+    public int size() {
+        return index.size();
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOG.warn("Could not close response store {}", file, e);
+        }
+    }
+
+    private synchronized void append(String key, ByteBuffer record) {
+        if (size + record.remaining() > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Response store " + file + " is full");
+        }
+        int offset = (int) size;
+        try {
+            long position = size;
+            while (record.hasRemaining()) {
+                position += channel.write(record, position);
+            }
+            size = position;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write to response store " + file, e);
+        }
+        index.put(key, offset);
+    }
+
+    /**
+     * Get a mapping of the file that includes the given offset, mapping the file again if it grew since
+     */
+    private MappedByteBuffer mappingCovering(int offset) {
+        MappedByteBuffer current = mapping;
+        if (offset < current.limit()) {
+            return current;
+        }
+        synchronized (this) {
+            if (offset >= mapping.limit()) {
+                try {
+                    mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not map response store " + file, e);
+                }
+            }
+            return mapping;
+        }
+    }
+
+    /**
+     * Index every complete record of the file and cut off a trailing partial or corrupt record
+     */
+    private void load() throws IOException {
+        ByteBuffer records = mapping.duplicate();
+        int offset = FILE_HEADER_BYTES;
+        while (offset < size) {
+            String key = readRecordKey(records, offset);
+            if (key == null) {
+                LOG.warn("Response store {}: dropping {} bytes of incomplete record at offset {}",
+                        file, size - offset, offset);
+                channel.truncate(offset);
+                size = offset;
+                mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                return;
+            }
+            index.put(key, offset);
+            offset += RECORD_OVERHEAD_BYTES + records.getInt(offset);
+        }
+    }
+
+    /**
+     * Read the key of the record at an offset, or null if the record is incomplete or fails its checksum
+     */
+    private String readRecordKey(ByteBuffer records, int offset) {
+        if (size - offset < RECORD_OVERHEAD_BYTES) {
+            return null;
+        }
+        int length = records.getInt(offset);
+        if (length < Integer.BYTES || length > size - offset - RECORD_OVERHEAD_BYTES) {
+            return null;
+        }
+        byte[] content = new byte[length];
+        records.position(offset + Integer.BYTES);
+        records.get(content);
+        if (records.getInt() != crc(content, 0, length)) {
+            return null;
+        }
+        try {
+            return readString(ByteBuffer.wrap(content));
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static int crc(byte[] bytes, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+
+    private static byte[] utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] string) {
+        buffer.putInt(string.length).put(string);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
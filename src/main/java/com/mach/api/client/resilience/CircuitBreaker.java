@@ -0,0 +1,173 @@
+package com.mach.api.client.resilience;
+
+import com.mach.api.config.ServiceConfig;
+import com.mach.api.metrics.ClientMetrics;
+import com.mach.api.metrics.MetricsListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Circuit breaker shared by all RestClients of a service.
+ * 
+ * After {@code failureThreshold} consecutive failures (no response, 5xx or 429) the breaker opens and requests
+ * fail immediately with {@link CircuitBreakerOpenException} instead of adding load to the service. Once
+ * {@code openDuration} has elapsed a single probe request is let through (half open): its success closes the
+ * breaker, its failure opens it again. State changes are reported to the MetricsListener.
+ * 
+ * Configured per service (see {@link ServiceConfig}):
+ * <pre>
+ * api.account.circuit.failure.threshold=20  # ACCOUNT_API_CIRCUIT_FAILURE_THRESHOLD (0 disables the breaker)
+ * api.account.circuit.open.ms=30000         # ACCOUNT_API_CIRCUIT_OPEN_MS
+ * </pre>
+ */
+public class CircuitBreaker {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CircuitBreaker.class);
+    private static final Map<String, CircuitBreaker> BREAKERS = new ConcurrentHashMap<>();
+
+    /**
+     * Breaker state
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN;
+
+        String label() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final MetricsListener listener;
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean probeInFlight = new AtomicBoolean();
+    private volatile long openedAt;
+
+    /**
+     * Create a breaker
+     * 
+     * @param name Service name (used in logs and metrics)
+     * @param failureThreshold Consecutive failures that open the breaker
+     * @param openDuration Time the breaker stays open before a probe request is let through
+     * @param listener Notified of state changes, or null
+     */
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration, MetricsListener listener) {
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("failureThreshold must be positive");
+        }
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.listener = listener;
+    }
+
+    /**
+     * Get the breaker of a service, creating it from its configuration on first use
+     * 
+     * @param config Service configuration
+     * @return CircuitBreaker shared by all clients of the service, or null if disabled
+     *         ({@code circuit.failure.threshold} of 0)
+     */
+    public static CircuitBreaker forService(ServiceConfig config) {
+        if (config.getCircuitFailureThreshold() <= 0) {
+            return null;
+        }
+        return BREAKERS.computeIfAbsent(config.getServiceName(), serviceName -> new CircuitBreaker(serviceName,
+                config.getCircuitFailureThreshold(), Duration.ofMillis(config.getCircuitOpenMillis()),
+                config.isMetricsEnabled() ? ClientMetrics.getDefault() : null));
+    }
+
+    /**
+     * Check if a status code counts as a failure: 5xx, or 429 (the service is shedding load)
+     */
+    public static boolean isFailure(int statusCode) {
+        return statusCode >= 500 || statusCode == 429;
+    }
+
+    /**
+     * Ask for permission to send a request. Every granted permission must be followed by
+     * {@link #onSuccess()} or {@link #onFailure()}.
+     * 
+     * @throws CircuitBreakerOpenException if the breaker is open, or half open with its probe already in flight
+     */
+    public void acquirePermission() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return;
+        }
+        if (current == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                throw new CircuitBreakerOpenException(name);
+            }
+            transition(State.OPEN, State.HALF_OPEN);
+        }
+        if (!probeInFlight.compareAndSet(false, true)) {
+            throw new CircuitBreakerOpenException(name);
+        }
+        if (state.get() == State.CLOSED) {
+            // Closed by another request between the state check and the probe acquisition
+            probeInFlight.set(false);
+        }
+    }
+
+    /**
+     * Record a successful request
+     */
+    public void onSuccess() {
+        consecutiveFailures.set(0);
+        if (state.get() == State.HALF_OPEN && transition(State.HALF_OPEN, State.CLOSED)) {
+            probeInFlight.set(false);
+        }
+    }
+
+    /**
+     * Record a failed request
+     */
+    public void onFailure() {
+        State current = state.get();
+        if (current == State.HALF_OPEN) {
+            openedAt = System.nanoTime();
+            if (transition(State.HALF_OPEN, State.OPEN)) {
+                probeInFlight.set(false);
+            }
+        } else if (current == State.CLOSED && consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAt = System.nanoTime();
+            if (transition(State.CLOSED, State.OPEN)) {
+                consecutiveFailures.set(0);
+            }
+        }
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private boolean transition(State from, State to) {
+        if (!state.compareAndSet(from, to)) {
+            return false;
+        }
+        if (to == State.OPEN) {
+            LOG.warn("Circuit breaker of service '{}' opened for {} ms", name, openNanos / 1_000_000);
+        } else {
+            LOG.info("Circuit breaker of service '{}' is now {}", name, to.label());
+        }
+        if (listener != null) {
+            listener.onCircuitStateChange(name, from.label(), to.label());
+        }
+        return true;
+    }
+}
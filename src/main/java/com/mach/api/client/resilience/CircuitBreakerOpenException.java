@@ -0,0 +1,18 @@
+package com.mach.api.client.resilience;
+
+/**
+ * Thrown instead of sending a request while the circuit breaker of its service is open.
+ */
+public class CircuitBreakerOpenException extends RuntimeException {
+
+    private final String service;
+
+    public CircuitBreakerOpenException(String service) {
+        super("Circuit breaker of service '" + service + "' is open, request not sent");
+        this.service = service;
+    }
+
+    public String getService() {
+        return service;
+    }
+}
@@ -0,0 +1,124 @@
+package com.mach.api.client.resilience;
+
+import com.mach.api.config.ServiceConfig;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Token bucket limiting the request rate of all RestClients of a service.
+ * 
+ * The bucket refills at {@code permitsPerSecond} and holds at most {@code burst} tokens. It is implemented as a
+ * single CAS-updated timestamp (generic cell rate algorithm): every caller reserves the next free slot and waits
+ * until it is due, so the rate stays exact with any number of concurrent callers and no lock is taken.
+ * {@link #acquire()} parks the calling thread; {@link #reserve()} only returns the wait, so that asynchronous
+ * callers can schedule the request instead of blocking a thread.
+ * 
+ * Configured per service (see {@link ServiceConfig}):
+ * <pre>
+ * api.account.rate.limit=50   # ACCOUNT_API_RATE_LIMIT, requests per second (0 disables the limiter)
+ * api.account.rate.burst=10   # ACCOUNT_API_RATE_BURST, requests allowed at once after an idle period
+ * </pre>
+ */
+public class RateLimiter {
+
+    private static final Map<String, RateLimiter> LIMITERS = new ConcurrentHashMap<>();
+
+    private final double permitsPerSecond;
+    private final int burst;
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong nextFreeNanos;
+    private final ThreadLocal<Boolean> reserved = new ThreadLocal<>();
+
+    /**
+     * Create a limiter
+     * 
+     * @param permitsPerSecond Sustained rate
+     * @param burst Maximum number of permits granted without waiting after an idle period (at least 1)
+     */
+    public RateLimiter(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond and burst must be positive");
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.intervalNanos = Math.max(1, (long) (1e9 / permitsPerSecond));
+        this.toleranceNanos = intervalNanos * (burst - 1);
+        this.nextFreeNanos = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Get the limiter of a service, creating it from its configuration on first use
+     * 
+     * @param config Service configuration
+     * @return RateLimiter shared by all clients of the service, or null if disabled ({@code rate.limit} of 0)
+     */
+    public static RateLimiter forService(ServiceConfig config) {
+        if (config.getRateLimit() <= 0) {
+            return null;
+        }
+        return LIMITERS.computeIfAbsent(config.getServiceName(),
+                serviceName -> new RateLimiter(config.getRateLimit(), config.getRateBurst()));
+    }
+
+    /**
+     * Reserve a permit without waiting for it
+     * 
+     * @return Nanoseconds to wait before the permit may be used (0 if immediately)
+     */
+    public long reserve() {
+        long now = System.nanoTime();
+        while (true) {
+            long next = nextFreeNanos.get();
+            long slot = next - now > 0 ? next : now;
+            if (nextFreeNanos.compareAndSet(next, slot + intervalNanos)) {
+                long wait = slot - toleranceNanos - now;
+                return wait > 0 ? wait : 0;
+            }
+        }
+    }
+
+    /**
+     * Take a permit, parking the calling thread until it is due.
+     * Returns immediately if the permit was already reserved by {@link #callWithReservedPermit(Supplier)}.
+     */
+    public void acquire() {
+        if (reserved.get() != null) {
+            reserved.remove();
+            return;
+        }
+        long deadline = System.nanoTime() + reserve();
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(this, remaining);
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Run a call whose permit was obtained with {@link #reserve()} (and waited for): the next {@link #acquire()}
+     * on the current thread during the call returns immediately
+     */
+    public <T> T callWithReservedPermit(Supplier<T> call) {
+        reserved.set(Boolean.TRUE);
+        try {
+            return call.get();
+        } finally {
+            reserved.remove();
+        }
+    }
+
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+}
@@ -0,0 +1,150 @@
+package com.mach.api.client.resilience;
+
+import com.mach.api.config.ServiceConfig;
+import io.restassured.http.Method;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * When and how long to wait before a RestClient request is sent again.
+ * 
+ * Only idempotent requests (GET, PUT, DELETE) are retried, unless the request carries an
+ * {@value #IDEMPOTENCY_KEY_HEADER} header or {@code retryNonIdempotent} is set. A request is retried when it fails
+ * without a response or with one of {@code retryableStatusCodes}. The wait before retry n is a random value between
+ * 0 and {@code min(maxBackoff, initialBackoff * 2^(n-1))} (exponential backoff with full jitter), or the
+ * {@code Retry-After} of the response when present; a Retry-After longer than {@code maxRetryAfter} is not retried.
+ * 
+ * Configured per service (see {@link ServiceConfig}):
+ * <pre>
+ * api.account.retry.max.attempts=3          # ACCOUNT_API_RETRY_MAX_ATTEMPTS (1 disables retries)
+ * api.account.retry.initial.backoff.ms=100  # ACCOUNT_API_RETRY_INITIAL_BACKOFF_MS
+ * api.account.retry.max.backoff.ms=5000     # ACCOUNT_API_RETRY_MAX_BACKOFF_MS
+ * api.account.retry.after.max.ms=30000      # ACCOUNT_API_RETRY_AFTER_MAX_MS
+ * </pre>
+ */
+@Getter
+@Builder(toBuilder = true)
+public class RetryPolicy {
+
+    /**
+     * Header that flags a non-idempotent request (POST, PATCH) as safe to retry
+     */
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    /**
+     * Maximum number of attempts, the first one included
+     */
+    @Builder.Default
+    private final int maxAttempts = 3;
+
+    @Builder.Default
+    private final Duration initialBackoff = Duration.ofMillis(100);
+
+    @Builder.Default
+    private final Duration maxBackoff = Duration.ofSeconds(5);
+
+    /**
+     * Longest Retry-After honoured; responses asking for a longer wait are returned as they are
+     */
+    @Builder.Default
+    private final Duration maxRetryAfter = Duration.ofSeconds(30);
+
+    @Builder.Default
+    private final Set<Integer> retryableStatusCodes = Set.of(429, 502, 503, 504);
+
+    /**
+     * Retry POST and PATCH requests even without an Idempotency-Key header
+     */
+    private final boolean retryNonIdempotent;
+
+    /**
+     * Policy configured for a service
+     * 
+     * @return RetryPolicy, or null if retries are disabled ({@code retry.max.attempts} of 1 or less)
+     */
+    public static RetryPolicy forService(ServiceConfig config) {
+        if (config.getRetryMaxAttempts() <= 1) {
+            return null;
+        }
+        return RetryPolicy.builder()
+                .maxAttempts(config.getRetryMaxAttempts())
+                .initialBackoff(Duration.ofMillis(config.getRetryInitialBackoffMillis()))
+                .maxBackoff(Duration.ofMillis(config.getRetryMaxBackoffMillis()))
+                .maxRetryAfter(Duration.ofMillis(config.getRetryAfterMaxMillis()))
+                .build();
+    }
+
+    /**
+     * Check if a request may be sent more than once
+     * 
+     * @param method HTTP method
+     * @param hasIdempotencyKey Whether the request carries an Idempotency-Key header
+     */
+    public boolean canRetry(Method method, boolean hasIdempotencyKey) {
+        switch (method) {
+            case GET:
+            case PUT:
+            case DELETE:
+            case HEAD:
+            case OPTIONS:
+                return true;
+            default:
+                return retryNonIdempotent || hasIdempotencyKey;
+        }
+    }
+
+    /**
+     * Check if a response with this status should be retried
+     */
+    public boolean isRetryable(int statusCode) {
+        return retryableStatusCodes.contains(statusCode);
+    }
+
+    /**
+     * Wait before the next attempt after a failed one
+     * 
+     * @param attempt Number of the failed attempt (1 for the first one)
+     * @param retryAfter Retry-After header of the failed response, or null
+     * @return Wait in nanoseconds, or -1 if the Retry-After is longer than {@code maxRetryAfter}
+     */
+    public long delayNanos(int attempt, String retryAfter) {
+        long retryAfterNanos = parseRetryAfterNanos(retryAfter);
+        if (retryAfterNanos >= 0) {
+            return retryAfterNanos <= maxRetryAfter.toNanos() ? retryAfterNanos : -1;
+        }
+        long ceiling = Math.min(maxBackoff.toNanos(), initialBackoff.toNanos() << Math.min(attempt - 1, 30));
+        return ceiling > 0 ? ThreadLocalRandom.current().nextLong(ceiling + 1) : 0;
+    }
+
+    /**
+     * Parse a Retry-After header: delay in seconds or HTTP date
+     * 
+     * @return Delay in nanoseconds (0 for a date in the past), or -1 if absent or invalid
+     */
+    static long parseRetryAfterNanos(String retryAfter) {
+        if (retryAfter == null || retryAfter.isBlank()) {
+            return -1;
+        }
+        String value = retryAfter.trim();
+        try {
+            return TimeUnit.SECONDS.toNanos(Math.max(Long.parseLong(value), 0));
+        } catch (NumberFormatException e) {
+            // Not a number of seconds, try an HTTP date
+        }
+        try {
+            long millis = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli()
+                    - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(millis, 0));
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+}
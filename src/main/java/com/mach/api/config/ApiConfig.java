@@ -3,42 +3,152 @@ package com.mach.api.config;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
 
 /**
  * Configuration manager for API testing framework.
  * Reads configuration from system properties, environment variables, or properties file.
+ *
+ * The properties file is {@code api.properties} on the classpath, or the file given with
+ * {@code -Dapi.config.file=/path/to/api.properties} (or {@code API_CONFIG_FILE}).
+ *
+ * An ApiConfig is an immutable snapshot. {@link #getInstance()} returns the current snapshot without locking,
+ * and {@link #update(UnaryOperator)} replaces it atomically: readers holding the previous snapshot keep a
+ * consistent view while new readers see the new one. Clients already created keep the values they were built with.
+ *
+ * Example usage (bearer token rotation):
+ * <pre>
+ * ApiConfig.update(config -&gt; config.withProperty("api.bearer.token", newToken));
+ * </pre>
  */
 public class ApiConfig {
 
     private static final Logger LOG = LoggerFactory.getLogger(ApiConfig.class);
-    private static ApiConfig instance;
-    private final Properties properties;
+    private static final AtomicReference<ApiConfig> CURRENT = new AtomicReference<>();
+    private final Map<String, String> properties;
 
-    private ApiConfig() {
-        this.properties = loadProperties();
+    private ApiConfig(Map<String, String> properties) {
+        this.properties = Collections.unmodifiableMap(properties);
     }
 
     /**
-     * Get singleton instance
+     * Get the current configuration snapshot, loading it on first use
      */
-    public static synchronized ApiConfig getInstance() {
-        if (instance == null) {
-            instance = new ApiConfig();
+    public static ApiConfig getInstance() {
+        ApiConfig config = CURRENT.get();
+        if (config == null) {
+            // Concurrent first calls may both load; only the first snapshot published is used
+            CURRENT.compareAndSet(null, load());
+            config = CURRENT.get();
+        }
+        return config;
+    }
+
+    /**
+     * Load the configuration again (properties file, environment variables and system properties)
+     * and publish it as the current snapshot
+     */
+    public static void reload() {
+        CURRENT.set(load());
+        LOG.debug("Configuration reloaded");
+    }
+
+    /**
+     * Atomically replace the current snapshot with one derived from it
+     *
+     * @param change Function from the current snapshot to the new one, e.g. {@code c -> c.withProperty(k, v)};
+     *               may be called more than once under contention, so it must not have side effects
+     * @return The new current snapshot
+     */
+    public static ApiConfig update(UnaryOperator<ApiConfig> change) {
+        getInstance();
+        return CURRENT.updateAndGet(change);
+    }
+
+    /**
+     * Replace the current snapshot
+     *
+     * @param config New snapshot, e.g. {@code ApiConfig.getInstance().withProperties(overrides)}
+     * @return The previous snapshot
+     */
+    public static ApiConfig swap(ApiConfig config) {
+        getInstance();
+        return CURRENT.getAndSet(config);
+    }
+
+    /**
+     * Create a snapshot equal to this one with a property set (or removed if value is null)
+     */
+    public ApiConfig withProperty(String key, String value) {
+        Map<String, String> copy = new HashMap<>(properties);
+        if (value != null) {
+            copy.put(key, value);
+        } else {
+            copy.remove(key);
+        }
+        return new ApiConfig(copy);
+    }
+
+    /**
+     * Create a snapshot equal to this one with several properties set
+     */
+    public ApiConfig withProperties(Map<String, String> overrides) {
+        Map<String, String> copy = new HashMap<>(properties);
+        copy.putAll(overrides);
+        return new ApiConfig(copy);
+    }
+
+    /**
+     * Get all properties of this snapshot
+     */
+    public Map<String, String> getProperties() {
+        return properties;
+    }
+
+    /**
+     * Get the properties file on disk, if any: the file given with api.config.file (API_CONFIG_FILE),
+     * otherwise api.properties when the classpath entry holding it is a directory
+     *
+     * @return Path of the properties file, or null if there is none or it is inside a jar
+     */
+    public static Path getPropertiesFile() {
+        String configFile = System.getProperty("api.config.file", System.getenv("API_CONFIG_FILE"));
+        if (configFile != null && !configFile.isEmpty()) {
+            return Paths.get(configFile);
+        }
+        URL resource = ApiConfig.class.getClassLoader().getResource("api.properties");
+        if (resource == null || !"file".equals(resource.getProtocol())) {
+            return null;
+        }
+        try {
+            return Paths.get(resource.toURI());
+        } catch (URISyntaxException e) {
+            return null;
         }
-        return instance;
     }
 
     /**
      * Load properties with priority: System Properties > Environment Variables > Properties File
      */
-    private Properties loadProperties() {
+    private static ApiConfig load() {
         Properties props = new Properties();
 
         // Load from properties file
-        try {
-            java.io.InputStream inputStream = getClass().getClassLoader()
-                    .getResourceAsStream("api.properties");
+        Path propertiesFile = getPropertiesFile();
+        try (InputStream inputStream = propertiesFile != null && Files.isRegularFile(propertiesFile)
+                ? Files.newInputStream(propertiesFile)
+                : ApiConfig.class.getClassLoader().getResourceAsStream("api.properties")) {
             if (inputStream != null) {
                 props.load(inputStream);
                 LOG.debug("Loaded properties from api.properties file");
@@ -73,6 +183,21 @@ public class ApiConfig {
             props.setProperty("api.password", password);
         }
 
+        String loggingProfile = System.getenv("API_LOGGING_PROFILE");
+        if (loggingProfile != null) {
+            props.setProperty("api.logging.profile", loggingProfile);
+        }
+
+        String loggingSampleRate = System.getenv("API_LOGGING_SAMPLE_RATE");
+        if (loggingSampleRate != null) {
+            props.setProperty("api.logging.sample.rate", loggingSampleRate);
+        }
+
+        String metricsEnabled = System.getenv("API_METRICS_ENABLED");
+        if (metricsEnabled != null) {
+            props.setProperty("api.metrics.enabled", metricsEnabled);
+        }
+
         // Override with system properties (highest priority)
         System.getProperties().forEach((key, value) -> {
             if (key.toString().startsWith("api.")) {
@@ -80,14 +205,16 @@ public class ApiConfig {
             }
         });
 
-        return props;
+        Map<String, String> properties = new HashMap<>();
+        props.stringPropertyNames().forEach(key -> properties.put(key, props.getProperty(key)));
+        return new ApiConfig(properties);
     }
 
     /**
      * Get property value
      */
     public String getProperty(String key, String defaultValue) {
-        return properties.getProperty(key, defaultValue);
+        return properties.getOrDefault(key, defaultValue);
     }
 
     /**
@@ -125,6 +252,27 @@ public class ApiConfig {
         return getProperty("api.password", null);
     }
 
+    /**
+     * Get logging profile name (full, headers-only, on-failure, sampled, off)
+     */
+    public String getLoggingProfile() {
+        return getProperty("api.logging.profile", "full");
+    }
+
+    /**
+     * Get logging sample rate: one request out of every N is logged with the "sampled" profile
+     */
+    public int getLoggingSampleRate() {
+        return Integer.parseInt(getProperty("api.logging.sample.rate", "100").trim());
+    }
+
+    /**
+     * Check if request metrics are recorded into ClientMetrics.getDefault()
+     */
+    public boolean isMetricsEnabled() {
+        return Boolean.parseBoolean(getProperty("api.metrics.enabled", "false").trim());
+    }
+
     /**
      * Check if authentication is configured
      */
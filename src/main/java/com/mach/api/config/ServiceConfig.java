@@ -1,11 +1,17 @@
 package com.mach.api.config;
 
+import lombok.AccessLevel;
+import lombok.Builder;
+
 /**
  * Configuration for a specific API service.
  * Supports multiple services with different URIs, paths, and authentication.
  * 
  * Priority: System Properties > Environment Variables > Properties File > Defaults
  * 
+ * Instances are immutable and resolved once per service name and ApiConfig snapshot by {@link ServiceConfigRegistry}:
+ * replacing the ApiConfig snapshot, or calling {@link ServiceConfigRegistry#invalidate(String)}, picks up changes.
+ * 
  * Example usage:
  * <pre>
  * ServiceConfig accountConfig = ServiceConfig.forService("account");
@@ -15,6 +21,7 @@ package com.mach.api.config;
  * Environment variables pattern: {SERVICE}_API_{PROPERTY}
  * Example: ACCOUNT_API_BASE_URI, ACCOUNT_API_BEARER_TOKEN
  */
+@Builder(toBuilder = true, access = AccessLevel.PRIVATE)
 public class ServiceConfig {
 
     private final String serviceName;
@@ -24,47 +31,192 @@ public class ServiceConfig {
     private final String apiKey;
     private final String username;
     private final String password;
+    private final String loggingProfile;
+    private final int loggingSampleRate;
+    private final int poolMaxTotal;
+    private final int poolMaxPerRoute;
+    private final long poolIdleTimeoutMillis;
+    private final long poolKeepAliveMillis;
+    private final boolean metricsEnabled;
+    private final int batchSize;
+    private final int batchMaxInFlight;
+    private final int retryMaxAttempts;
+    private final long retryInitialBackoffMillis;
+    private final long retryMaxBackoffMillis;
+    private final long retryAfterMaxMillis;
+    private final int circuitFailureThreshold;
+    private final long circuitOpenMillis;
+    private final double rateLimit;
+    private final int rateBurst;
+    private final boolean cacheEnabled;
+    private final int cacheMaxEntries;
+    private final long cacheMaxBytes;
+    private final String transport;
+    private final String replayMode;
+    private final String replayStore;
 
-    private ServiceConfig(String serviceName, String baseUri, String basePath, 
-                        String bearerToken, String apiKey, String username, String password) {
-        this.serviceName = serviceName;
-        this.baseUri = baseUri;
-        this.basePath = basePath;
-        this.bearerToken = bearerToken;
-        this.apiKey = apiKey;
-        this.username = username;
-        this.password = password;
+    /**
+     * Get configuration for a specific service, resolved on first use and cached afterwards
+     * 
+     * @param serviceName Service name (e.g., "account", "payment", "user")
+     * @return ServiceConfig instance
+     */
+    public static ServiceConfig forService(String serviceName) {
+        return ServiceConfigRegistry.get(serviceName);
     }
 
     /**
-     * Create configuration for a specific service
+     * Resolve configuration for a specific service from system properties, environment variables and ApiConfig
      * 
      * @param serviceName Service name (e.g., "account", "payment", "user")
+     * @param apiConfig ApiConfig snapshot providing the properties file values and global defaults
      * @return ServiceConfig instance
      */
-    public static ServiceConfig forService(String serviceName) {
+    static ServiceConfig resolve(String serviceName, ApiConfig apiConfig) {
         String normalizedService = serviceName.toUpperCase().replaceAll("[^A-Z0-9]", "_");
         
         // Priority: System Property > Environment Variable > Properties File > Default
         String baseUri = getConfigValue(normalizedService, "BASE_URI", 
-                getProperty("api." + serviceName.toLowerCase() + ".base.uri", null));
+                apiConfig.getProperty("api." + serviceName.toLowerCase() + ".base.uri", null));
         
         String basePath = getConfigValue(normalizedService, "BASE_PATH", 
-                getProperty("api." + serviceName.toLowerCase() + ".base.path", ""));
+                apiConfig.getProperty("api." + serviceName.toLowerCase() + ".base.path", ""));
         
         String bearerToken = getConfigValue(normalizedService, "BEARER_TOKEN", 
-                getProperty("api." + serviceName.toLowerCase() + ".bearer.token", null));
+                apiConfig.getProperty("api." + serviceName.toLowerCase() + ".bearer.token", null));
         
         String apiKey = getConfigValue(normalizedService, "API_KEY", 
-                getProperty("api." + serviceName.toLowerCase() + ".key", null));
+                apiConfig.getProperty("api." + serviceName.toLowerCase() + ".key", null));
         
         String username = getConfigValue(normalizedService, "USERNAME", 
-                getProperty("api." + serviceName.toLowerCase() + ".username", null));
+                apiConfig.getProperty("api." + serviceName.toLowerCase() + ".username", null));
         
         String password = getConfigValue(normalizedService, "PASSWORD", 
-                getProperty("api." + serviceName.toLowerCase() + ".password", null));
+                apiConfig.getProperty("api." + serviceName.toLowerCase() + ".password", null));
+
+        // Logging falls back to the global api.logging.* settings
+        String loggingProfile = getConfigValue(normalizedService, "LOGGING_PROFILE", 
+                apiConfig.getProperty("api." + serviceName.toLowerCase() + ".logging.profile", apiConfig.getLoggingProfile()));
+        
+        String loggingSampleRate = getConfigValue(normalizedService, "LOGGING_SAMPLE_RATE", 
+                apiConfig.getProperty("api." + serviceName.toLowerCase() + ".logging.sample.rate", 
+                        String.valueOf(apiConfig.getLoggingSampleRate())));
+
+        // Connection pool
+        String poolMaxTotal = getConfigValue(normalizedService, "POOL_MAX_TOTAL", 
+                apiConfig.getProperty("api." + serviceName.toLowerCase() + ".pool.max.total", "200"));
+        
+        String poolMaxPerRoute = getConfigValue(normalizedService, "POOL_MAX_PER_ROUTE", 
+                apiConfig.getProperty("api." + serviceName.toLowerCase() + ".pool.max.per.route", "50"));
+        
+        String poolIdleTimeout = getConfigValue(normalizedService, "POOL_IDLE_TIMEOUT_MS", 
+                apiConfig.getProperty("api." + serviceName.toLowerCase() + ".pool.idle.timeout.ms", "30000"));
+        
+        String poolKeepAlive = getConfigValue(normalizedService, "POOL_KEEP_ALIVE_MS", 
+                apiConfig.getProperty("api." + serviceName.toLowerCase() + ".pool.keep.alive.ms", "30000"));
+
+        String metricsEnabled = getConfigValue(normalizedService, "METRICS_ENABLED", 
+                apiConfig.getProperty("api." + serviceName.toLowerCase() + ".metrics.enabled", 
+                        String.valueOf(apiConfig.isMetricsEnabled())));
+
+        // Batch operations (e.g. AccountApiClient.createAccounts)
+        String batchSize = getConfigValue(normalizedService, "BATCH_SIZE", 
+                apiConfig.getProperty("api." + serviceName.toLowerCase() + ".batch.size", "1"));
+        
+        String batchMaxInFlight = getConfigValue(normalizedService, "BATCH_MAX_IN_FLIGHT", 
+                apiConfig.getProperty("api." + serviceName.toLowerCase() + ".batch.max.in.flight", "16"));
+
+        // Retries and circuit breaker (opt-in)
+        String retryMaxAttempts = getConfigValue(normalizedService, "RETRY_MAX_ATTEMPTS", 
+                apiConfig.getProperty("api." + serviceName.toLowerCase() + ".retry.max.attempts", "1"));
+        
+        String retryInitialBackoff = getConfigValue(normalizedService, "RETRY_INITIAL_BACKOFF_MS", 
+                apiConfig.getProperty("api." + serviceName.toLowerCase() + ".retry.initial.backoff.ms", "100"));
+        
+        String retryMaxBackoff = getConfigValue(normalizedService, "RETRY_MAX_BACKOFF_MS", 
+                apiConfig.getProperty("api." + serviceName.toLowerCase() + ".retry.max.backoff.ms", "5000"));
+        
+        String retryAfterMax = getConfigValue(normalizedService, "RETRY_AFTER_MAX_MS", 
+                apiConfig.getProperty("api." + serviceName.toLowerCase() + ".retry.after.max.ms", "30000"));
+        
+        String circuitFailureThreshold = getConfigValue(normalizedService, "CIRCUIT_FAILURE_THRESHOLD", 
+                apiConfig.getProperty("api." + serviceName.toLowerCase() + ".circuit.failure.threshold", "0"));
+        
+        String circuitOpen = getConfigValue(normalizedService, "CIRCUIT_OPEN_MS", 
+                apiConfig.getProperty("api." + serviceName.toLowerCase() + ".circuit.open.ms", "30000"));
+
+        // Client-side rate limit
+        String rateLimit = getConfigValue(normalizedService, "RATE_LIMIT", 
+                apiConfig.getProperty("api." + serviceName.toLowerCase() + ".rate.limit", "0"));
+        
+        String rateBurst = getConfigValue(normalizedService, "RATE_BURST", 
+                apiConfig.getProperty("api." + serviceName.toLowerCase() + ".rate.burst", "1"));
 
-        return new ServiceConfig(serviceName, baseUri, basePath, bearerToken, apiKey, username, password);
+        // HTTP cache for GET requests
+        String cacheEnabled = getConfigValue(normalizedService, "CACHE_ENABLED", 
+                apiConfig.getProperty("api." + serviceName.toLowerCase() + ".cache.enabled", "false"));
+        
+        String cacheMaxEntries = getConfigValue(normalizedService, "CACHE_MAX_ENTRIES", 
+                apiConfig.getProperty("api." + serviceName.toLowerCase() + ".cache.max.entries", "1000"));
+        
+        String cacheMaxBytes = getConfigValue(normalizedService, "CACHE_MAX_BYTES", 
+                apiConfig.getProperty("api." + serviceName.toLowerCase() + ".cache.max.bytes", "10485760"));
+
+        // HTTP transport: http1 (RestAssured's Apache client) or http2 (java.net.http)
+        String transport = getConfigValue(normalizedService, "TRANSPORT", 
+                apiConfig.getProperty("api." + serviceName.toLowerCase() + ".transport", "http1"));
+
+        // Record and replay: off, record (responses saved to the store) or replay (served from the store)
+        String replayMode = getConfigValue(normalizedService, "REPLAY_MODE", 
+                apiConfig.getProperty("api." + serviceName.toLowerCase() + ".replay.mode", "off"));
+        
+        String replayStore = getConfigValue(normalizedService, "REPLAY_STORE", 
+                apiConfig.getProperty("api." + serviceName.toLowerCase() + ".replay.store",
+                        "replay/" + serviceName.toLowerCase() + ".store"));
+
+        return ServiceConfig.builder()
+                .serviceName(serviceName)
+                .baseUri(baseUri)
+                .basePath(basePath)
+                .bearerToken(bearerToken)
+                .apiKey(apiKey)
+                .username(username)
+                .password(password)
+                .loggingProfile(loggingProfile)
+                .loggingSampleRate(Integer.parseInt(loggingSampleRate.trim()))
+                .poolMaxTotal(Integer.parseInt(poolMaxTotal.trim()))
+                .poolMaxPerRoute(Integer.parseInt(poolMaxPerRoute.trim()))
+                .poolIdleTimeoutMillis(Long.parseLong(poolIdleTimeout.trim()))
+                .poolKeepAliveMillis(Long.parseLong(poolKeepAlive.trim()))
+                .metricsEnabled(Boolean.parseBoolean(metricsEnabled.trim()))
+                .batchSize(Integer.parseInt(batchSize.trim()))
+                .batchMaxInFlight(Integer.parseInt(batchMaxInFlight.trim()))
+                .retryMaxAttempts(Integer.parseInt(retryMaxAttempts.trim()))
+                .retryInitialBackoffMillis(Long.parseLong(retryInitialBackoff.trim()))
+                .retryMaxBackoffMillis(Long.parseLong(retryMaxBackoff.trim()))
+                .retryAfterMaxMillis(Long.parseLong(retryAfterMax.trim()))
+                .circuitFailureThreshold(Integer.parseInt(circuitFailureThreshold.trim()))
+                .circuitOpenMillis(Long.parseLong(circuitOpen.trim()))
+                .rateLimit(Double.parseDouble(rateLimit.trim()))
+                .rateBurst(Integer.parseInt(rateBurst.trim()))
+                .cacheEnabled(Boolean.parseBoolean(cacheEnabled.trim()))
+                .cacheMaxEntries(Integer.parseInt(cacheMaxEntries.trim()))
+                .cacheMaxBytes(Long.parseLong(cacheMaxBytes.trim()))
+                .transport(transport)
+                .replayMode(replayMode)
+                .replayStore(replayStore)
+                .build();
+    }
+
+    /**
+     * Copy of this configuration pointing to another base URI, e.g. an embedded mock used by a single test class.
+     * Unlike setting {@code api.<service>.base.uri}, it does not affect other users of the service.
+     * 
+     * @param baseUri Base URI of the copy
+     * @return ServiceConfig instance (not registered in ServiceConfigRegistry)
+     */
+    public ServiceConfig withBaseUri(String baseUri) {
+        return toBuilder().baseUri(baseUri).build();
     }
 
     /**
@@ -89,14 +241,6 @@ public class ServiceConfig {
         return defaultValue;
     }
 
-    /**
-     * Get property from properties file (lowest priority)
-     */
-    private static String getProperty(String key, String defaultValue) {
-        ApiConfig config = ApiConfig.getInstance();
-        return config.getProperty(key, defaultValue);
-    }
-
     public String getServiceName() {
         return serviceName;
     }
@@ -125,6 +269,167 @@ public class ServiceConfig {
         return password;
     }
 
+    /**
+     * Get logging profile name (full, headers-only, on-failure, sampled, off)
+     */
+    public String getLoggingProfile() {
+        return loggingProfile;
+    }
+
+    /**
+     * Get logging sample rate used by the "sampled" profile
+     */
+    public int getLoggingSampleRate() {
+        return loggingSampleRate;
+    }
+
+    /**
+     * Get maximum number of pooled connections for this service
+     */
+    public int getPoolMaxTotal() {
+        return poolMaxTotal;
+    }
+
+    /**
+     * Get maximum number of pooled connections per host for this service
+     */
+    public int getPoolMaxPerRoute() {
+        return poolMaxPerRoute;
+    }
+
+    /**
+     * Get time after which idle pooled connections are closed
+     */
+    public long getPoolIdleTimeoutMillis() {
+        return poolIdleTimeoutMillis;
+    }
+
+    /**
+     * Get keep-alive duration used when the server does not send one
+     */
+    public long getPoolKeepAliveMillis() {
+        return poolKeepAliveMillis;
+    }
+
+    /**
+     * Check if request metrics are recorded into ClientMetrics.getDefault()
+     */
+    public boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    /**
+     * Get maximum number of actions sent in a single request by batch operations
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Get maximum number of batch requests in flight at the same time
+     */
+    public int getBatchMaxInFlight() {
+        return batchMaxInFlight;
+    }
+
+    /**
+     * Get maximum number of attempts of a retryable request (1 disables retries)
+     */
+    public int getRetryMaxAttempts() {
+        return retryMaxAttempts;
+    }
+
+    /**
+     * Get backoff before the first retry; it doubles on every further retry
+     */
+    public long getRetryInitialBackoffMillis() {
+        return retryInitialBackoffMillis;
+    }
+
+    /**
+     * Get upper bound of the exponential backoff
+     */
+    public long getRetryMaxBackoffMillis() {
+        return retryMaxBackoffMillis;
+    }
+
+    /**
+     * Get longest Retry-After honoured; a longer one is not retried
+     */
+    public long getRetryAfterMaxMillis() {
+        return retryAfterMaxMillis;
+    }
+
+    /**
+     * Get number of consecutive failures that opens the circuit breaker (0 disables it)
+     */
+    public int getCircuitFailureThreshold() {
+        return circuitFailureThreshold;
+    }
+
+    /**
+     * Get time the circuit breaker stays open before letting a probe request through
+     */
+    public long getCircuitOpenMillis() {
+        return circuitOpenMillis;
+    }
+
+    /**
+     * Get maximum request rate per second of all clients of this service (0 means unlimited)
+     */
+    public double getRateLimit() {
+        return rateLimit;
+    }
+
+    /**
+     * Get number of requests allowed at once by the rate limiter after an idle period
+     */
+    public int getRateBurst() {
+        return rateBurst;
+    }
+
+    /**
+     * Check if GET responses are cached (HTTP caching rules, see ResponseCache)
+     */
+    public boolean isCacheEnabled() {
+        return cacheEnabled;
+    }
+
+    /**
+     * Get maximum number of cached responses
+     */
+    public int getCacheMaxEntries() {
+        return cacheMaxEntries;
+    }
+
+    /**
+     * Get maximum total size of cached responses
+     */
+    public long getCacheMaxBytes() {
+        return cacheMaxBytes;
+    }
+
+    /**
+     * Get HTTP transport: "http1" (default) or "http2", see Http2Transport
+     */
+    public String getTransport() {
+        return transport;
+    }
+
+    /**
+     * Get record and replay mode: "off" (default), "record" or "replay", see ResponseRecorder
+     */
+    public String getReplayMode() {
+        return replayMode;
+    }
+
+    /**
+     * Get path of the file where responses are recorded and replayed from
+     */
+    public String getReplayStore() {
+        return replayStore;
+    }
+
     /**
      * Check if Bearer token authentication is configured
      */
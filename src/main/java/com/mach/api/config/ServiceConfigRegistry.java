@@ -0,0 +1,168 @@
+package com.mach.api.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Cache of resolved {@link ServiceConfig} instances, one per service name.
+ * {@link ServiceConfig#forService(String)} resolves a service once and then returns the same immutable instance,
+ * so creating a client per thread or per test does not read system properties and environment variables again.
+ *
+ * The cache belongs to the current {@link ApiConfig} snapshot: when the snapshot is replaced
+ * ({@link ApiConfig#update}, {@link ApiConfig#reload()}) configurations are resolved again from the new one.
+ * They can also be discarded with {@link #invalidate(String)} or {@link #reload()}, or automatically when the
+ * properties file changes once {@link #startWatching()} has been called (or at startup with
+ * {@code api.config.watch=true}).
+ *
+ * Example usage:
+ * <pre>
+ * ServiceConfigRegistry.startWatching();
+ * // edit api.properties: the next ServiceConfig.forService("account") sees the new values
+ * </pre>
+ */
+public final class ServiceConfigRegistry {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ServiceConfigRegistry.class);
+
+    private static volatile Cache cache = new Cache(null);
+    private static WatchService watchService;
+
+    static {
+        if (Boolean.parseBoolean(ApiConfig.getInstance().getProperty("api.config.watch", "false").trim())) {
+            startWatching();
+        }
+    }
+
+    private ServiceConfigRegistry() {
+    }
+
+    /**
+     * Get the configuration of a service, resolving it on first use
+     *
+     * @param serviceName Service name (e.g., "account")
+     * @return Cached ServiceConfig instance
+     */
+    public static ServiceConfig get(String serviceName) {
+        ApiConfig apiConfig = ApiConfig.getInstance();
+        Cache current = cache;
+        if (current.apiConfig != apiConfig) {
+            current = new Cache(apiConfig);
+            cache = current;
+        }
+        return current.configs.computeIfAbsent(serviceName, name -> ServiceConfig.resolve(name, apiConfig));
+    }
+
+    /**
+     * Discard the cached configuration of a service; the next lookup resolves it again
+     */
+    public static void invalidate(String serviceName) {
+        cache.configs.remove(serviceName);
+    }
+
+    /**
+     * Discard all cached configurations
+     */
+    public static void invalidateAll() {
+        // Replace the map so that a lookup still resolving against the previous ApiConfig cannot repopulate it
+        cache = new Cache(null);
+    }
+
+    /**
+     * Reload ApiConfig (properties file, environment variables and system properties); configurations cached
+     * for the previous snapshot are resolved again on their next lookup
+     */
+    public static void reload() {
+        ApiConfig.reload();
+    }
+
+    /**
+     * Watch the properties file ({@link ApiConfig#getPropertiesFile()}) and {@link #reload()} when it changes
+     *
+     * @return true if the file is being watched, false if there is no properties file on disk
+     */
+    public static synchronized boolean startWatching() {
+        if (watchService != null) {
+            return true;
+        }
+        Path file = ApiConfig.getPropertiesFile();
+        if (file == null) {
+            LOG.warn("No api.properties file on disk to watch, configuration hot reload is disabled");
+            return false;
+        }
+        Path absoluteFile = file.toAbsolutePath();
+        try {
+            WatchService service = absoluteFile.getFileSystem().newWatchService();
+            absoluteFile.getParent().register(service,
+                    StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            Thread watcher = new Thread(() -> watch(service, absoluteFile.getFileName()), "api-config-watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+            watchService = service;
+            LOG.info("Watching {} for configuration changes", absoluteFile);
+            return true;
+        } catch (IOException e) {
+            LOG.warn("Cannot watch {}, configuration hot reload is disabled", absoluteFile, e);
+            return false;
+        }
+    }
+
+    /**
+     * Stop watching the properties file
+     */
+    public static synchronized void stopWatching() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                LOG.debug("Error closing configuration watcher", e);
+            }
+            watchService = null;
+        }
+    }
+
+    /**
+     * Configurations resolved from one ApiConfig snapshot
+     */
+    private static final class Cache {
+        private final ApiConfig apiConfig;
+        private final ConcurrentMap<String, ServiceConfig> configs = new ConcurrentHashMap<>();
+
+        private Cache(ApiConfig apiConfig) {
+            this.apiConfig = apiConfig;
+        }
+    }
+
+    private static void watch(WatchService service, Path fileName) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    changed |= fileName.equals(event.context());
+                }
+                if (changed) {
+                    LOG.info("{} changed, reloading configuration", fileName);
+                    reload();
+                }
+                if (!key.reset()) {
+                    LOG.warn("Configuration directory is no longer accessible, stopped watching {}", fileName);
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            LOG.debug("Configuration watcher closed");
+        }
+    }
+}
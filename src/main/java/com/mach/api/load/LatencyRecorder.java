@@ -0,0 +1,50 @@
+package com.mach.api.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent latency recorder backed by an HdrHistogram {@link Recorder}.
+ * Recording is wait-free and does not allocate; values are kept in microseconds with 3 significant digits.
+ */
+public class LatencyRecorder {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Histogram accumulated = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+
+    /**
+     * Record a latency
+     * 
+     * @param nanos Latency in nanoseconds
+     * @param success false if the request failed
+     */
+    public void record(long nanos, boolean success) {
+        long micros = Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(nanos), 0), HIGHEST_TRACKABLE_MICROS);
+        recorder.recordValue(micros);
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * Number of failed requests recorded so far
+     */
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    /**
+     * Get all latencies recorded so far, in microseconds.
+     * The returned histogram is a copy owned by the caller.
+     */
+    public synchronized Histogram snapshot() {
+        accumulated.add(recorder.getIntervalHistogram());
+        return accumulated.copy();
+    }
+}
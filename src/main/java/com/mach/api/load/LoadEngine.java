@@ -0,0 +1,192 @@
+package com.mach.api.load;
+
+import com.mach.api.util.VirtualThreads;
+import io.restassured.response.Response;
+import io.restassured.response.ValidatableResponse;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Load generator that drives any RestClient call with an open (constant arrival rate)
+ * or closed (fixed concurrency) model and reports throughput and latency percentiles.
+ * 
+ * Example usage:
+ * <pre>
+ * AccountApiClient accountClient = new AccountApiClient();
+ * LoadReport report = LoadEngine.run(LoadProfile.builder()
+ *         .targetRate(200)
+ *         .duration(Duration.ofMinutes(5))
+ *         .rampUp(Duration.ofSeconds(30))
+ *         .build(), accountClient::createAccount);
+ * </pre>
+ * 
+ * A request fails when the supplier throws or returns a Response/ValidatableResponse with a status of 400 or above.
+ * Requests run on virtual threads when the JVM supports them and on platform threads otherwise.
+ */
+public class LoadEngine {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LoadEngine.class);
+
+    private LoadEngine() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Run a load test
+     * 
+     * @param profile Load shape
+     * @param request Request to execute, e.g. {@code accountClient::createAccount}
+     * @return LoadReport with throughput and latency percentiles
+     */
+    public static LoadReport run(LoadProfile profile, Supplier<?> request) {
+        profile.validate();
+        LOG.info("Starting load run: {}", profile);
+        LoadReport report = profile.isOpenModel() ? runOpen(profile, request) : runClosed(profile, request);
+        LOG.info("Load run finished: {}", report);
+        return report;
+    }
+
+    private static LoadReport runOpen(LoadProfile profile, Supplier<?> request) {
+        LatencyRecorder recorder = new LatencyRecorder();
+        LongAdder dropped = new LongAdder();
+        Semaphore inFlight = new Semaphore(profile.getMaxInFlight());
+        double ratePerNano = profile.getTargetRate() / 1e9;
+        long rampNanos = profile.getRampUp().toNanos();
+        ExecutorService workers = newWorkers(profile.getMaxInFlight());
+
+        long start = System.nanoTime();
+        long end = start + profile.getDuration().toNanos();
+        try {
+            for (long i = 0; ; i++) {
+                long intended = start + arrivalOffsetNanos(i, ratePerNano, rampNanos);
+                if (intended >= end) {
+                    break;
+                }
+                parkUntil(intended);
+                if (!inFlight.tryAcquire()) {
+                    dropped.increment();
+                    continue;
+                }
+                workers.execute(() -> {
+                    try {
+                        execute(request, recorder, intended);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        } finally {
+            awaitCompletion(workers);
+        }
+        return report(recorder, dropped.sum(), start);
+    }
+
+    private static LoadReport runClosed(LoadProfile profile, Supplier<?> request) {
+        LatencyRecorder recorder = new LatencyRecorder();
+        int users = profile.getConcurrency();
+        long rampNanos = profile.getRampUp().toNanos();
+        ExecutorService workers = newWorkers(users);
+
+        long start = System.nanoTime();
+        long end = start + profile.getDuration().toNanos();
+        try {
+            for (int user = 0; user < users; user++) {
+                long userStart = start + rampNanos * user / users;
+                workers.execute(() -> {
+                    parkUntil(userStart);
+                    while (System.nanoTime() < end) {
+                        execute(request, recorder, System.nanoTime());
+                    }
+                });
+            }
+        } finally {
+            awaitCompletion(workers);
+        }
+        return report(recorder, 0, start);
+    }
+
+    /**
+     * Offset of the i-th arrival from the start when the rate grows linearly from 0 during the ramp-up:
+     * the ramp-up contains {@code rate * ramp / 2} arrivals, after that arrivals are evenly spaced.
+     */
+    static long arrivalOffsetNanos(long i, double ratePerNano, long rampNanos) {
+        double rampArrivals = ratePerNano * rampNanos / 2;
+        if (i < rampArrivals) {
+            return (long) Math.sqrt(2.0 * rampNanos * i / ratePerNano);
+        }
+        return rampNanos + (long) ((i - rampArrivals) / ratePerNano);
+    }
+
+    private static void execute(Supplier<?> request, LatencyRecorder recorder, long intendedStart) {
+        boolean success;
+        try {
+            success = isSuccess(request.get());
+        } catch (Exception | AssertionError e) {
+            // Includes checked exceptions such as ConnectException, which RestAssured throws undeclared
+            success = false;
+        }
+        recorder.record(System.nanoTime() - intendedStart, success);
+    }
+
+    private static boolean isSuccess(Object result) {
+        if (result instanceof Response) {
+            return ((Response) result).getStatusCode() < 400;
+        }
+        if (result instanceof ValidatableResponse) {
+            return ((ValidatableResponse) result).extract().statusCode() < 400;
+        }
+        return true;
+    }
+
+    private static LoadReport report(LatencyRecorder recorder, long dropped, long start) {
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        Histogram latencies = recorder.snapshot();
+        return new LoadReport(latencies.getTotalCount(), recorder.getErrorCount(), dropped, elapsed, latencies);
+    }
+
+    private static void parkUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private static ExecutorService newWorkers(int threads) {
+        if (VirtualThreads.isAvailable()) {
+            return VirtualThreads.newThreadPerTaskExecutor();
+        }
+        AtomicInteger sequence = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 10, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "load-engine-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static void awaitCompletion(ExecutorService workers) {
+        workers.shutdown();
+        try {
+            while (!workers.awaitTermination(1, TimeUnit.SECONDS)) {
+                LOG.debug("Waiting for in-flight requests to complete");
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.mach.api.load;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Load shape for the LoadEngine.
+ * 
+ * Open model (constant arrival rate): set {@code targetRate}; requests are started at that rate whether or not
+ * previous ones finished, up to {@code maxInFlight} concurrent requests (requests beyond it are counted as dropped).
+ * Closed model (fixed concurrency): set {@code concurrency}; each virtual user sends its next request as soon as
+ * the previous one completes.
+ * 
+ * During {@code rampUp} the arrival rate grows linearly from zero (open model) or users are started
+ * progressively (closed model). The ramp-up is part of {@code duration}.
+ */
+@Data
+@Builder
+public class LoadProfile {
+
+    /**
+     * Requests per second (open model); 0 to use the closed model
+     */
+    private final double targetRate;
+
+    /**
+     * Number of concurrent users (closed model); ignored when targetRate is set
+     */
+    private final int concurrency;
+
+    /**
+     * Total run duration, ramp-up included
+     */
+    private final Duration duration;
+
+    @Builder.Default
+    private final Duration rampUp = Duration.ZERO;
+
+    /**
+     * Maximum number of concurrent requests in the open model
+     */
+    @Builder.Default
+    private final int maxInFlight = 1000;
+
+    /**
+     * Check if this profile uses the open (constant arrival rate) model
+     */
+    public boolean isOpenModel() {
+        return targetRate > 0;
+    }
+
+    /**
+     * Validate the profile
+     * 
+     * @throws IllegalArgumentException if the profile is incomplete
+     */
+    public void validate() {
+        if (duration == null || duration.isZero() || duration.isNegative()) {
+            throw new IllegalArgumentException("Load duration must be positive");
+        }
+        if (rampUp == null || rampUp.isNegative() || rampUp.compareTo(duration) > 0) {
+            throw new IllegalArgumentException("Ramp-up must be between zero and the load duration");
+        }
+        if (targetRate <= 0 && concurrency <= 0) {
+            throw new IllegalArgumentException("Either targetRate (open model) or concurrency (closed model) is required");
+        }
+        if (isOpenModel() && maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be positive");
+        }
+    }
+}
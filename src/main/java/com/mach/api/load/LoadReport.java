@@ -0,0 +1,107 @@
+package com.mach.api.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+
+/**
+ * Result of a load run. Latencies are in milliseconds.
+ * 
+ * In the open model latency is measured from the intended start time of each request,
+ * so time spent queued behind a slow service is included (no coordinated omission).
+ */
+public class LoadReport {
+
+    private final long requests;
+    private final long errors;
+    private final long dropped;
+    private final Duration elapsed;
+    private final Histogram latencies;
+
+    public LoadReport(long requests, long errors, long dropped, Duration elapsed, Histogram latencies) {
+        this.requests = requests;
+        this.errors = errors;
+        this.dropped = dropped;
+        this.elapsed = elapsed;
+        this.latencies = latencies;
+    }
+
+    /**
+     * Completed requests, failed ones included
+     */
+    public long getRequests() {
+        return requests;
+    }
+
+    /**
+     * Requests that threw an exception or returned a status of 400 or above
+     */
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * Requests not sent because maxInFlight was reached (open model only)
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * Completed requests per second
+     */
+    public double getThroughput() {
+        double seconds = elapsed.toNanos() / 1e9;
+        return seconds > 0 ? requests / seconds : 0;
+    }
+
+    /**
+     * Latency at the given percentile (e.g. 99.9) in milliseconds
+     */
+    public double getLatencyPercentile(double percentile) {
+        return latencies.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    public double getP50() {
+        return getLatencyPercentile(50);
+    }
+
+    public double getP90() {
+        return getLatencyPercentile(90);
+    }
+
+    public double getP99() {
+        return getLatencyPercentile(99);
+    }
+
+    public double getP999() {
+        return getLatencyPercentile(99.9);
+    }
+
+    public double getMaxLatency() {
+        return latencies.getMaxValue() / 1000.0;
+    }
+
+    public double getMeanLatency() {
+        return latencies.getMean() / 1000.0;
+    }
+
+    /**
+     * Full latency histogram in microseconds
+     */
+    public Histogram getLatencyHistogram() {
+        return latencies;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("requests=%d errors=%d dropped=%d elapsed=%.1fs throughput=%.1f req/s "
+                        + "latency ms: mean=%.2f p50=%.2f p90=%.2f p99=%.2f p999=%.2f max=%.2f",
+                requests, errors, dropped, elapsed.toMillis() / 1000.0, getThroughput(),
+                getMeanLatency(), getP50(), getP90(), getP99(), getP999(), getMaxLatency());
+    }
+}
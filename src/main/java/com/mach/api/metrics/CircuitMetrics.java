@@ -0,0 +1,42 @@
+package com.mach.api.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Current state and number of transitions of the circuit breaker of one service.
+ */
+class CircuitMetrics {
+
+    static final String[] STATES = {"closed", "open", "half_open"};
+
+    private final String service;
+    private final Map<String, LongAdder> transitions = new ConcurrentHashMap<>();
+    private volatile String state = STATES[0];
+
+    CircuitMetrics(String service) {
+        this.service = service;
+    }
+
+    void record(String to) {
+        state = to;
+        transitions.computeIfAbsent(to, key -> new LongAdder()).increment();
+    }
+
+    String getService() {
+        return service;
+    }
+
+    String getState() {
+        return state;
+    }
+
+    /**
+     * Number of transitions into the given state
+     */
+    long getTransitions(String to) {
+        LongAdder count = transitions.get(to);
+        return count != null ? count.sum() : 0;
+    }
+}
@@ -0,0 +1,185 @@
+package com.mach.api.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Default MetricsListener: per (service, method, resource template, status class) request and retry counts,
+ * request/response sizes and wall latency / time-to-first-byte histograms, plus the circuit breaker state
+ * of every service.
+ *
+ * Recording is lock-free: after the first request of a combination, a request costs two map lookups,
+ * a few LongAdder increments and two HdrHistogram recordings, without allocation.
+ *
+ * Memory is bounded: each service keeps at most {@code maxResourcesPerService} distinct resources, and requests to
+ * further resources are recorded under {@link #OTHER_RESOURCE}. Resources are usually templates such as
+ * {@code /accounts/{id}}, but callers that concatenate IDs into the path would otherwise add a combination per ID.
+ *
+ * Example usage:
+ * <pre>
+ * ClientMetrics metrics = ClientMetrics.getDefault();
+ * // ... run requests with api.metrics.enabled=true ...
+ * metrics.snapshot().forEach(endpoint -&gt; LOG.info("{}", endpoint));
+ * String prometheus = metrics.toPrometheusText();
+ * </pre>
+ */
+public class ClientMetrics implements MetricsListener {
+
+    /**
+     * Status class used for requests that failed without a response
+     */
+    public static final String ERROR = "error";
+
+    /**
+     * Resource under which requests are recorded once a service reached its maximum number of resources
+     */
+    public static final String OTHER_RESOURCE = "other";
+
+    /**
+     * Maximum number of distinct resources per service used when none is given
+     */
+    public static final int DEFAULT_MAX_RESOURCES_PER_SERVICE = 200;
+
+    private static final String[] METHODS = {"GET", "POST", "PUT", "PATCH", "DELETE", "HEAD", "OPTIONS", "OTHER"};
+    private static final String[] STATUS_CLASSES = {ERROR, "1xx", "2xx", "3xx", "4xx", "5xx"};
+    private static final ClientMetrics DEFAULT = new ClientMetrics();
+
+    private final Map<String, Map<String, AtomicReferenceArray<EndpointMetrics>>> services = new ConcurrentHashMap<>();
+    private final Map<String, CircuitMetrics> circuits = new ConcurrentHashMap<>();
+    private final int maxResourcesPerService;
+
+    public ClientMetrics() {
+        this(DEFAULT_MAX_RESOURCES_PER_SERVICE);
+    }
+
+    /**
+     * @param maxResourcesPerService Distinct resources kept per service before falling back to
+     *                               {@link #OTHER_RESOURCE}
+     */
+    public ClientMetrics(int maxResourcesPerService) {
+        if (maxResourcesPerService < 1) {
+            throw new IllegalArgumentException("maxResourcesPerService must be at least 1: " + maxResourcesPerService);
+        }
+        this.maxResourcesPerService = maxResourcesPerService;
+    }
+
+    /**
+     * Get the instance shared by all clients with metrics enabled through configuration
+     */
+    public static ClientMetrics getDefault() {
+        return DEFAULT;
+    }
+
+    @Override
+    public void onResponse(String service, String method, String resource, int statusCode, long latencyNanos,
+                           long timeToFirstByteNanos, long requestBytes, long responseBytes) {
+        int statusIndex = statusCode >= 100 && statusCode < 600 ? statusCode / 100 : 0;
+        endpoint(service, method, resource, statusIndex)
+                .record(latencyNanos, timeToFirstByteNanos, requestBytes, responseBytes);
+    }
+
+    @Override
+    public void onError(String service, String method, String resource, long latencyNanos, Throwable error) {
+        endpoint(service, method, resource, 0).record(latencyNanos, latencyNanos, 0, 0);
+    }
+
+    @Override
+    public void onRetry(String service, String method, String resource, int statusCode, int attempt,
+                        long delayNanos) {
+        endpoint(service, method, resource, statusCode >= 100 && statusCode < 600 ? statusCode / 100 : 0)
+                .recordRetry();
+    }
+
+    @Override
+    public void onCircuitStateChange(String service, String from, String to) {
+        circuits.computeIfAbsent(service, CircuitMetrics::new).record(to);
+    }
+
+    /**
+     * Get the circuit breaker state of a service: "closed", "open" or "half_open"
+     * ("closed" if it never changed)
+     */
+    public String getCircuitState(String service) {
+        CircuitMetrics circuit = circuits.get(service);
+        return circuit != null ? circuit.getState() : CircuitMetrics.STATES[0];
+    }
+
+    /**
+     * Get the number of times the circuit breaker of a service moved into the given state
+     */
+    public long getCircuitTransitions(String service, String state) {
+        CircuitMetrics circuit = circuits.get(service);
+        return circuit != null ? circuit.getTransitions(state) : 0;
+    }
+
+    /**
+     * Get a snapshot of all recorded combinations
+     */
+    public List<EndpointSnapshot> snapshot() {
+        List<EndpointSnapshot> snapshots = new ArrayList<>();
+        for (Map<String, AtomicReferenceArray<EndpointMetrics>> resources : services.values()) {
+            for (AtomicReferenceArray<EndpointMetrics> endpoints : resources.values()) {
+                for (int i = 0; i < endpoints.length(); i++) {
+                    EndpointMetrics endpoint = endpoints.get(i);
+                    if (endpoint != null) {
+                        snapshots.add(endpoint.snapshot());
+                    }
+                }
+            }
+        }
+        return Collections.unmodifiableList(snapshots);
+    }
+
+    /**
+     * Export all recorded combinations in Prometheus text exposition format
+     */
+    public String toPrometheusText() {
+        return PrometheusFormatter.format(snapshot(), circuits.values());
+    }
+
+    /**
+     * Forget everything recorded so far
+     */
+    public void reset() {
+        services.clear();
+        circuits.clear();
+    }
+
+    private EndpointMetrics endpoint(String service, String method, String resource, int statusIndex) {
+        Map<String, AtomicReferenceArray<EndpointMetrics>> resources = services
+                .computeIfAbsent(service, key -> new ConcurrentHashMap<>());
+        String resourceKey = resource != null ? resource : "";
+        AtomicReferenceArray<EndpointMetrics> endpoints = resources.get(resourceKey);
+        if (endpoints == null) {
+            // The size check races with other new resources, so the limit may be passed by a few entries
+            if (resources.size() >= maxResourcesPerService) {
+                resourceKey = OTHER_RESOURCE;
+            }
+            endpoints = resources.computeIfAbsent(resourceKey, key -> new AtomicReferenceArray<>(
+                    METHODS.length * STATUS_CLASSES.length));
+        }
+        int methodIndex = methodIndex(method);
+        int index = methodIndex * STATUS_CLASSES.length + statusIndex;
+        EndpointMetrics endpoint = endpoints.get(index);
+        if (endpoint == null) {
+            String methodName = methodIndex == METHODS.length - 1 ? String.valueOf(method) : METHODS[methodIndex];
+            endpoints.compareAndSet(index, null,
+                    new EndpointMetrics(service, methodName, resourceKey, STATUS_CLASSES[statusIndex]));
+            endpoint = endpoints.get(index);
+        }
+        return endpoint;
+    }
+
+    private static int methodIndex(String method) {
+        for (int i = 0; i < METHODS.length - 1; i++) {
+            if (METHODS[i].equalsIgnoreCase(method)) {
+                return i;
+            }
+        }
+        return METHODS.length - 1;
+    }
+}
@@ -0,0 +1,69 @@
+package com.mach.api.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters (requests, bytes, retries) and latency histograms of one (service, method, resource, status class) combination.
+ * Writers only touch LongAdders and HdrHistogram Recorders, so recording is lock-free;
+ * only {@link #snapshot()} synchronizes, between readers.
+ *
+ * Histograms track up to one minute with 2 significant digits (about 21 KB each); longer latencies are recorded
+ * as one minute. The accumulated histograms are only allocated by the first snapshot.
+ */
+class EndpointMetrics {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final String service;
+    private final String method;
+    private final String resource;
+    private final String statusClass;
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder requestBytes = new LongAdder();
+    private final LongAdder responseBytes = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final Recorder latencyRecorder = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final Recorder ttfbRecorder = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private Histogram latency;
+    private Histogram ttfb;
+
+    EndpointMetrics(String service, String method, String resource, String statusClass) {
+        this.service = service;
+        this.method = method;
+        this.resource = resource;
+        this.statusClass = statusClass;
+    }
+
+    void record(long latencyNanos, long ttfbNanos, long requestSize, long responseSize) {
+        count.increment();
+        requestBytes.add(requestSize);
+        responseBytes.add(responseSize);
+        latencyRecorder.recordValue(toMicros(latencyNanos));
+        ttfbRecorder.recordValue(toMicros(ttfbNanos));
+    }
+
+    void recordRetry() {
+        retries.increment();
+    }
+
+    synchronized EndpointSnapshot snapshot() {
+        if (latency == null) {
+            latency = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+            ttfb = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        }
+        latency.add(latencyRecorder.getIntervalHistogram());
+        ttfb.add(ttfbRecorder.getIntervalHistogram());
+        return new EndpointSnapshot(service, method, resource, statusClass, count.sum(),
+                requestBytes.sum(), responseBytes.sum(), retries.sum(), latency.copy(), ttfb.copy());
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(nanos), 0), HIGHEST_TRACKABLE_MICROS);
+    }
+}
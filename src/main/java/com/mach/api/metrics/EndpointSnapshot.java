@@ -0,0 +1,120 @@
+package com.mach.api.metrics;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Point-in-time view of the metrics of one (service, method, resource, status class) combination.
+ * Latencies are in milliseconds.
+ */
+public class EndpointSnapshot {
+
+    private final String service;
+    private final String method;
+    private final String resource;
+    private final String statusClass;
+    private final long count;
+    private final long requestBytes;
+    private final long responseBytes;
+    private final long retryCount;
+    private final Histogram latency;
+    private final Histogram timeToFirstByte;
+
+    EndpointSnapshot(String service, String method, String resource, String statusClass, long count,
+                     long requestBytes, long responseBytes, long retryCount, Histogram latency,
+                     Histogram timeToFirstByte) {
+        this.service = service;
+        this.method = method;
+        this.resource = resource;
+        this.statusClass = statusClass;
+        this.count = count;
+        this.requestBytes = requestBytes;
+        this.responseBytes = responseBytes;
+        this.retryCount = retryCount;
+        this.latency = latency;
+        this.timeToFirstByte = timeToFirstByte;
+    }
+
+    public String getService() {
+        return service;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getResource() {
+        return resource;
+    }
+
+    /**
+     * Status class: "1xx" to "5xx", or "error" when no response was received
+     */
+    public String getStatusClass() {
+        return statusClass;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Number of failed requests: 4xx, 5xx and requests without response
+     */
+    public long getErrorCount() {
+        return isError() ? count : 0;
+    }
+
+    public boolean isError() {
+        return statusClass.startsWith("4") || statusClass.startsWith("5") || ClientMetrics.ERROR.equals(statusClass);
+    }
+
+    public long getRequestBytes() {
+        return requestBytes;
+    }
+
+    public long getResponseBytes() {
+        return responseBytes;
+    }
+
+    /**
+     * Number of requests of this combination that were retried
+     */
+    public long getRetryCount() {
+        return retryCount;
+    }
+
+    /**
+     * Wall latency percentile in milliseconds, e.g. {@code getLatencyPercentile(99)}
+     */
+    public double getLatencyPercentile(double percentile) {
+        return latency.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    /**
+     * Time-to-first-byte percentile in milliseconds
+     */
+    public double getTimeToFirstBytePercentile(double percentile) {
+        return timeToFirstByte.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    /**
+     * Wall latency histogram in microseconds
+     */
+    public Histogram getLatencyHistogram() {
+        return latency;
+    }
+
+    /**
+     * Time-to-first-byte histogram in microseconds
+     */
+    public Histogram getTimeToFirstByteHistogram() {
+        return timeToFirstByte;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s %s [%s] count=%d p50=%.2fms p99=%.2fms ttfb.p50=%.2fms req=%dB resp=%dB",
+                service, method, resource, statusClass, count, getLatencyPercentile(50), getLatencyPercentile(99),
+                getTimeToFirstBytePercentile(50), requestBytes, responseBytes);
+    }
+}
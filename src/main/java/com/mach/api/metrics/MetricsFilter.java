@@ -0,0 +1,101 @@
+package com.mach.api.metrics;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filter that reports every request of a RestClient to a MetricsListener.
+ * Installed first in the filter chain so the measured latency covers the whole call.
+ */
+public class MetricsFilter implements Filter {
+
+    private final String service;
+    private final MetricsListener listener;
+    private final boolean readBody;
+
+    public MetricsFilter(String service, MetricsListener listener) {
+        this(service, listener, true);
+    }
+
+    private MetricsFilter(String service, MetricsListener listener, boolean readBody) {
+        this.service = service;
+        this.listener = listener;
+        this.readBody = readBody;
+    }
+
+    /**
+     * Create a filter for streamed responses: the body is left unread, so latency is measured up to the
+     * response headers and the response size is taken from Content-Length (0 when absent)
+     */
+    public static MetricsFilter streaming(String service, MetricsListener listener) {
+        return new MetricsFilter(service, listener, false);
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = ctx.next(requestSpec, responseSpec);
+        } catch (Exception e) {
+            // Checked exceptions such as ConnectException are rethrown by RestAssured without being declared
+            listener.onError(service, requestSpec.getMethod(), requestSpec.getUserDefinedPath(),
+                    System.nanoTime() - start, e);
+            throw e;
+        }
+        long responseBytes = readBody ? response.asByteArray().length : contentLength(response);
+        long latency = System.nanoTime() - start;
+        // Responses not received by RestAssured's own client (e.g. Http2Transport) have no response time
+        long responseTime = response.getTimeIn(TimeUnit.NANOSECONDS);
+        listener.onResponse(service, requestSpec.getMethod(), requestSpec.getUserDefinedPath(),
+                response.getStatusCode(), latency, responseTime >= 0 ? Math.min(responseTime, latency) : latency,
+                bodySize(requestSpec.getBody()), responseBytes);
+        return response;
+    }
+
+    private static long contentLength(Response response) {
+        String contentLength = response.getHeader("Content-Length");
+        try {
+            return contentLength != null ? Long.parseLong(contentLength.trim()) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static long bodySize(Object body) {
+        if (body == null) {
+            return 0;
+        }
+        if (body instanceof byte[]) {
+            return ((byte[]) body).length;
+        }
+        if (body instanceof String) {
+            return utf8Length((String) body);
+        }
+        return utf8Length(body.toString());
+    }
+
+    private static long utf8Length(String value) {
+        long length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+}
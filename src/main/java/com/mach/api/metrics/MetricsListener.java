@@ -0,0 +1,60 @@
+package com.mach.api.metrics;
+
+/**
+ * Hook notified by RestClient after every request.
+ * Implementations are called concurrently from all request threads and must be thread-safe and cheap.
+ *
+ * @see ClientMetrics
+ */
+public interface MetricsListener {
+
+    /**
+     * Called when a response was received
+     *
+     * @param service Client name (service name for clients created from a ServiceConfig)
+     * @param method HTTP method
+     * @param resource Resource template as passed to RestClient, e.g. "/users/{id}"
+     * @param statusCode HTTP status code
+     * @param latencyNanos Wall time of the whole call
+     * @param timeToFirstByteNanos Time until the response was received, excluding body processing
+     * @param requestBytes Size of the serialized request body (0 without body)
+     * @param responseBytes Size of the response body
+     */
+    void onResponse(String service, String method, String resource, int statusCode, long latencyNanos,
+                    long timeToFirstByteNanos, long requestBytes, long responseBytes);
+
+    /**
+     * Called when the request failed without a response (connection error, timeout...)
+     *
+     * @param service Client name
+     * @param method HTTP method
+     * @param resource Resource template
+     * @param latencyNanos Wall time until the failure
+     * @param error Failure cause
+     */
+    void onError(String service, String method, String resource, long latencyNanos, Throwable error);
+
+    /**
+     * Called before a failed request is retried
+     *
+     * @param service Client name
+     * @param method HTTP method
+     * @param resource Resource template
+     * @param statusCode Status of the failed attempt, or 0 if it failed without a response
+     * @param attempt Number of the failed attempt (1 for the first one)
+     * @param delayNanos Time waited before the next attempt
+     */
+    default void onRetry(String service, String method, String resource, int statusCode, int attempt,
+                         long delayNanos) {
+    }
+
+    /**
+     * Called when the circuit breaker of a service changes state
+     *
+     * @param service Service name
+     * @param from Previous state: "closed", "open" or "half_open"
+     * @param to New state
+     */
+    default void onCircuitStateChange(String service, String from, String to) {
+    }
+}
@@ -0,0 +1,123 @@
+package com.mach.api.metrics;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Renders endpoint snapshots in Prometheus text exposition format (version 0.0.4).
+ */
+final class PrometheusFormatter {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private PrometheusFormatter() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    static String format(List<EndpointSnapshot> endpoints, Collection<CircuitMetrics> circuits) {
+        StringBuilder out = new StringBuilder(1024);
+
+        header(out, "rest_client_requests_total", "counter", "Requests by service, method, resource and status class");
+        for (EndpointSnapshot endpoint : endpoints) {
+            sample(out, "rest_client_requests_total", endpoint, null, endpoint.getCount());
+        }
+
+        header(out, "rest_client_errors_total", "counter", "Requests with a 4xx/5xx status or without response");
+        for (EndpointSnapshot endpoint : endpoints) {
+            if (endpoint.isError()) {
+                sample(out, "rest_client_errors_total", endpoint, null, endpoint.getErrorCount());
+            }
+        }
+
+        header(out, "rest_client_retries_total", "counter", "Retried requests by status class of the failed attempt");
+        for (EndpointSnapshot endpoint : endpoints) {
+            if (endpoint.getRetryCount() > 0) {
+                sample(out, "rest_client_retries_total", endpoint, null, endpoint.getRetryCount());
+            }
+        }
+
+        header(out, "rest_client_request_bytes_total", "counter", "Serialized request body bytes");
+        for (EndpointSnapshot endpoint : endpoints) {
+            sample(out, "rest_client_request_bytes_total", endpoint, null, endpoint.getRequestBytes());
+        }
+
+        header(out, "rest_client_response_bytes_total", "counter", "Response body bytes");
+        for (EndpointSnapshot endpoint : endpoints) {
+            sample(out, "rest_client_response_bytes_total", endpoint, null, endpoint.getResponseBytes());
+        }
+
+        header(out, "rest_client_latency_seconds", "summary", "Wall latency of the whole call");
+        for (EndpointSnapshot endpoint : endpoints) {
+            summary(out, "rest_client_latency_seconds", endpoint, endpoint.getLatencyHistogram());
+        }
+
+        header(out, "rest_client_time_to_first_byte_seconds", "summary", "Time until the response was received");
+        for (EndpointSnapshot endpoint : endpoints) {
+            summary(out, "rest_client_time_to_first_byte_seconds", endpoint, endpoint.getTimeToFirstByteHistogram());
+        }
+
+        header(out, "rest_client_circuit_state", "gauge", "1 for the current circuit breaker state of a service");
+        for (CircuitMetrics circuit : circuits) {
+            for (String state : CircuitMetrics.STATES) {
+                circuitSample(out, "rest_client_circuit_state", circuit, state,
+                        state.equals(circuit.getState()) ? 1 : 0);
+            }
+        }
+
+        header(out, "rest_client_circuit_transitions_total", "counter", "Circuit breaker transitions into a state");
+        for (CircuitMetrics circuit : circuits) {
+            for (String state : CircuitMetrics.STATES) {
+                circuitSample(out, "rest_client_circuit_transitions_total", circuit, state,
+                        circuit.getTransitions(state));
+            }
+        }
+        return out.toString();
+    }
+
+    private static void circuitSample(StringBuilder out, String name, CircuitMetrics circuit, String state,
+                                      long value) {
+        out.append(name).append("{service=\"").append(escape(circuit.getService()))
+                .append("\",state=\"").append(state).append("\"} ").append(value).append('\n');
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void summary(StringBuilder out, String name, EndpointSnapshot endpoint, Histogram micros) {
+        for (double quantile : QUANTILES) {
+            sample(out, name, endpoint, quantile, micros.getValueAtPercentile(quantile * 100) / 1e6);
+        }
+        sample(out, name + "_sum", endpoint, null, micros.getMean() * micros.getTotalCount() / 1e6);
+        sample(out, name + "_count", endpoint, null, micros.getTotalCount());
+    }
+
+    private static void sample(StringBuilder out, String name, EndpointSnapshot endpoint, Double quantile,
+                               double value) {
+        out.append(name).append("{service=\"").append(escape(endpoint.getService()))
+                .append("\",method=\"").append(escape(endpoint.getMethod()))
+                .append("\",resource=\"").append(escape(endpoint.getResource()))
+                .append("\",status=\"").append(endpoint.getStatusClass()).append('"');
+        if (quantile != null) {
+            out.append(",quantile=\"").append(quantile).append('"');
+        }
+        out.append("} ");
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            out.append((long) value);
+        } else {
+            out.append(String.format(Locale.ROOT, "%.6f", value));
+        }
+        out.append('\n');
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -1,61 +1,81 @@
 package com.mach.api.test;
 
 import com.mach.api.client.RestClient;
+import com.mach.api.client.logging.LogOnFailureFilter;
 import com.mach.api.config.ApiConfig;
+import com.mach.api.util.SessionStorage;
 import io.restassured.http.Method;
 import io.restassured.response.ValidatableResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
 
 import java.util.Map;
 
 /**
  * Base class for API testing.
  * Extend this class to create your test classes.
+ * 
+ * Safe for TestNG {@code parallel="methods"} and {@code parallel="classes"}: every test thread gets its own
+ * RestClient (created lazily by {@link #createRestClient()}) and starts each test method with an empty
+ * SessionStorage, so tests running at the same time never share a client or see each other's responses.
+ * Tests of subclasses belong to the {@value #API_GROUP} group, the only one run by the {@code parallel} Maven profile.
  */
+@Listeners(LogOnFailureListener.class)
+@Test(groups = BaseApiTest.API_GROUP)
 public abstract class BaseApiTest {
 
+    public static final String API_GROUP = "api";
+
     protected static final Logger LOG = LoggerFactory.getLogger(BaseApiTest.class);
-    protected RestClient restClient;
     protected ApiConfig config;
+    private final ThreadLocal<RestClient> restClient = ThreadLocal.withInitial(this::createRestClient);
 
     @BeforeClass
     public void setUpClass() {
         config = ApiConfig.getInstance();
-        
-        if (config.hasAuth()) {
-            if (config.getBearerToken() != null) {
-                restClient = new RestClient(config.getBaseUri(), config.getBasePath(), config.getBearerToken());
-            } else if (config.getUsername() != null && config.getPassword() != null) {
-                restClient = new RestClient(config.getBaseUri(), config.getBasePath(), 
-                                          config.getUsername(), config.getPassword());
-            }
-        } else {
-            restClient = new RestClient(config.getBaseUri(), config.getBasePath());
-        }
-
         LOG.info("API Test setup completed. Base URI: {}", config.getBaseUri());
     }
 
     @BeforeMethod
     public void setUpMethod() {
+        SessionStorage.clear();
+        LogOnFailureFilter.clearCurrentThread();
         LOG.debug("Starting test method execution");
     }
 
+    /**
+     * Create the RestClient of a test thread. Called once per thread, the first time a test of this class running
+     * on that thread sends a request; override it to test another service, e.g.
+     * {@code return new RestClient(ServiceConfig.forService("account"));}
+     */
+    protected RestClient createRestClient() {
+        ApiConfig apiConfig = config != null ? config : ApiConfig.getInstance();
+        if (apiConfig.getBearerToken() != null) {
+            return new RestClient(apiConfig.getBaseUri(), apiConfig.getBasePath(), apiConfig.getBearerToken());
+        }
+        if (apiConfig.getUsername() != null && apiConfig.getPassword() != null) {
+            return new RestClient(apiConfig.getBaseUri(), apiConfig.getBasePath(),
+                    apiConfig.getUsername(), apiConfig.getPassword());
+        }
+        return new RestClient(apiConfig.getBaseUri(), apiConfig.getBasePath());
+    }
+
     /**
      * Execute simple web service (GET, DELETE, etc. without body)
      */
     protected ValidatableResponse runSimpleWebService(Method httpMethod, String resource) {
-        return restClient.runSimpleWebService(httpMethod, resource);
+        return getRestClient().runSimpleWebService(httpMethod, resource);
     }
 
     /**
      * Execute simple web service with headers
      */
     protected ValidatableResponse runSimpleWebService(Method httpMethod, Map<String, ?> headers, String resource) {
-        return restClient.runSimpleWebService(httpMethod, headers, resource);
+        return getRestClient().runSimpleWebService(httpMethod, headers, resource);
     }
 
     /**
@@ -63,7 +83,7 @@ public abstract class BaseApiTest {
      */
     protected ValidatableResponse runSimpleWebService(Method httpMethod, Map<String, ?> headers, 
                                                       Map<String, ?> parameters, String resource) {
-        return restClient.runSimpleWebService(httpMethod, headers, parameters, resource);
+        return getRestClient().runSimpleWebService(httpMethod, headers, parameters, resource);
     }
 
     /**
@@ -71,14 +91,14 @@ public abstract class BaseApiTest {
      */
     protected ValidatableResponse runSimpleWebService(Method httpMethod, Map<String, ?> headers, 
                                                       String resource, Map<String, ?> pathParameters) {
-        return restClient.runSimpleWebService(httpMethod, headers, resource, pathParameters);
+        return getRestClient().runSimpleWebService(httpMethod, headers, resource, pathParameters);
     }
 
     /**
      * Execute web service with body (POST, PUT, PATCH)
      */
     protected ValidatableResponse runWebServiceWithBody(Method httpMethod, String resource, Object requestBody) {
-        return restClient.runWebServiceWithBody(httpMethod, resource, requestBody);
+        return getRestClient().runWebServiceWithBody(httpMethod, resource, requestBody);
     }
 
     /**
@@ -86,7 +106,7 @@ public abstract class BaseApiTest {
      */
     protected ValidatableResponse runWebServiceWithBody(Method httpMethod, Map<String, ?> headers, 
                                                          String resource, Object requestBody) {
-        return restClient.runWebServiceWithBody(httpMethod, headers, resource, requestBody);
+        return getRestClient().runWebServiceWithBody(httpMethod, headers, resource, requestBody);
     }
 
     /**
@@ -95,14 +115,15 @@ public abstract class BaseApiTest {
     protected ValidatableResponse runWebServiceWithBodyAndPathParams(Method httpMethod, Map<String, ?> headers,
                                                                      String resource, Map<String, ?> pathParameters,
                                                                      Object requestBody) {
-        return restClient.runWebServiceWithBodyAndPathParams(httpMethod, headers, resource, pathParameters, requestBody);
+        return getRestClient().runWebServiceWithBodyAndPathParams(httpMethod, headers, resource, pathParameters,
+                requestBody);
     }
 
     /**
-     * Get RestClient instance (for advanced usage)
+     * Get the RestClient of the current test thread (for advanced usage)
      */
     protected RestClient getRestClient() {
-        return restClient;
+        return restClient.get();
     }
 }
 
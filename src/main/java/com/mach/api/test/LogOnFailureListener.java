@@ -0,0 +1,29 @@
+package com.mach.api.test;
+
+import com.mach.api.client.logging.LogOnFailureFilter;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+/**
+ * TestNG listener for the "on-failure" logging profile.
+ * Writes out the last requests/responses of the test when it fails and discards them otherwise.
+ * The buffer is not cleared when the test starts, so requests sent by its {@code @BeforeMethod} methods are kept;
+ * {@link BaseApiTest} clears it at the start of its own {@code @BeforeMethod}.
+ */
+public class LogOnFailureListener implements ITestListener {
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        LogOnFailureFilter.clearCurrentThread();
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        LogOnFailureFilter.flushCurrentThread("Test failed: " + result.getMethod().getQualifiedName());
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        LogOnFailureFilter.clearCurrentThread();
+    }
+}
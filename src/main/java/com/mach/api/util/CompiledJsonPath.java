@@ -0,0 +1,116 @@
+package com.mach.api.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Path expression parsed once and evaluated many times against parsed documents (see {@link JsonDocument}).
+ *
+ * Supports the simple subset of GPath used by most tests: fields separated by dots and non-negative array indexes,
+ * e.g. {@code data.accounts[0].accountId}. As in GPath, a field applied to an array collects that field from every
+ * element. Anything else (methods, closures, negative indexes, quoted names) is evaluated by RestAssured's JsonPath.
+ *
+ * Example usage:
+ * <pre>
+ * private static final CompiledJsonPath ACCOUNT_ID = CompiledJsonPath.compile("data.accountId");
+ * String accountId = ResponseExtractor.extractJsonPath(response, ACCOUNT_ID);
+ * </pre>
+ */
+public final class CompiledJsonPath {
+
+    private static final Pattern SIMPLE_PATH = Pattern.compile(
+            "([A-Za-z_][A-Za-z0-9_]*|\\[\\d+])(\\.[A-Za-z_][A-Za-z0-9_]*|\\[\\d+])*");
+    private static final int CACHE_LIMIT = 10_000;
+    private static final Map<String, CompiledJsonPath> CACHE = new ConcurrentHashMap<>();
+
+    private final String path;
+    private final Object[] segments;
+
+    private CompiledJsonPath(String path, List<Object> segments) {
+        this.path = path;
+        this.segments = segments.toArray();
+    }
+
+    /**
+     * Compile a path
+     *
+     * @param path Path such as {@code data.items[0].id}, or {@code $} for the root
+     * @return CompiledJsonPath
+     * @throws IllegalArgumentException if the path is not in the supported subset ({@link #isSimple(String)})
+     */
+    public static CompiledJsonPath compile(String path) {
+        if (!isSimple(path) && !"$".equals(path)) {
+            throw new IllegalArgumentException("Not a simple path (fields and [index] only): " + path);
+        }
+        return new CompiledJsonPath(path, JsonStreams.parsePath(path));
+    }
+
+    /**
+     * Check if a path can be compiled, i.e. is made only of field names and non-negative array indexes
+     */
+    public static boolean isSimple(String path) {
+        return path != null && SIMPLE_PATH.matcher(path).matches();
+    }
+
+    /**
+     * Get the compiled form of a path, compiling it on first use
+     *
+     * @return CompiledJsonPath, or null if the path must be evaluated as GPath
+     */
+    static CompiledJsonPath cached(String path) {
+        CompiledJsonPath compiled = CACHE.get(path);
+        if (compiled == null && isSimple(path)) {
+            compiled = compile(path);
+            if (CACHE.size() < CACHE_LIMIT) {
+                CACHE.putIfAbsent(path, compiled);
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * Evaluate this path against a parsed document
+     *
+     * @param root Root node
+     * @return Node at the path; MissingNode if it does not exist; an ArrayNode when a field is collected from
+     *         the elements of an array
+     */
+    public JsonNode evaluate(JsonNode root) {
+        JsonNode node = root;
+        for (Object segment : segments) {
+            if (node == null || node.isMissingNode() || node.isNull()) {
+                return MissingNode.getInstance();
+            }
+            node = segment instanceof String ? field(node, (String) segment) : node.get((Integer) segment);
+        }
+        return node != null ? node : MissingNode.getInstance();
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+
+    private static JsonNode field(JsonNode node, String name) {
+        if (!node.isArray()) {
+            return node.get(name);
+        }
+        ArrayNode collected = JsonNodeFactory.instance.arrayNode(node.size());
+        for (JsonNode element : node) {
+            JsonNode value = element.isArray() ? field(element, name) : element.get(name);
+            collected.add(value != null ? value : JsonNodeFactory.instance.nullNode());
+        }
+        return collected;
+    }
+}
@@ -0,0 +1,135 @@
+package com.mach.api.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * A response body parsed once and queried many times.
+ *
+ * {@link #of(Response)} caches the document of each response per thread, weakly keyed on the response, so pulling
+ * N fields from a response costs one parse plus N lookups instead of N parses, and the document is released together
+ * with its response. Simple paths are looked up in the Jackson tree with a {@link CompiledJsonPath}; other GPath
+ * expressions go to a RestAssured JsonPath that is also created once per document.
+ * String values keep the format of {@code response.jsonPath().getString(path)}: only strings, booleans and integers
+ * are rendered from the Jackson tree, decimals, objects and lists are rendered by GPath.
+ * A document is meant to be used by one thread at a time.
+ *
+ * Example usage:
+ * <pre>
+ * JsonDocument document = JsonDocument.of(response);
+ * String accountId = document.getString("data.accountId");
+ * String status = document.getString("status");
+ * </pre>
+ */
+public final class JsonDocument {
+
+    private static final ObjectMapper MAPPER = JsonMapping.mapper();
+    private static final ThreadLocal<Map<Response, JsonDocument>> DOCUMENTS = ThreadLocal.withInitial(WeakHashMap::new);
+
+    // Weak so that the cached document does not keep its own key reachable
+    private final WeakReference<Response> response;
+    private final byte[] body;
+    private JsonNode root;
+    private JsonPath jsonPath;
+
+    private JsonDocument(Response response, byte[] body) {
+        this.response = response != null ? new WeakReference<>(response) : null;
+        this.body = body;
+    }
+
+    /**
+     * Get the document of a response, parsing it only the first time this thread asks for it
+     */
+    public static JsonDocument of(Response response) {
+        return DOCUMENTS.get().computeIfAbsent(response, key -> new JsonDocument(key, key.asByteArray()));
+    }
+
+    /**
+     * Create a document from a JSON body (not cached)
+     */
+    public static JsonDocument parse(byte[] body) {
+        return new JsonDocument(null, body);
+    }
+
+    /**
+     * Forget the documents cached by the current thread
+     */
+    public static void clearCurrentThread() {
+        DOCUMENTS.remove();
+    }
+
+    /**
+     * Get the parsed tree, parsing the body on first use
+     */
+    public JsonNode getRoot() {
+        if (root == null) {
+            try {
+                root = MAPPER.readTree(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Response body is not valid JSON", e);
+            }
+        }
+        return root;
+    }
+
+    /**
+     * Get a value as String with the same semantics as {@code response.jsonPath().getString(path)}
+     */
+    public String getString(String path) {
+        CompiledJsonPath compiled = CompiledJsonPath.cached(path);
+        return compiled != null ? getString(compiled) : getJsonPath().getString(path);
+    }
+
+    /**
+     * Get a value as String with the same semantics as {@code response.jsonPath().getString(path)}
+     */
+    public String getString(CompiledJsonPath path) {
+        JsonNode node = path.evaluate(getRoot());
+        if (node.isNull()) {
+            return null;
+        }
+        if (node.isTextual() || node.isBoolean() || node.isIntegralNumber()) {
+            return node.asText();
+        }
+        // GPath reads decimals as Float or Double and has its own format for objects and lists;
+        // missing nodes also go to GPath, which may fail instead of returning null (e.g. a field of a string)
+        return getJsonPath().getString(path.getPath());
+    }
+
+    /**
+     * Get a value converted to a type, e.g. a model class, a Map or a List
+     *
+     * @return Value, or null if the path does not exist
+     */
+    public <T> T get(CompiledJsonPath path, Class<T> type) {
+        JsonNode node = path.evaluate(getRoot());
+        if (node.isMissingNode()) {
+            return null;
+        }
+        try {
+            return JsonMapping.readerFor(type).readValue(node);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot convert '" + path + "' to " + type.getName(), e);
+        }
+    }
+
+    /**
+     * Get the RestAssured JsonPath of this document, for full GPath expressions
+     */
+    public JsonPath getJsonPath() {
+        if (jsonPath == null) {
+            Response source = response != null ? response.get() : null;
+            jsonPath = source != null ? source.jsonPath() : new JsonPath(new String(body, StandardCharsets.UTF_8));
+        }
+        return jsonPath;
+    }
+}
@@ -0,0 +1,168 @@
+package com.mach.api.util;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.mach.api.config.ApiConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The Jackson ObjectMapper used for all JSON serialization and deserialization: request bodies and
+ * response mapping in RestClient, ResponseExtractor, JsonDocument and JsonStreams.
+ *
+ * ObjectReader and ObjectWriter instances are immutable and cached per type, so mapping a model class
+ * does not look up its root serializer or deserializer again.
+ *
+ * Configured with:
+ * <pre>
+ * api.json.module=blackbird                  # none (default), blackbird or afterburner; the module must be on
+ *                                            # the classpath (jackson-module-blackbird / jackson-module-afterburner)
+ * api.json.fail.on.unknown.properties=true   # fail when a response has fields the model does not declare (default,
+ *                                            # as RestAssured's own mapper)
+ * </pre>
+ */
+public final class JsonMapping {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JsonMapping.class);
+
+    private static final String BLACKBIRD = "com.fasterxml.jackson.module.blackbird.BlackbirdModule";
+    private static final String AFTERBURNER = "com.fasterxml.jackson.module.afterburner.AfterburnerModule";
+
+    private static final ObjectMapper MAPPER = createMapper(
+            ApiConfig.getInstance().getProperty("api.json.module", "none"),
+            Boolean.parseBoolean(ApiConfig.getInstance()
+                    .getProperty("api.json.fail.on.unknown.properties", "true").trim()));
+    private static final Map<Type, ObjectReader> READERS = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, ObjectWriter> WRITERS = new ConcurrentHashMap<>();
+
+    /**
+     * Per-thread serialization buffers larger than this are dropped after use instead of being kept
+     */
+    private static final int MAX_RETAINED_BUFFER = 1024 * 1024;
+    private static final ThreadLocal<ReusableBuffer> BUFFERS = ThreadLocal.withInitial(ReusableBuffer::new);
+
+    private JsonMapping() {
+    }
+
+    /**
+     * Get the shared ObjectMapper. It must not be reconfigured after first use.
+     */
+    public static ObjectMapper mapper() {
+        return MAPPER;
+    }
+
+    /**
+     * Get the cached reader for a type (a Class, or a generic type such as {@code List<AccountResponse>})
+     */
+    public static ObjectReader readerFor(Type type) {
+        ObjectReader reader = READERS.get(type);
+        if (reader == null) {
+            reader = READERS.computeIfAbsent(type, key -> MAPPER.readerFor(MAPPER.constructType(key)));
+        }
+        return reader;
+    }
+
+    /**
+     * Get the cached writer for a class
+     */
+    public static ObjectWriter writerFor(Class<?> type) {
+        ObjectWriter writer = WRITERS.get(type);
+        if (writer == null) {
+            writer = WRITERS.computeIfAbsent(type, MAPPER::writerFor);
+        }
+        return writer;
+    }
+
+    /**
+     * Serialize a value to UTF-8 JSON bytes.
+     * The value is written straight into a buffer reused by the calling thread and copied once into the result,
+     * without an intermediate String.
+     *
+     * @throws UncheckedIOException if the value cannot be serialized
+     */
+    public static byte[] writeValueAsBytes(Object value) {
+        ReusableBuffer buffer = BUFFERS.get();
+        try {
+            writerFor(value.getClass()).writeValue(buffer, value);
+            return buffer.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot serialize " + value.getClass().getName(), e);
+        } finally {
+            if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+                BUFFERS.remove();
+            } else {
+                buffer.reset();
+            }
+        }
+    }
+
+    /**
+     * Create an ObjectMapper with this project's configuration
+     *
+     * @param module Bytecode optimization module: "none", "blackbird" or "afterburner"
+     * @param failOnUnknownProperties Fail when JSON has properties the target class does not declare
+     * @return New ObjectMapper
+     */
+    public static ObjectMapper createMapper(String module, boolean failOnUnknownProperties) {
+        ObjectMapper mapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, failOnUnknownProperties);
+
+        // Same modules RestAssured's default mapper discovers, except the optimizers, which are opt-in
+        for (Module discovered : ObjectMapper.findModules()) {
+            String name = discovered.getClass().getName();
+            if (!BLACKBIRD.equals(name) && !AFTERBURNER.equals(name)) {
+                mapper.registerModule(discovered);
+            }
+        }
+
+        String moduleName = module == null ? "none" : module.trim().toLowerCase(Locale.ROOT);
+        if ("blackbird".equals(moduleName)) {
+            registerOptional(mapper, BLACKBIRD, "jackson-module-blackbird");
+        } else if ("afterburner".equals(moduleName)) {
+            registerOptional(mapper, AFTERBURNER, "jackson-module-afterburner");
+        } else if (!"none".equals(moduleName)) {
+            throw new IllegalArgumentException("Unknown Jackson module: " + module);
+        }
+        return mapper;
+    }
+
+    /**
+     * ByteArrayOutputStream whose backing array is kept between uses
+     */
+    private static final class ReusableBuffer extends ByteArrayOutputStream {
+        private ReusableBuffer() {
+            super(8192);
+        }
+
+        private int capacity() {
+            return buf.length;
+        }
+
+        @Override
+        public byte[] toByteArray() {
+            return Arrays.copyOf(buf, count);
+        }
+    }
+
+    private static void registerOptional(ObjectMapper mapper, String className, String artifactId) {
+        try {
+            mapper.registerModule((Module) Class.forName(className).getDeclaredConstructor().newInstance());
+            LOG.info("Jackson {} module registered", artifactId);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            LOG.warn("Jackson module {} is not on the classpath, add com.fasterxml.jackson.module:{}",
+                    className, artifactId);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.mach.api.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streaming JSON extraction on top of Jackson's JsonParser.
+ * The input is read token by token and never turned into a document tree, so memory stays bounded by the size of
+ * a single extracted value, whatever the size of the payload.
+ *
+ * Paths use dots for fields and brackets for array indexes, e.g. {@code data.items}, {@code items[0].id};
+ * an empty path (or {@code $}) is the root value.
+ *
+ * Example usage:
+ * <pre>
+ * try (Stream&lt;AccountResponse&gt; accounts = JsonStreams.streamArray(in, "data.accounts", AccountResponse.class)) {
+ *     accounts.filter(account -&gt; "ACTIVE".equals(account.getStatus())).forEach(this::verify);
+ * }
+ * </pre>
+ */
+public final class JsonStreams {
+
+    private static final ObjectMapper MAPPER = JsonMapping.mapper();
+
+    private JsonStreams() {
+    }
+
+    /**
+     * Stream the elements of the array at a path, deserializing one element at a time.
+     * The stream owns the input: close it (try-with-resources) to release the input and, for HTTP responses,
+     * the connection.
+     *
+     * @param in JSON input
+     * @param arrayPath Path of the array (empty for a root array)
+     * @param type Element type
+     * @return Stream of elements, empty if the path does not exist
+     * @throws IllegalArgumentException if the value at the path is not an array
+     * @throws UncheckedIOException if the input cannot be read or parsed
+     */
+    public static <T> Stream<T> streamArray(InputStream in, String arrayPath, Class<T> type) {
+        JsonParser parser = createParser(in);
+        try {
+            JsonToken token = moveTo(parser, parsePath(arrayPath));
+            if (token != null && token != JsonToken.START_ARRAY && token != JsonToken.VALUE_NULL) {
+                throw new IllegalArgumentException("Value at '" + arrayPath + "' is not an array: " + token);
+            }
+            Iterator<T> elements = token == JsonToken.START_ARRAY
+                    ? new ArrayIterator<>(parser, type)
+                    : new ArrayList<T>().iterator();
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(elements,
+                    Spliterator.ORDERED | Spliterator.NONNULL), false)
+                    .onClose(() -> close(parser));
+        } catch (IOException e) {
+            close(parser);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            close(parser);
+            throw e;
+        }
+    }
+
+    /**
+     * Extract the value at a path, skipping everything else without building a tree.
+     * Reading stops as soon as the value has been read; the input is closed.
+     *
+     * @param in JSON input
+     * @param path Path of the value
+     * @param type Value type (String accepts any scalar)
+     * @return Value, or null if the path does not exist
+     * @throws UncheckedIOException if the input cannot be read or parsed
+     */
+    public static <T> T extractPath(InputStream in, String path, Class<T> type) {
+        try (JsonParser parser = createParser(in)) {
+            JsonToken token = moveTo(parser, parsePath(path));
+            return token != null ? JsonMapping.readerFor(type).<T>readValue(parser) : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Move the parser to the first token of the value at the path
+     *
+     * @return The current token, or null if the path does not exist
+     */
+    private static JsonToken moveTo(JsonParser parser, List<Object> path) throws IOException {
+        JsonToken token = parser.nextToken();
+        for (Object segment : path) {
+            if (token == null) {
+                return null;
+            }
+            token = segment instanceof String
+                    ? moveToField(parser, token, (String) segment)
+                    : moveToIndex(parser, token, (Integer) segment);
+        }
+        return token;
+    }
+
+    private static JsonToken moveToField(JsonParser parser, JsonToken token, String field) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            return null;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (field.equals(name)) {
+                return value;
+            }
+            parser.skipChildren();
+        }
+        return null;
+    }
+
+    private static JsonToken moveToIndex(JsonParser parser, JsonToken token, int index) throws IOException {
+        if (token != JsonToken.START_ARRAY) {
+            return null;
+        }
+        for (int i = 0; ; i++) {
+            JsonToken element = parser.nextToken();
+            if (element == null || element == JsonToken.END_ARRAY) {
+                return null;
+            }
+            if (i == index) {
+                return element;
+            }
+            parser.skipChildren();
+        }
+    }
+
+    /**
+     * Split a path like {@code data.items[2].id} into field names and indexes
+     */
+    static List<Object> parsePath(String path) {
+        List<Object> segments = new ArrayList<>();
+        if (path == null || path.isEmpty() || "$".equals(path)) {
+            return segments;
+        }
+        String normalized = path.startsWith("$.") ? path.substring(2) : path;
+        for (String part : normalized.split("\\.")) {
+            int bracket = part.indexOf('[');
+            String field = bracket >= 0 ? part.substring(0, bracket) : part;
+            if (!field.isEmpty()) {
+                segments.add(field);
+            }
+            while (bracket >= 0) {
+                int end = part.indexOf(']', bracket);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Invalid path: " + path);
+                }
+                try {
+                    segments.add(Integer.parseInt(part.substring(bracket + 1, end).trim()));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid array index in path: " + path, e);
+                }
+                bracket = part.indexOf('[', end);
+            }
+        }
+        return segments;
+    }
+
+    private static JsonParser createParser(InputStream in) {
+        try {
+            return MAPPER.getFactory().createParser(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void close(JsonParser parser) {
+        try {
+            parser.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Iterator over the elements of the array the parser is positioned on
+     */
+    private static final class ArrayIterator<T> implements Iterator<T> {
+        private final JsonParser parser;
+        private final ObjectReader reader;
+        private boolean pending;
+        private boolean done;
+
+        private ArrayIterator(JsonParser parser, Class<T> type) {
+            this.parser = parser;
+            this.reader = JsonMapping.readerFor(type);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!pending && !done) {
+                try {
+                    JsonToken token = parser.nextToken();
+                    done = token == null || token == JsonToken.END_ARRAY;
+                    pending = !done;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return pending;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            pending = false;
+            try {
+                return reader.readValue(parser);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
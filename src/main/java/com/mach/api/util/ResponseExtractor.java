@@ -2,6 +2,10 @@ package com.mach.api.util;
 
 import io.restassured.response.Response;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.stream.Stream;
+
 /**
  * Utility class for extracting data from REST API responses.
  * Useful when using the framework as a library.
@@ -9,17 +13,69 @@ import io.restassured.response.Response;
 public class ResponseExtractor {
 
     /**
-     * Extract response body as specified class
+     * Extract response body as specified class, using the shared ObjectMapper ({@link JsonMapping})
      */
     public static <T> T asObject(Response response, Class<T> clazz) {
-        return response.getBody().as(clazz);
+        try {
+            return JsonMapping.readerFor(clazz).readValue(response.asByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map response body to " + clazz.getName(), e);
+        }
     }
 
     /**
-     * Extract JSON path value as String
+     * Extract JSON path value as String.
+     * The body is parsed once per response, so extracting several values from the same response is cheap.
      */
     public static String extractJsonPath(Response response, String jsonPath) {
-        return response.jsonPath().getString(jsonPath);
+        return JsonDocument.of(response).getString(jsonPath);
+    }
+
+    /**
+     * Extract the value of a precompiled path as String
+     */
+    public static String extractJsonPath(Response response, CompiledJsonPath jsonPath) {
+        return JsonDocument.of(response).getString(jsonPath);
+    }
+
+    /**
+     * Extract the value of a precompiled path converted to a type (model class, Map, List...)
+     */
+    public static <T> T extractJsonPath(Response response, CompiledJsonPath jsonPath, Class<T> clazz) {
+        return JsonDocument.of(response).get(jsonPath, clazz);
+    }
+
+    /**
+     * Get the parsed body of a response, shared by all extractions on the same response
+     */
+    public static JsonDocument document(Response response) {
+        return JsonDocument.of(response);
+    }
+
+    /**
+     * Stream the elements of the array at a path one at a time, without reading the whole body into memory.
+     * Use with a response from {@code RestClient.runStreamingWebService} and close the stream when done.
+     *
+     * @param response Response whose body has not been read yet
+     * @param arrayPath Path of the array, e.g. "data.items" (empty for a root array)
+     * @param clazz Element type
+     * @see JsonStreams#streamArray
+     */
+    public static <T> Stream<T> streamArray(Response response, String arrayPath, Class<T> clazz) {
+        return JsonStreams.streamArray(response.asInputStream(), arrayPath, clazz);
+    }
+
+    /**
+     * Extract a single value by streaming through the body, without building a document tree
+     *
+     * @param response Response whose body has not been read yet
+     * @param path Path of the value, e.g. "data.items[0].id"
+     * @param clazz Value type
+     * @return Value, or null if the path does not exist
+     * @see JsonStreams#extractPath
+     */
+    public static <T> T extractJsonPathStreaming(Response response, String path, Class<T> clazz) {
+        return JsonStreams.extractPath(response.asInputStream(), path, clazz);
     }
 }
 
@@ -1,39 +1,108 @@
 package com.mach.api.util;
 
+import com.mach.api.config.ApiConfig;
 import io.restassured.response.Response;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Utility class to store session data like last response.
  * Useful for accessing the last response in tests or library usage.
- * Thread-safe implementation.
+ * 
+ * Each thread has its own session, so parallel tests never see each other's responses and
+ * no lock is taken on the request path. Requests executed by AsyncRestClient are stored in
+ * the session of the executor thread that ran them.
+ * 
+ * Optionally keeps the last N responses of each thread for debugging, configured with
+ * {@code api.session.history.size} (default 0, disabled).
  */
 public class SessionStorage {
 
-    private static Response lastResponse;
+    private static final int HISTORY_SIZE = Integer.parseInt(
+            ApiConfig.getInstance().getProperty("api.session.history.size", "0").trim());
+
+    private static final ThreadLocal<Session> SESSION = ThreadLocal.withInitial(() -> new Session(HISTORY_SIZE));
 
     private SessionStorage() {
         throw new UnsupportedOperationException("Utility class");
     }
 
     /**
-     * Store the last response (thread-safe)
+     * Store the last response of the current thread
      */
-    public static synchronized void setLastResponse(Response response) {
-        lastResponse = response;
+    public static void setLastResponse(Response response) {
+        SESSION.get().store(response);
     }
 
     /**
-     * Get the last stored response (thread-safe)
+     * Get the last stored response of the current thread
      */
-    public static synchronized Response getLastResponse() {
-        return lastResponse;
+    public static Response getLastResponse() {
+        return SESSION.get().lastResponse;
     }
 
     /**
-     * Clear the stored response (thread-safe)
+     * Get the last responses of the current thread, oldest first.
+     * Empty unless {@code api.session.history.size} or {@link #setHistorySize(int)} enabled the history.
      */
-    public static synchronized void clear() {
-        lastResponse = null;
+    public static List<Response> getHistory() {
+        return SESSION.get().history();
     }
-}
 
+    /**
+     * Change the number of responses kept in the history of the current thread (0 disables it).
+     * The current history of the thread is discarded.
+     */
+    public static void setHistorySize(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("History size must not be negative: " + size);
+        }
+        Session session = new Session(size);
+        session.lastResponse = SESSION.get().lastResponse;
+        SESSION.set(session);
+    }
+
+    /**
+     * Clear the stored response and history of the current thread
+     */
+    public static void clear() {
+        SESSION.remove();
+    }
+
+    /**
+     * Session of a single thread. Only accessed by its owner thread, so no synchronization is needed.
+     */
+    private static final class Session {
+        private final Response[] ring;
+        private int next;
+        private int count;
+        private Response lastResponse;
+
+        private Session(int historySize) {
+            this.ring = historySize > 0 ? new Response[historySize] : null;
+        }
+
+        private void store(Response response) {
+            lastResponse = response;
+            if (ring != null) {
+                ring[next] = response;
+                next = (next + 1) % ring.length;
+                count = Math.min(count + 1, ring.length);
+            }
+        }
+
+        private List<Response> history() {
+            if (count == 0) {
+                return Collections.emptyList();
+            }
+            List<Response> responses = new ArrayList<>(count);
+            int start = (next - count + ring.length) % ring.length;
+            for (int i = 0; i < count; i++) {
+                responses.add(ring[(start + i) % ring.length]);
+            }
+            return responses;
+        }
+    }
+}
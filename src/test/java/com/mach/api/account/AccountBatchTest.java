@@ -0,0 +1,127 @@
+package com.mach.api.account;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.mach.api.config.ServiceConfigRegistry;
+import com.mach.api.util.JsonMapping;
+import com.sun.net.httpserver.HttpServer;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for AccountApiClient.createAccounts against a local stub that answers each action with an account
+ * whose id is the "email" argument, and fails every request containing an action with {@code "fail": true}.
+ */
+public class AccountBatchTest {
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private HttpServer server;
+    private AccountApiClient accountClient;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/account", exchange -> {
+            requests.incrementAndGet();
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try (InputStream in = exchange.getRequestBody(); OutputStream out = exchange.getResponseBody()) {
+                Thread.sleep(20);
+                ArrayNode results = JsonMapping.mapper().createArrayNode();
+                boolean fail = false;
+                for (JsonNode action : JsonMapping.mapper().readTree(in).get("actions")) {
+                    fail |= action.path("args").path("fail").asBoolean();
+                    results.addObject()
+                            .put("accountId", action.path("args").path("email").asText())
+                            .put("status", "created");
+                }
+                byte[] body = JsonMapping.writeValueAsBytes(results);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(fail ? 500 : 200, body.length);
+                out.write(body);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+        server.start();
+
+        System.setProperty("api.account.base.uri", "http://127.0.0.1:" + server.getAddress().getPort());
+        System.setProperty("api.account.logging.profile", "off");
+        ServiceConfigRegistry.invalidate("account");
+        accountClient = new AccountApiClient("token");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.stop(0);
+        System.clearProperty("api.account.base.uri");
+        System.clearProperty("api.account.logging.profile");
+        ServiceConfigRegistry.invalidate("account");
+    }
+
+    @Test
+    public void packsActionsAndReturnsResultsInOrder() {
+        requests.set(0);
+        maxInFlight.set(0);
+
+        List<AccountResult> results = accountClient.createAccounts(accounts(95, -1),
+                BatchOptions.builder().batchSize(10).maxInFlight(3).build());
+
+        assertEquals(requests.get(), 10);
+        assertTrue(maxInFlight.get() <= 3, "max in flight: " + maxInFlight.get());
+        assertEquals(results.size(), 95);
+        for (int i = 0; i < results.size(); i++) {
+            AccountResult result = results.get(i);
+            assertTrue(result.isSuccess(), result.toString());
+            assertEquals(result.getIndex(), i);
+            assertEquals(result.getResponse().getAccountId(), "user" + i + "@example.com");
+        }
+    }
+
+    @Test
+    public void failedRequestOnlyFailsItsOwnItems() {
+        List<AccountResult> results = accountClient.createAccounts(accounts(12, 5),
+                BatchOptions.builder().batchSize(4).maxInFlight(2).build());
+
+        for (int i = 0; i < results.size(); i++) {
+            AccountResult result = results.get(i);
+            if (i >= 4 && i < 8) {
+                assertFalse(result.isSuccess());
+                assertEquals(result.getStatusCode(), 500);
+            } else {
+                assertTrue(result.isSuccess(), result.toString());
+            }
+        }
+    }
+
+    private static List<Map<String, Object>> accounts(int count, int failing) {
+        List<Map<String, Object>> accounts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> args = new HashMap<>();
+            args.put("email", "user" + i + "@example.com");
+            if (i == failing) {
+                args.put("fail", true);
+            }
+            accounts.add(args);
+        }
+        return accounts;
+    }
+}
@@ -0,0 +1,225 @@
+package com.mach.api.account.mock;
+
+import com.mach.api.account.AccountApiClient;
+import com.mach.api.account.AccountResult;
+import com.mach.api.account.BatchOptions;
+import com.mach.api.client.ClientOptions;
+import com.mach.api.client.LoggingProfile;
+import com.mach.api.client.RestClient;
+import com.mach.api.config.ServiceConfigRegistry;
+import io.restassured.http.Method;
+import org.testng.annotations.Test;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.startsWith;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Tests for the embedded Account mock: the contract through AccountApiClient, latency and error injection.
+ */
+public class AccountMockServerTest {
+
+    @Test
+    public void servesTheAccountContract() {
+        try (AccountMockServer mock = AccountMockServer.start(AccountMockOptions.builder()
+                .basePath("/v1")
+                .build())) {
+            System.setProperty("api.account.base.uri", mock.getBaseUri());
+            System.setProperty("api.account.base.path", "/v1");
+            System.setProperty("api.account.logging.profile", "off");
+            ServiceConfigRegistry.invalidate("account");
+            try {
+                AccountApiClient accountClient = new AccountApiClient("token");
+                accountClient.createAccount(Map.of("email", "ana@example.com"))
+                        .statusCode(200)
+                        .body("accountId", startsWith("acc-"))
+                        .body("status", equalTo("CREATED"))
+                        .body("data.email", equalTo("ana@example.com"));
+
+                List<Map<String, Object>> argsList = new ArrayList<>();
+                for (int i = 0; i < 5; i++) {
+                    argsList.add(Map.of("email", "user" + i + "@example.com"));
+                }
+                List<AccountResult> results = accountClient.createAccounts(argsList, BatchOptions.builder()
+                        .batchSize(2)
+                        .maxInFlight(2)
+                        .build());
+                Set<String> accountIds = new HashSet<>();
+                for (AccountResult result : results) {
+                    assertTrue(result.isSuccess(), String.valueOf(result.getError()));
+                    assertEquals(result.getResponse().getData().get("email"),
+                            "user" + result.getIndex() + "@example.com");
+                    accountIds.add(result.getResponse().getAccountId());
+                }
+                assertEquals(accountIds.size(), 5);
+                assertEquals(mock.getRequests(), 4);
+            } finally {
+                System.clearProperty("api.account.base.uri");
+                System.clearProperty("api.account.base.path");
+                System.clearProperty("api.account.logging.profile");
+                ServiceConfigRegistry.invalidate("account");
+            }
+
+            RestClient restClient = client(mock);
+            restClient.runSimpleWebService(Method.GET, "/v1/account").statusCode(405);
+            restClient.runSimpleWebService(Method.GET, "/v1/other").statusCode(404);
+            restClient.runWebServiceWithBody(Method.POST, "/v1/account", "{not json").statusCode(400);
+            restClient.runWebServiceWithBody(Method.POST, "/v1/account", Map.of("actions", List.of()))
+                    .statusCode(400);
+        }
+    }
+
+    @Test
+    public void answersPipelinedRequestsInOrder() throws Exception {
+        try (AccountMockServer mock = AccountMockServer.start(AccountMockOptions.builder()
+                .latency(LatencyDistribution.uniform(Duration.ZERO, Duration.ofMillis(20)))
+                .build());
+             Socket socket = new Socket("127.0.0.1", mock.getPort())) {
+            StringBuilder requests = new StringBuilder();
+            for (int i = 1; i <= 3; i++) {
+                String body = "{\"actions\":[{\"name\":\"createAccountAction\",\"args\":{\"n\":" + i + "}}]}";
+                requests.append("POST /account HTTP/1.1\r\nHost: localhost\r\nContent-Length: ")
+                        .append(body.length()).append("\r\n\r\n").append(body);
+            }
+            OutputStream out = socket.getOutputStream();
+            out.write(requests.toString().getBytes(StandardCharsets.UTF_8));
+            out.flush();
+
+            InputStream in = socket.getInputStream();
+            StringBuilder received = new StringBuilder();
+            byte[] buffer = new byte[4096];
+            while (received.toString().split("\"n\":", -1).length < 4) {
+                int read = in.read(buffer);
+                assertTrue(read > 0, "connection closed after: " + received);
+                received.append(new String(buffer, 0, read, StandardCharsets.UTF_8));
+            }
+            String responses = received.toString();
+            assertTrue(responses.indexOf("\"n\":1") < responses.indexOf("\"n\":2")
+                    && responses.indexOf("\"n\":2") < responses.indexOf("\"n\":3"), responses);
+            assertEquals(responses.split("HTTP/1.1 200 OK", -1).length, 4);
+        }
+    }
+
+    @Test
+    public void rejectsInvalidContentLengthAndKeepsServing() throws Exception {
+        try (AccountMockServer mock = AccountMockServer.start(AccountMockOptions.builder()
+                .reactorThreads(1)
+                .build())) {
+            for (String contentLength : List.of("abc", "-5")) {
+                try (Socket socket = new Socket("127.0.0.1", mock.getPort())) {
+                    socket.setSoTimeout(5_000);
+                    socket.getOutputStream().write(("POST /account HTTP/1.1\r\nHost: localhost\r\nContent-Length: "
+                            + contentLength + "\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+                    String response = new String(socket.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+                    assertTrue(response.startsWith("HTTP/1.1 400"), response);
+                }
+            }
+
+            client(mock).runWebServiceWithBody(Method.POST, "/account", accountRequest()).statusCode(200);
+        }
+    }
+
+    @Test
+    public void delaysAnswersByTheConfiguredLatency() {
+        try (AccountMockServer mock = AccountMockServer.start(AccountMockOptions.builder()
+                .latency(LatencyDistribution.fixed(Duration.ofMillis(150)))
+                .build())) {
+            RestClient restClient = client(mock);
+            restClient.runWebServiceWithBody(Method.POST, "/account", accountRequest()).statusCode(200);
+
+            long start = System.nanoTime();
+            restClient.runWebServiceWithBody(Method.POST, "/account", accountRequest()).statusCode(200);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            assertTrue(elapsedMillis >= 150 && elapsedMillis < 1_000, "elapsed " + elapsedMillis + " ms");
+        }
+    }
+
+    @Test
+    public void latencyDistributionsAreReproducible() {
+        LatencyDistribution logNormal = LatencyDistribution.logNormal(Duration.ofMillis(20), 0.5);
+        long[] samples = new long[10_001];
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = logNormal.sampleNanos(random);
+        }
+        long[] again = new long[samples.length];
+        SplittableRandom sameSeed = new SplittableRandom(1);
+        for (int i = 0; i < again.length; i++) {
+            again[i] = logNormal.sampleNanos(sameSeed);
+        }
+        assertEquals(again, samples);
+
+        Arrays.sort(samples);
+        double medianMillis = samples[samples.length / 2] / 1e6;
+        assertTrue(medianMillis > 19 && medianMillis < 21, "median " + medianMillis + " ms");
+
+        LatencyDistribution uniform = LatencyDistribution.uniform(Duration.ofMillis(5), Duration.ofMillis(10));
+        for (int i = 0; i < 1000; i++) {
+            long sample = uniform.sampleNanos(random);
+            assertTrue(sample >= 5_000_000 && sample < 10_000_000, "sample " + sample);
+        }
+        expectThrows(IllegalArgumentException.class, () -> LatencyDistribution.fixed(Duration.ofMillis(-1)));
+    }
+
+    @Test
+    public void injectsTheSameErrorsForTheSameSeed() {
+        List<Integer> statuses = injectErrors(7);
+        long errors = statuses.stream().filter(status -> status == 429).count();
+        assertTrue(errors > 15 && errors < 65, "errors " + errors);
+        assertEquals(injectErrors(7), statuses);
+    }
+
+    @Test
+    public void dropsConnectionsWithoutAnswering() {
+        try (AccountMockServer mock = AccountMockServer.start(AccountMockOptions.builder()
+                .dropRate(1)
+                .build())) {
+            expectThrows(Exception.class, () ->
+                    client(mock).runWebServiceWithBody(Method.POST, "/account", accountRequest()));
+            assertTrue(mock.getDroppedConnections() >= 1);
+        }
+    }
+
+    private static List<Integer> injectErrors(long seed) {
+        try (AccountMockServer mock = AccountMockServer.start(AccountMockOptions.builder()
+                .errorRate(0.2)
+                .errorStatus(429)
+                .seed(seed)
+                .reactorThreads(1)
+                .build())) {
+            RestClient restClient = client(mock);
+            List<Integer> statuses = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                statuses.add(restClient.runWebServiceWithBody(Method.POST, "/account", accountRequest())
+                        .extract().statusCode());
+            }
+            assertEquals(mock.getInjectedErrors(), statuses.stream().filter(status -> status == 429).count());
+            return statuses;
+        }
+    }
+
+    private static RestClient client(AccountMockServer mock) {
+        return new RestClient(mock.getBaseUri(), "", null, ClientOptions.builder()
+                .loggingProfile(LoggingProfile.OFF)
+                .build());
+    }
+
+    private static Map<String, Object> accountRequest() {
+        return Map.of("actions", List.of(Map.of("name", "createAccountAction", "args", Map.of())));
+    }
+}
@@ -0,0 +1,113 @@
+package com.mach.api.account.mock;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures how many createAccount requests per second the Account mock sustains, driven by raw keep-alive sockets
+ * that pipeline {@code depth} requests at a time, so that the client stack is not the bottleneck.
+ *
+ * <pre>
+ * java ... AccountMockThroughput [connections=32] [depth=16] [seconds=10] [reactorThreads=cores]
+ * </pre>
+ */
+public final class AccountMockThroughput {
+
+    private static final byte[] BODY = ("{\"actions\":[{\"name\":\"createAccountAction\",\"args\":"
+            + "{\"email\":\"user@example.com\",\"name\":\"Load User\"}}]}").getBytes(StandardCharsets.UTF_8);
+    private static final byte[] REQUEST = ("POST /account HTTP/1.1\r\nHost: localhost\r\n"
+            + "Content-Type: application/json\r\nContent-Length: " + BODY.length + "\r\n\r\n"
+            + new String(BODY, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8);
+
+    private AccountMockThroughput() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int reactorThreads = args.length > 3 ? Integer.parseInt(args[3])
+                : Runtime.getRuntime().availableProcessors();
+
+        try (AccountMockServer mock = AccountMockServer.start(AccountMockOptions.builder()
+                .reactorThreads(reactorThreads)
+                .build())) {
+            LongAdder responses = new LongAdder();
+            long warmupEnd = System.nanoTime() + 2_000_000_000L;
+            long end = warmupEnd + seconds * 1_000_000_000L;
+            List<Thread> clients = new ArrayList<>();
+            for (int i = 0; i < connections; i++) {
+                Thread client = new Thread(() -> drive(mock.getPort(), depth, warmupEnd, end, responses));
+                client.start();
+                clients.add(client);
+            }
+            for (Thread client : clients) {
+                client.join();
+            }
+            System.out.printf("%d connections x %d pipelined, %d reactor threads: %,.0f req/s (%d requests)%n",
+                    connections, depth, reactorThreads, responses.sum() / (double) seconds, mock.getRequests());
+        }
+    }
+
+    private static void drive(int port, int depth, long warmupEnd, long end, LongAdder responses) {
+        byte[] requests = new byte[REQUEST.length * depth];
+        for (int i = 0; i < depth; i++) {
+            System.arraycopy(REQUEST, 0, requests, i * REQUEST.length, REQUEST.length);
+        }
+        byte[] buffer = new byte[64 * 1024];
+        try (Socket socket = new Socket("127.0.0.1", port)) {
+            socket.setTcpNoDelay(true);
+            OutputStream out = socket.getOutputStream();
+            InputStream in = socket.getInputStream();
+            int buffered = 0;
+            long now;
+            while ((now = System.nanoTime()) < end) {
+                out.write(requests);
+                int received = 0;
+                while (received < depth) {
+                    int read = in.read(buffer, buffered, buffer.length - buffered);
+                    if (read < 0) {
+                        throw new IOException("Connection closed by the mock");
+                    }
+                    buffered += read;
+                    int consumed = 0;
+                    int length;
+                    while ((length = responseLength(buffer, consumed, buffered)) > 0) {
+                        consumed += length;
+                        received++;
+                    }
+                    System.arraycopy(buffer, consumed, buffer, 0, buffered - consumed);
+                    buffered -= consumed;
+                }
+                if (now >= warmupEnd) {
+                    responses.add(depth);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Length of the complete response at {@code from}, or 0 if it was not fully received yet
+     */
+    private static int responseLength(byte[] buffer, int from, int to) {
+        for (int i = from; i + 3 < to; i++) {
+            if (buffer[i] == '\r' && buffer[i + 1] == '\n' && buffer[i + 2] == '\r' && buffer[i + 3] == '\n') {
+                String head = new String(buffer, from, i - from, StandardCharsets.ISO_8859_1);
+                int index = head.indexOf("Content-Length: ") + "Content-Length: ".length();
+                int lineEnd = head.indexOf('\r', index);
+                int contentLength = Integer.parseInt(head.substring(index, lineEnd < 0 ? head.length() : lineEnd));
+                int total = i + 4 + contentLength - from;
+                return from + total <= to ? total : 0;
+            }
+        }
+        return 0;
+    }
+}
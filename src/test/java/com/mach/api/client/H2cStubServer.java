@@ -0,0 +1,113 @@
+package com.mach.api.client;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
+import org.eclipse.jetty.io.Connection;
+import org.eclipse.jetty.io.EndPoint;
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.HttpConnectionFactory;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Embedded server speaking HTTP/1.1 and cleartext HTTP/2 (h2c, by prior knowledge or HTTP/1.1 upgrade) on the same
+ * port, so that the Apache HTTP/1.1 client and {@link Http2Transport} can be compared against the same stub.
+ *
+ * Every request is answered after a fixed latency with a JSON echo:
+ * {@code {"path":..,"protocol":..,"auth":..,"bodyLength":..}}, 201 for POST and 200 otherwise.
+ */
+public final class H2cStubServer implements AutoCloseable {
+
+    private final Server server;
+    private final ServerConnector connector;
+    private final Set<EndPoint> endPoints = ConcurrentHashMap.newKeySet();
+
+    private H2cStubServer(long latencyMillis) {
+        QueuedThreadPool threads = new QueuedThreadPool(500);
+        threads.setName("h2c-stub");
+        server = new Server(threads);
+        HttpConfiguration configuration = new HttpConfiguration();
+        HTTP2CServerConnectionFactory http2 = new HTTP2CServerConnectionFactory(configuration);
+        http2.setMaxConcurrentStreams(1000);
+        connector = new ServerConnector(server, new HttpConnectionFactory(configuration), http2);
+        connector.setHost("127.0.0.1");
+        // An h2c upgrade replaces the HTTP/1.1 connection of an endpoint, so count endpoints, not connections
+        connector.addBean(new Connection.Listener() {
+            @Override
+            public void onOpened(Connection connection) {
+                endPoints.add(connection.getEndPoint());
+            }
+
+            @Override
+            public void onClosed(Connection connection) {
+            }
+        });
+        server.addConnector(connector);
+        server.setHandler(new EchoHandler(latencyMillis));
+    }
+
+    /**
+     * Start a stub on a free local port
+     *
+     * @param latencyMillis Time every request waits before being answered
+     */
+    public static H2cStubServer start(long latencyMillis) throws Exception {
+        H2cStubServer stub = new H2cStubServer(latencyMillis);
+        stub.server.start();
+        return stub;
+    }
+
+    public String getBaseUri() {
+        return "http://127.0.0.1:" + connector.getLocalPort();
+    }
+
+    /**
+     * Number of TCP connections accepted since the stub started
+     */
+    public int getConnections() {
+        return endPoints.size();
+    }
+
+    @Override
+    public void close() throws Exception {
+        server.stop();
+    }
+
+    private static final class EchoHandler extends AbstractHandler {
+        private final long latencyMillis;
+
+        private EchoHandler(long latencyMillis) {
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public void handle(String target, Request baseRequest, HttpServletRequest request,
+                           HttpServletResponse response) throws IOException {
+            int bodyLength = request.getInputStream().readAllBytes().length;
+            if (latencyMillis > 0) {
+                try {
+                    Thread.sleep(latencyMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            byte[] body = ("{\"path\":\"" + request.getRequestURI() + "\",\"protocol\":\"" + request.getProtocol()
+                    + "\",\"auth\":\"" + request.getHeader("Authorization") + "\",\"bodyLength\":" + bodyLength + "}")
+                    .getBytes(StandardCharsets.UTF_8);
+            response.setStatus("POST".equals(request.getMethod()) ? 201 : 200);
+            response.setContentType("application/json");
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+            baseRequest.setHandled(true);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.mach.api.client;
+
+import com.mach.api.account.AccountApiClient;
+import com.mach.api.config.ServiceConfigRegistry;
+import com.mach.api.util.ResponseExtractor;
+import io.restassured.RestAssured;
+import io.restassured.http.Method;
+import io.restassured.response.Response;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for Http2Transport against a local h2c stub.
+ */
+public class Http2TransportTest {
+
+    private H2cStubServer server;
+
+    @BeforeClass
+    public void startServer() throws Exception {
+        server = H2cStubServer.start(20);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() throws Exception {
+        server.close();
+    }
+
+    @Test
+    public void sendsRequestsOverHttp2WithTheSameResponseApi() {
+        RestClient restClient = new RestClient(server.getBaseUri(), "/h2", RestAssured.oauth2("h2-token"),
+                ClientOptions.builder()
+                        .loggingProfile(LoggingProfile.FULL)
+                        .http2Transport(new Http2Transport("test"))
+                        .build());
+
+        restClient.runSimpleWebService(Method.GET, Map.of("X-Trace", "1"), Map.of("q", "a b"), "/items")
+                .statusCode(200)
+                .body("path", equalTo("/h2/items"))
+                .body("protocol", equalTo("HTTP/2.0"))
+                .body("auth", equalTo("Bearer h2-token"));
+        restClient.runWebServiceWithBodyAndPathParams(Method.POST, null, "/items/{id}", Map.of("id", "a1"),
+                        Map.of("name", "h2"))
+                .statusCode(201)
+                .body("path", equalTo("/h2/items/a1"))
+                .body("bodyLength", equalTo(13));
+
+        Response streamed = restClient.runStreamingWebService(Method.GET, "/stream");
+        assertEquals(streamed.getStatusLine(), "HTTP/2 200");
+        assertEquals(ResponseExtractor.extractJsonPathStreaming(streamed, "path", String.class), "/h2/stream");
+    }
+
+    @Test
+    public void concurrentCreateAccountCallsShareOneConnection() throws Exception {
+        try (H2cStubServer accountServer = H2cStubServer.start(50)) {
+            System.setProperty("api.account.base.uri", accountServer.getBaseUri());
+            System.setProperty("api.account.logging.profile", "off");
+            System.setProperty("api.account.transport", "http2");
+            ServiceConfigRegistry.invalidate("account");
+            try {
+                AccountApiClient accountClient = new AccountApiClient("token");
+                accountClient.createAccount().statusCode(201);
+
+                List<CompletableFuture<Response>> futures = new ArrayList<>();
+                for (int i = 0; i < 100; i++) {
+                    futures.add(accountClient.createAccountAsync());
+                }
+                for (CompletableFuture<Response> future : futures) {
+                    Response response = future.join();
+                    assertEquals(response.getStatusCode(), 201);
+                    assertEquals(response.jsonPath().getString("protocol"), "HTTP/2.0");
+                }
+                assertEquals(accountServer.getConnections(), 1);
+            } finally {
+                System.clearProperty("api.account.base.uri");
+                System.clearProperty("api.account.logging.profile");
+                System.clearProperty("api.account.transport");
+                ServiceConfigRegistry.invalidate("account");
+            }
+        }
+    }
+
+    @Test
+    public void http1ClientOpensAConnectionPerConcurrentRequest() throws Exception {
+        try (H2cStubServer http1Server = H2cStubServer.start(50);
+             ConnectionPool pool = new ConnectionPool("http1", 100, 100, 30_000, 30_000)) {
+            RestClient restClient = new RestClient(http1Server.getBaseUri(), "", null, ClientOptions.builder()
+                    .loggingProfile(LoggingProfile.OFF)
+                    .connectionPool(pool)
+                    .build());
+            List<CompletableFuture<Response>> futures = new ArrayList<>();
+            try (AsyncRestClient asyncClient = new AsyncRestClient(restClient, 20, 100)) {
+                for (int i = 0; i < 20; i++) {
+                    futures.add(asyncClient.runSimpleWebService(Method.GET, "/item/" + i));
+                }
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+            }
+
+            assertEquals(futures.get(0).join().jsonPath().getString("protocol"), "HTTP/1.1");
+            assertTrue(http1Server.getConnections() > 1, "connections: " + http1Server.getConnections());
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.mach.api.client;
+
+import com.mach.api.client.logging.LogOnFailureFilter;
+import com.mach.api.client.logging.SampledFilter;
+import com.mach.api.client.logging.TextBodyFilter;
+import io.restassured.RestAssured;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.Filter;
+import io.restassured.filter.log.LogDetail;
+import io.restassured.filter.log.RequestLoggingFilter;
+import io.restassured.http.ContentType;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for LoggingProfile parsing, sampling, on-failure buffering and logging of byte bodies.
+ */
+public class LoggingProfileTest {
+
+    @Test
+    public void parsesConfigurationValues() {
+        assertEquals(LoggingProfile.fromValue("full"), LoggingProfile.FULL);
+        assertEquals(LoggingProfile.fromValue("headers-only"), LoggingProfile.HEADERS_ONLY);
+        assertEquals(LoggingProfile.fromValue("ON_FAILURE"), LoggingProfile.ON_FAILURE);
+        assertEquals(LoggingProfile.fromValue(" sampled "), LoggingProfile.SAMPLED);
+        assertEquals(LoggingProfile.fromValue("off"), LoggingProfile.OFF);
+        assertEquals(LoggingProfile.fromValue(null), LoggingProfile.FULL);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void rejectsUnknownProfile() {
+        LoggingProfile.fromValue("verbose");
+    }
+
+    @Test
+    public void offProfileHasNoFilters() {
+        assertTrue(LoggingProfile.OFF.createFilters().isEmpty());
+    }
+
+    @Test
+    public void byteBodiesAreLoggedAsTextAndSentAsBytes() {
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        List<Object> sentBodies = new ArrayList<>();
+        Filter send = (requestSpec, responseSpec, ctx) -> {
+            sentBodies.add(requestSpec.getBody());
+            return new ResponseBuilder().setStatusCode(204).setBody("").build();
+        };
+
+        RestAssured.given()
+                .filter(new TextBodyFilter(new RequestLoggingFilter(LogDetail.BODY,
+                        new PrintStream(log, true, StandardCharsets.UTF_8))))
+                .filter(send)
+                .contentType(ContentType.JSON)
+                .body("{\"name\":\"Ana\"}".getBytes(StandardCharsets.UTF_8))
+                .post("http://localhost/accounts")
+                .then().statusCode(204);
+
+        assertTrue(log.toString(StandardCharsets.UTF_8).contains("\"name\": \"Ana\""), log.toString());
+        assertEquals(sentBodies.size(), 1);
+        assertTrue(sentBodies.get(0) instanceof byte[]);
+    }
+
+    @Test
+    public void onFailureKeepsTheExchangesOfTheTest() {
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        Filter filter = new LogOnFailureFilter(new PrintStream(log, true, StandardCharsets.UTF_8));
+        LogOnFailureFilter.clearCurrentThread();
+        sendThrough(filter, "/ignored");
+        LogOnFailureFilter.clearCurrentThread();
+
+        sendThrough(filter, "/setup");
+        sendThrough(filter, "/first");
+        sendThrough(filter, "/second");
+        assertEquals(log.size(), 0);
+
+        LogOnFailureFilter.flushCurrentThread("Test failed");
+        String output = log.toString(StandardCharsets.UTF_8);
+        assertFalse(output.contains("/ignored"), output);
+        assertTrue(output.indexOf("/setup") < output.indexOf("/first")
+                && output.indexOf("/first") < output.indexOf("/second"), output);
+
+        log.reset();
+        LogOnFailureFilter.flushCurrentThread("Test failed");
+        assertEquals(log.size(), 0);
+    }
+
+    @Test
+    public void onFailureBufferFollowsAsyncCalls() {
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        Filter filter = new LogOnFailureFilter(new PrintStream(log, true, StandardCharsets.UTF_8));
+        LogOnFailureFilter.clearCurrentThread();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CompletableFuture.supplyAsync(LogOnFailureFilter.propagate(() -> sendThrough(filter, "/async")), executor)
+                    .join();
+        } finally {
+            executor.shutdown();
+        }
+
+        LogOnFailureFilter.flushCurrentThread("Test failed");
+        assertTrue(log.toString(StandardCharsets.UTF_8).contains("/async"), log.toString());
+    }
+
+    @Test
+    public void samplerPicksOneOutOfEveryN() {
+        SampledFilter.Sampler sampler = new SampledFilter.Sampler(3);
+
+        assertTrue(sampler.sample());
+        assertFalse(sampler.sample());
+        assertFalse(sampler.sample());
+        assertTrue(sampler.sample());
+    }
+
+    private static int sendThrough(Filter filter, String path) {
+        return RestAssured.given()
+                .filter(filter)
+                .filter((requestSpec, responseSpec, ctx) -> new ResponseBuilder().setStatusCode(204).setBody("").build())
+                .get("http://localhost" + path)
+                .getStatusCode();
+    }
+}
@@ -0,0 +1,153 @@
+package com.mach.api.client;
+
+import com.mach.api.client.resilience.RateLimiter;
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.http.Method;
+import io.restassured.response.Response;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for the token bucket rate limiter, alone and applied by RestClient and AsyncRestClient.
+ */
+public class RateLimiterTest {
+
+    private HttpServer server;
+    private String baseUri;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.start();
+        baseUri = "http://127.0.0.1:" + server.getAddress().getPort();
+        // Warm RestAssured up so that timings only measure the rate limiter
+        new RestClient(baseUri, "", null, LoggingProfile.OFF).runSimpleWebService(Method.GET, "/warmup");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void keepsRateWithManyConcurrentCallers() throws InterruptedException {
+        RateLimiter rateLimiter = new RateLimiter(2000, 100);
+        ExecutorService callers = Executors.newFixedThreadPool(200);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 1100; i++) {
+            callers.execute(rateLimiter::acquire);
+        }
+        callers.shutdown();
+        assertTrue(callers.awaitTermination(10, TimeUnit.SECONDS));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // 100 permits of burst, then 1000 permits at 2000/s
+        assertTrue(elapsedMillis >= 480 && elapsedMillis < 1500, "elapsed " + elapsedMillis + " ms");
+    }
+
+    @Test
+    public void asyncClientWaitsWithoutBlockingThreads() {
+        RestClient restClient = new RestClient(baseUri, "", null, ClientOptions.builder()
+                .loggingProfile(LoggingProfile.OFF)
+                .rateLimiter(new RateLimiter(50, 1))
+                .build());
+        List<CompletableFuture<Response>> futures = new ArrayList<>();
+
+        long start = System.nanoTime();
+        try (AsyncRestClient asyncClient = new AsyncRestClient(restClient, 4, 100)) {
+            for (int i = 0; i < 20; i++) {
+                futures.add(asyncClient.runSimpleWebService(Method.GET, "/item/" + i));
+            }
+            long submitMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            assertTrue(submitMillis < 100, "submission took " + submitMillis + " ms");
+            // 19 intervals of 20 ms; taking the permit again on the executor thread would double it
+            assertTrue(elapsedMillis >= 360 && elapsedMillis < 700,
+                    "20 requests at 50/s took " + elapsedMillis + " ms");
+        }
+        futures.forEach(future -> assertEquals(future.join().getStatusCode(), 204));
+    }
+
+    @Test
+    public void delayedRequestsWaitForASaturatedExecutor() throws InterruptedException {
+        RestClient restClient = new RestClient(baseUri, "", null, ClientOptions.builder()
+                .loggingProfile(LoggingProfile.OFF)
+                .rateLimiter(new RateLimiter(5, 1))
+                .build());
+        // One busy thread, no queue, caller-runs: every task submitted now runs on the submitting thread
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        try (AsyncRestClient asyncClient = new AsyncRestClient(restClient, executor)) {
+            // The first permit is free and runs on this thread; the others are due later, on the scheduler
+            List<CompletableFuture<Response>> futures = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                futures.add(asyncClient.runSimpleWebService(Method.GET, "/saturated/" + i));
+            }
+            assertEquals(futures.get(0).join().getStatusCode(), 204);
+
+            // Both permits are due, but the executor is still busy: the requests wait instead of failing
+            Thread.sleep(600);
+            for (CompletableFuture<Response> delayed : futures.subList(1, 3)) {
+                assertFalse(delayed.isDone());
+            }
+
+            release.countDown();
+            for (CompletableFuture<Response> delayed : futures.subList(1, 3)) {
+                assertEquals(delayed.join().getStatusCode(), 204);
+            }
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void restClientWaitsForPermits() {
+        RestClient restClient = new RestClient(baseUri, "", null, ClientOptions.builder()
+                .loggingProfile(LoggingProfile.OFF)
+                .rateLimiter(new RateLimiter(100, 1))
+                .build());
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 21; i++) {
+            restClient.runSimpleWebService(Method.GET, "/sync/" + i).statusCode(204);
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMillis >= 190, "21 requests at 100/s took " + elapsedMillis + " ms");
+    }
+}
@@ -0,0 +1,85 @@
+package com.mach.api.client;
+
+import io.qameta.allure.restassured.AllureRestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.filter.Filter;
+import io.restassured.filter.log.RequestLoggingFilter;
+import io.restassured.filter.log.ResponseLoggingFilter;
+import io.restassured.specification.RequestSpecification;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Measures the bytes allocated to assemble the request specification of a single request:
+ * the previous per-request filter chain construction versus the specification cached per client.
+ *
+ * Run with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.mainClass=com.mach.api.client.RequestSpecificationAllocationBenchmark \
+ *     -Dexec.classpathScope=test
+ * </pre>
+ */
+public class RequestSpecificationAllocationBenchmark {
+
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 100_000;
+
+    public static void main(String[] args) {
+        RequestSpecification baseSpecification = new RequestSpecBuilder()
+                .setBaseUri("http://localhost:8080")
+                .setBasePath("/api")
+                .build();
+        RequestSpecification cachedSpecification = new RequestSpecBuilder()
+                .addRequestSpecification(baseSpecification)
+                .addFilters(LoggingProfile.FULL.createFilters())
+                .build();
+
+        Supplier<RequestSpecification> perRequest = () -> {
+            List<Filter> filters = new ArrayList<>();
+            filters.add(new RequestLoggingFilter());
+            filters.add(new ResponseLoggingFilter());
+            filters.add(new AllureRestAssured());
+            return given().spec(new RequestSpecBuilder()
+                    .addRequestSpecification(baseSpecification)
+                    .addFilters(filters)
+                    .build());
+        };
+        Supplier<RequestSpecification> cached = () -> given().spec(cachedSpecification);
+
+        report("per-request filter chain (before)", perRequest);
+        report("cached specification (after)", cached);
+    }
+
+    private static void report(String name, Supplier<RequestSpecification> assembly) {
+        run(assembly, WARMUP);
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        run(assembly, ITERATIONS);
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        System.out.printf("%-36s %10d bytes/request %10.2f us/request%n",
+                name, allocated / ITERATIONS, elapsed / 1_000.0 / ITERATIONS);
+    }
+
+    private static void run(Supplier<RequestSpecification> assembly, int iterations) {
+        int hash = 0;
+        for (int i = 0; i < iterations; i++) {
+            hash += System.identityHashCode(assembly.get());
+        }
+        if (hash == 42) {
+            System.out.println();
+        }
+    }
+
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,150 @@
+package com.mach.api.client;
+
+import com.mach.api.client.cache.ResponseCache;
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.RestAssured;
+import io.restassured.http.Method;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Tests for the GET response cache against a local stub:
+ * {@code /max-age} is fresh for a minute, {@code /etag} must be revalidated and answers 304 to a matching
+ * If-None-Match, {@code /no-store} must never be stored; every response echoes the Authorization header.
+ */
+public class ResponseCacheTest {
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private HttpServer server;
+    private String baseUri;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            calls.incrementAndGet();
+            String path = exchange.getRequestURI().getPath();
+            if (path.startsWith("/max-age")) {
+                exchange.getResponseHeaders().add("Cache-Control", "max-age=60");
+            } else if (path.equals("/etag")) {
+                exchange.getResponseHeaders().add("Cache-Control", "no-cache");
+                exchange.getResponseHeaders().add("ETag", "\"v1\"");
+                if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                    exchange.sendResponseHeaders(304, -1);
+                    exchange.close();
+                    return;
+                }
+            } else if (path.equals("/no-store")) {
+                exchange.getResponseHeaders().add("Cache-Control", "no-store");
+            }
+            byte[] body = ("{\"path\":\"" + path + "\",\"auth\":\""
+                    + exchange.getRequestHeaders().getFirst("Authorization") + "\"}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        baseUri = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @BeforeMethod
+    public void resetCalls() {
+        calls.set(0);
+    }
+
+    @Test
+    public void servesFreshResponsesWithoutNetwork() {
+        ResponseCache cache = new ResponseCache("cache", 100, 1 << 20);
+        RestClient restClient = client("token", cache);
+
+        for (int i = 0; i < 5; i++) {
+            restClient.runSimpleWebService(Method.GET, "/max-age").statusCode(200).body("path", equalTo("/max-age"));
+        }
+
+        assertEquals(calls.get(), 1);
+        assertEquals(cache.getStats().getMisses(), 1);
+        assertEquals(cache.getStats().getHits(), 4);
+    }
+
+    @Test
+    public void revalidatesWithETag() {
+        ResponseCache cache = new ResponseCache("cache", 100, 1 << 20);
+        RestClient restClient = client("token", cache);
+
+        restClient.runSimpleWebService(Method.GET, "/etag").statusCode(200);
+        restClient.runSimpleWebService(Method.GET, "/etag").statusCode(200).body("path", equalTo("/etag"));
+
+        assertEquals(calls.get(), 2);
+        assertEquals(cache.getStats().getRevalidations(), 1);
+    }
+
+    @Test
+    public void neverStoresNoStoreResponses() {
+        ResponseCache cache = new ResponseCache("cache", 100, 1 << 20);
+        RestClient restClient = client("token", cache);
+
+        restClient.runSimpleWebService(Method.GET, "/no-store").statusCode(200);
+        restClient.runSimpleWebService(Method.GET, "/no-store").statusCode(200);
+
+        assertEquals(calls.get(), 2);
+        assertEquals(cache.getStats().getEntries(), 0);
+    }
+
+    @Test
+    public void keepsResponsesPerIdentityAndParameters() {
+        ResponseCache cache = new ResponseCache("cache", 100, 1 << 20);
+        RestClient first = client("first-token", cache);
+        RestClient second = client("second-token", cache);
+
+        first.runSimpleWebService(Method.GET, "/max-age").body("auth", equalTo("Bearer first-token"));
+        second.runSimpleWebService(Method.GET, "/max-age").body("auth", equalTo("Bearer second-token"));
+        first.runSimpleWebService(Method.GET, Map.of(), Map.of("page", 2), "/max-age");
+        first.runSimpleWebService(Method.GET, "/max-age").body("auth", equalTo("Bearer first-token"));
+
+        assertEquals(calls.get(), 3);
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedEntries() {
+        ResponseCache cache = new ResponseCache("cache", 2, 1 << 20);
+        RestClient restClient = client("token", cache);
+
+        restClient.runSimpleWebService(Method.GET, "/max-age/1");
+        restClient.runSimpleWebService(Method.GET, "/max-age/2");
+        restClient.runSimpleWebService(Method.GET, "/max-age/1");
+        restClient.runSimpleWebService(Method.GET, "/max-age/3");
+        restClient.runSimpleWebService(Method.GET, "/max-age/1");
+        restClient.runSimpleWebService(Method.GET, "/max-age/2");
+
+        assertEquals(calls.get(), 4);
+        assertEquals(cache.getStats().getEntries(), 2);
+        assertEquals(cache.getStats().getEvictions(), 2);
+    }
+
+    private RestClient client(String token, ResponseCache cache) {
+        return new RestClient(baseUri, "", RestAssured.oauth2(token), ClientOptions.builder()
+                .name("cache")
+                .loggingProfile(LoggingProfile.OFF)
+                .responseCache(cache)
+                .build());
+    }
+}
@@ -0,0 +1,202 @@
+package com.mach.api.client;
+
+import com.mach.api.account.AccountApiClient;
+import com.mach.api.client.replay.ReplayMode;
+import com.mach.api.client.replay.ResponseRecorder;
+import com.mach.api.client.replay.ResponseStore;
+import com.mach.api.config.ServiceConfig;
+import com.mach.api.config.ServiceConfigRegistry;
+import com.mach.api.util.ResponseExtractor;
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.http.Method;
+import io.restassured.response.Response;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Tests for recording responses into a ResponseStore and replaying them without network, against a local stub
+ * that echoes the method, path, query and body of every request and counts the requests it receives.
+ */
+public class ResponseRecorderTest {
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private HttpServer server;
+    private String baseUri;
+    private Path directory;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            int call = calls.incrementAndGet();
+            String requestBody = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            byte[] body = ("{\"call\":" + call + ",\"method\":\"" + exchange.getRequestMethod()
+                    + "\",\"path\":\"" + exchange.getRequestURI().getPath()
+                    + "\",\"query\":\"" + exchange.getRequestURI().getQuery()
+                    + "\",\"bodyLength\":" + requestBody.length() + "}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.getResponseHeaders().add("X-Request-Id", "req-" + call);
+            exchange.sendResponseHeaders("POST".equals(exchange.getRequestMethod()) ? 201 : 200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        baseUri = "http://127.0.0.1:" + server.getAddress().getPort();
+        directory = Files.createTempDirectory("response-store");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @BeforeMethod
+    public void resetCalls() {
+        calls.set(0);
+    }
+
+    @Test
+    public void replaysRecordedResponsesWithoutNetwork() {
+        Path file = directory.resolve("replay.store");
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("name", "Ana");
+        body.put("age", 30);
+        try (ResponseStore store = new ResponseStore(file)) {
+            RestClient recording = client(new ResponseRecorder(ReplayMode.RECORD, store));
+            recording.runWebServiceWithBody(Method.POST, "/account", body).statusCode(201);
+            recording.runSimpleWebService(Method.GET, Map.of(), Map.of("b", "2", "a", "1"), "/items");
+            recording.runStreamingWebService(Method.GET, "/stream").then().statusCode(200);
+            assertEquals(calls.get(), 3);
+            assertEquals(store.size(), 3);
+        }
+
+        // Reopened from disk: the index is rebuilt by scanning the segment
+        try (ResponseStore store = new ResponseStore(file)) {
+            assertEquals(store.size(), 3);
+            RestClient replaying = client(new ResponseRecorder(ReplayMode.REPLAY, store));
+
+            // Same JSON body with its fields in another order
+            Response created = replaying.runWebServiceWithBody(Method.POST, "/account",
+                    "{ \"age\": 30, \"name\": \"Ana\" }").statusCode(201)
+                    .body("call", equalTo(1))
+                    .body("path", equalTo("/account"))
+                    .extract().response();
+            assertEquals(created.getHeader("X-Request-Id"), "req-1");
+            assertEquals(created.getContentType(), "application/json");
+
+            replaying.runSimpleWebService(Method.GET, Map.of(), Map.of("a", "1", "b", "2"), "/items")
+                    .statusCode(200)
+                    .body("call", equalTo(2));
+            Response streamed = replaying.runStreamingWebService(Method.GET, "/stream");
+            assertEquals(ResponseExtractor.extractJsonPathStreaming(streamed, "call", Integer.class),
+                    Integer.valueOf(3));
+
+            IllegalStateException miss = expectThrows(IllegalStateException.class, () ->
+                    replaying.runWebServiceWithBody(Method.POST, "/account", Map.of("name", "Bea")));
+            assertTrue(miss.getMessage().startsWith("No recorded response for POST /account "), miss.getMessage());
+            assertEquals(calls.get(), 3);
+        }
+    }
+
+    @Test
+    public void latestRecordingWinsAndIncompleteRecordsAreDropped() throws IOException {
+        Path file = directory.resolve("torn.store");
+        try (ResponseStore store = new ResponseStore(file)) {
+            RestClient recording = client(new ResponseRecorder(ReplayMode.RECORD, store));
+            recording.runSimpleWebService(Method.GET, "/a");
+            recording.runSimpleWebService(Method.GET, "/a");
+            recording.runSimpleWebService(Method.GET, "/b");
+            assertEquals(store.size(), 2);
+        }
+        long complete = Files.size(file);
+        // A run killed in the middle of an append leaves a partial record behind
+        Files.write(file, new byte[]{0, 0, 1, 0, 42, 42, 42}, StandardOpenOption.APPEND);
+
+        try (ResponseStore store = new ResponseStore(file)) {
+            assertEquals(Files.size(file), complete);
+            assertEquals(store.size(), 2);
+            assertEquals(store.get("GET /a").jsonPath().getInt("call"), 2);
+            assertNull(store.get("GET /c"));
+
+            client(new ResponseRecorder(ReplayMode.RECORD, store)).runSimpleWebService(Method.GET, "/c");
+            assertNotNull(store.get("GET /c"));
+            assertEquals(store.get("GET /b").jsonPath().getInt("call"), 3);
+        }
+    }
+
+    @Test
+    public void keysIgnoreHostAndFieldOrderButNotValues() {
+        try (ResponseStore store = new ResponseStore(directory.resolve("keys.store"))) {
+            client(new ResponseRecorder(ReplayMode.RECORD, store))
+                    .runWebServiceWithBody(Method.PUT, "/account/1", "{\"a\":[{\"y\":1,\"x\":2}]}");
+            RestClient replaying = new RestClient("http://replay.invalid", "", null, ClientOptions.builder()
+                    .loggingProfile(LoggingProfile.OFF)
+                    .responseRecorder(new ResponseRecorder(ReplayMode.REPLAY, store))
+                    .build());
+
+            replaying.runWebServiceWithBody(Method.PUT, "/account/1", "{\"a\":[{\"x\":2,\"y\":1}]}").statusCode(200);
+            expectThrows(IllegalStateException.class, () ->
+                    replaying.runWebServiceWithBody(Method.PUT, "/account/1", "{\"a\":[{\"x\":1,\"y\":2}]}"));
+            expectThrows(IllegalStateException.class, () ->
+                    replaying.runWebServiceWithBody(Method.POST, "/account/1", "{\"a\":[{\"x\":2,\"y\":1}]}"));
+        }
+    }
+
+    @Test
+    public void accountSuiteReplaysOfflineFromServiceConfig() {
+        String store = directory.resolve("account.store").toString();
+        try {
+            System.setProperty("api.account.logging.profile", "off");
+            System.setProperty("api.account.replay.store", store);
+            configureAccount(baseUri, "record");
+            new AccountApiClient("token").createAccount().statusCode(201);
+            assertEquals(calls.get(), 1);
+
+            // Replay against a host that does not exist
+            configureAccount("http://account.invalid", "replay");
+            assertNull(ClientOptions.forService(ServiceConfig.forService("account")).getRetryPolicy());
+            new AccountApiClient("other-token").createAccount().statusCode(201).body("path", equalTo("/account"));
+            assertEquals(calls.get(), 1);
+        } finally {
+            System.clearProperty("api.account.base.uri");
+            System.clearProperty("api.account.logging.profile");
+            System.clearProperty("api.account.replay.mode");
+            System.clearProperty("api.account.replay.store");
+            ServiceConfigRegistry.invalidate("account");
+        }
+    }
+
+    private static void configureAccount(String baseUri, String replayMode) {
+        System.setProperty("api.account.base.uri", baseUri);
+        System.setProperty("api.account.replay.mode", replayMode);
+        ServiceConfigRegistry.invalidate("account");
+    }
+
+    private RestClient client(ResponseRecorder recorder) {
+        return new RestClient(baseUri, "", null, ClientOptions.builder()
+                .loggingProfile(LoggingProfile.OFF)
+                .responseRecorder(recorder)
+                .build());
+    }
+}
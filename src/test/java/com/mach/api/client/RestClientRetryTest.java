@@ -0,0 +1,166 @@
+package com.mach.api.client;
+
+import com.mach.api.client.resilience.CircuitBreaker;
+import com.mach.api.client.resilience.CircuitBreakerOpenException;
+import com.mach.api.client.resilience.RetryPolicy;
+import com.mach.api.config.ServiceConfig;
+import com.mach.api.metrics.ClientMetrics;
+import com.mach.api.metrics.EndpointSnapshot;
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.http.Method;
+import io.restassured.response.Response;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertThrows;
+
+/**
+ * Tests for RestClient retries and circuit breaking against a local stub.
+ * {@code /flaky/{n}} fails with 503 until it has been called n times, then echoes the request body;
+ * {@code /throttled} always answers 429 with a long Retry-After; {@code /down} always answers 500.
+ */
+public class RestClientRetryTest {
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final ClientMetrics metrics = new ClientMetrics();
+    private HttpServer server;
+    private String baseUri;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            int call = calls.incrementAndGet();
+            String path = exchange.getRequestURI().getPath();
+            byte[] body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = in.readAllBytes();
+            }
+            int status = 200;
+            if (path.startsWith("/flaky/")) {
+                status = call < Integer.parseInt(path.substring("/flaky/".length())) ? 503 : 200;
+            } else if (path.equals("/throttled")) {
+                status = 429;
+                exchange.getResponseHeaders().add("Retry-After", "120");
+            } else if (path.equals("/down")) {
+                status = 500;
+            }
+            if (status != 200 || body.length == 0) {
+                body = ("{\"status\":" + status + "}").getBytes(StandardCharsets.UTF_8);
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        baseUri = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @BeforeMethod
+    public void reset() {
+        calls.set(0);
+        metrics.reset();
+    }
+
+    @Test
+    public void retriesIdempotentRequestsWithBackoff() {
+        RestClient restClient = client(retryPolicy(), null);
+
+        restClient.runSimpleWebService(Method.GET, "/flaky/3").statusCode(200);
+
+        assertEquals(calls.get(), 3);
+        assertEquals(metrics.snapshot().stream().mapToLong(EndpointSnapshot::getRetryCount).sum(), 2);
+    }
+
+    @Test
+    public void retriesPostOnlyWithIdempotencyKey() {
+        RestClient restClient = client(retryPolicy(), null);
+
+        restClient.runWebServiceWithBody(Method.POST, "/flaky/2", Map.of("name", "first")).statusCode(503);
+        assertEquals(calls.get(), 1);
+
+        calls.set(0);
+        restClient.runWebServiceWithBody(Method.POST, Map.of(RetryPolicy.IDEMPOTENCY_KEY_HEADER, "key-1"),
+                "/flaky/2", Map.of("name", "second")).statusCode(200);
+        assertEquals(calls.get(), 2);
+        assertEquals(RestClient.getLastResponse().jsonPath().getString("name"), "second");
+    }
+
+    @Test
+    public void doesNotRetryWhenRetryAfterIsTooLong() {
+        RestClient restClient = client(retryPolicy(), null);
+
+        restClient.runSimpleWebService(Method.GET, "/throttled").statusCode(429);
+
+        assertEquals(calls.get(), 1);
+    }
+
+    @Test
+    public void circuitBreakerOpensAndRecoversThroughProbe() throws InterruptedException {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("breaker", 3, Duration.ofMillis(200), metrics);
+        RestClient restClient = client(null, circuitBreaker);
+
+        for (int i = 0; i < 3; i++) {
+            restClient.runSimpleWebService(Method.GET, "/down").statusCode(500);
+        }
+        assertEquals(circuitBreaker.getState(), CircuitBreaker.State.OPEN);
+        assertThrows(CircuitBreakerOpenException.class, () -> restClient.runSimpleWebService(Method.GET, "/down"));
+        assertEquals(calls.get(), 3);
+
+        Thread.sleep(250);
+        Response probe = restClient.runSimpleWebService(Method.GET, "/ok").extract().response();
+
+        assertEquals(probe.getStatusCode(), 200);
+        assertEquals(circuitBreaker.getState(), CircuitBreaker.State.CLOSED);
+        assertEquals(metrics.getCircuitState("breaker"), "closed");
+        assertEquals(metrics.getCircuitTransitions("breaker", "open"), 1);
+        assertEquals(metrics.getCircuitTransitions("breaker", "half_open"), 1);
+    }
+
+    @Test
+    public void retriesAndCircuitBreakerAreOptIn() {
+        ClientOptions options = ClientOptions.forService(ServiceConfig.forService("defaults"));
+
+        assertNull(options.getRetryPolicy());
+        assertNull(options.getCircuitBreaker());
+    }
+
+    private static RetryPolicy retryPolicy() {
+        return RetryPolicy.builder()
+                .maxAttempts(3)
+                .initialBackoff(Duration.ofMillis(10))
+                .maxBackoff(Duration.ofMillis(50))
+                .maxRetryAfter(Duration.ofSeconds(1))
+                .build();
+    }
+
+    private RestClient client(RetryPolicy retryPolicy, CircuitBreaker circuitBreaker) {
+        return new RestClient(baseUri, "", null, ClientOptions.builder()
+                .name("retry")
+                .loggingProfile(LoggingProfile.OFF)
+                .metricsListener(metrics)
+                .retryPolicy(retryPolicy)
+                .circuitBreaker(circuitBreaker)
+                .build());
+    }
+}
@@ -0,0 +1,232 @@
+package com.mach.api.client;
+
+import com.mach.api.util.ResponseExtractor;
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.RestAssured;
+import io.restassured.http.Method;
+import io.restassured.response.Response;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Tests for RestClient against a local HTTP stub that echoes the request path and Authorization header,
+ * gzip-compressed under {@code /gzip} when the request accepts it. {@code /echo} sends the request body back.
+ */
+public class RestClientTest {
+
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger uncompressedRequests = new AtomicInteger();
+    private HttpServer server;
+    private String baseUri;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            String auth = exchange.getRequestHeaders().getFirst("Authorization");
+            byte[] body = ("{\"path\":\"" + exchange.getRequestURI().getPath() + "\",\"auth\":\"" + auth + "\"}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/echo", exchange -> {
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().add("Content-Type", exchange.getRequestHeaders().getFirst("Content-Type"));
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/gzip", exchange -> {
+            String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+            if (!gzip) {
+                uncompressedRequests.incrementAndGet();
+            }
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            try (OutputStream out = gzip ? new GZIPOutputStream(body) : body) {
+                out.write(("{\"path\":\"" + exchange.getRequestURI().getPath() + "\"}")
+                        .getBytes(StandardCharsets.UTF_8));
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            if (gzip) {
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            }
+            exchange.sendResponseHeaders(200, body.size());
+            try (OutputStream out = exchange.getResponseBody()) {
+                body.writeTo(out);
+            }
+        });
+        server.start();
+        baseUri = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void clientsKeepTheirOwnConfiguration() {
+        RestClient accountClient = new RestClient(baseUri, "/account-service", "account-token");
+        RestClient paymentClient = new RestClient(baseUri, "/payment-service", "payment-token");
+
+        accountClient.runSimpleWebService(Method.GET, "/ping")
+                .statusCode(200)
+                .body("path", equalTo("/account-service/ping"))
+                .body("auth", equalTo("Bearer account-token"));
+        paymentClient.runSimpleWebService(Method.GET, "/ping")
+                .statusCode(200)
+                .body("path", equalTo("/payment-service/ping"))
+                .body("auth", equalTo("Bearer payment-token"));
+    }
+
+    @Test
+    public void asyncClientKeepsManyRequestsInFlight() {
+        RestClient restClient = new RestClient(baseUri, "/async", null, LoggingProfile.OFF);
+        List<CompletableFuture<Response>> futures = new ArrayList<>();
+
+        try (AsyncRestClient asyncClient = new AsyncRestClient(restClient, 16, 1000)) {
+            for (int i = 0; i < 100; i++) {
+                futures.add(asyncClient.runSimpleWebService(Method.GET, "/item/" + i));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            Response response = futures.get(i).join();
+            assertEquals(response.getStatusCode(), 200);
+            assertEquals(response.jsonPath().getString("path"), "/async/item/" + i);
+        }
+    }
+
+    @Test
+    public void pooledClientReusesConnections() {
+        try (ConnectionPool pool = new ConnectionPool("test", 10, 10, 30_000, 30_000)) {
+            RestClient restClient = new RestClient(baseUri, "/pooled", null, ClientOptions.builder()
+                    .loggingProfile(LoggingProfile.OFF)
+                    .connectionPool(pool)
+                    .build());
+            restClient.runSimpleWebService(Method.GET, "/warmup").statusCode(200);
+            clientPorts.clear();
+
+            for (int i = 0; i < 20; i++) {
+                restClient.runSimpleWebService(Method.GET, "/item/" + i).statusCode(200);
+            }
+
+            assertEquals(clientPorts.size(), 1);
+            ConnectionPool.Stats stats = pool.getStats();
+            assertEquals(stats.getLeased(), 0);
+            assertEquals(stats.getAvailable(), 1);
+        }
+    }
+
+    @Test
+    public void pooledClientDecodesGzipUnderConcurrency() {
+        try (ConnectionPool pool = new ConnectionPool("gzip", 16, 16, 30_000, 30_000)) {
+            RestClient restClient = new RestClient(baseUri, "", null, ClientOptions.builder()
+                    .loggingProfile(LoggingProfile.OFF)
+                    .connectionPool(pool)
+                    .build());
+            uncompressedRequests.set(0);
+            ExecutorService executor = Executors.newFixedThreadPool(16);
+            try {
+                List<Future<String>> paths = new ArrayList<>();
+                for (int i = 0; i < 400; i++) {
+                    String path = "/gzip/" + i;
+                    paths.add(executor.submit(() -> restClient.runSimpleWebService(Method.GET, path)
+                            .statusCode(200)
+                            .extract().path("path")));
+                }
+                for (int i = 0; i < paths.size(); i++) {
+                    assertEquals(paths.get(i).get(), "/gzip/" + i);
+                }
+            } catch (InterruptedException | ExecutionException e) {
+                throw new AssertionError(e);
+            } finally {
+                executor.shutdownNow();
+            }
+            assertEquals(uncompressedRequests.get(), 0);
+        }
+    }
+
+    @Test
+    public void objectBodiesFollowTheContentType() {
+        RestClient restClient = new RestClient(baseUri, "", null, LoggingProfile.FULL);
+
+        Response patched = restClient.runWebServiceWithBody(Method.PATCH,
+                Map.of("Content-Type", "application/merge-patch+json"), "/echo", Map.of("name", "Ana"))
+                .statusCode(200)
+                .extract().response();
+        assertTrue(patched.getContentType().startsWith("application/merge-patch+json"), patched.getContentType());
+        assertEquals(patched.asString(), "{\"name\":\"Ana\"}");
+
+        Response utf8 = restClient.runWebServiceWithBody(Method.POST,
+                Map.of("Content-Type", "application/json; charset=UTF-8"), "/echo", Map.of("name", "Añá"))
+                .statusCode(200)
+                .extract().response();
+        assertEquals(new String(utf8.asByteArray(), StandardCharsets.UTF_8), "{\"name\":\"Añá\"}");
+
+        // Not sent as JSON: RestAssured's own serialization picks an XML mapper, and none is on the classpath
+        IllegalStateException xml = expectThrows(IllegalStateException.class, () ->
+                restClient.runWebServiceWithBody(Method.POST, Map.of("Content-Type", "application/xml"), "/echo",
+                        Map.of("name", "Ana")));
+        assertTrue(xml.getMessage().contains("XML"), xml.getMessage());
+    }
+
+    @Test
+    public void streamingCallReleasesPooledConnectionWhenStreamIsClosed() {
+        try (ConnectionPool pool = new ConnectionPool("streaming", 10, 10, 30_000, 30_000)) {
+            RestClient restClient = new RestClient(baseUri, "/streaming", null, ClientOptions.builder()
+                    .loggingProfile(LoggingProfile.FULL)
+                    .connectionPool(pool)
+                    .build());
+
+            Response response = restClient.runStreamingWebService(Method.GET, "/items");
+            assertEquals(pool.getStats().getLeased(), 1);
+
+            assertEquals(ResponseExtractor.extractJsonPathStreaming(response, "path", String.class),
+                    "/streaming/items");
+            assertEquals(pool.getStats().getLeased(), 0);
+        }
+    }
+
+    @Test
+    public void clientDoesNotMutateRestAssuredGlobals() {
+        String baseUriBefore = RestAssured.baseURI;
+        String basePathBefore = RestAssured.basePath;
+
+        new RestClient(baseUri, "/isolated", "user", "secret");
+
+        assertEquals(RestAssured.baseURI, baseUriBefore);
+        assertEquals(RestAssured.basePath, basePathBefore);
+    }
+}
@@ -0,0 +1,208 @@
+package com.mach.api.client;
+
+import com.mach.api.client.auth.Jwt;
+import com.mach.api.client.auth.RefreshingTokenProvider;
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.http.Method;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Tests for RefreshingTokenProvider and the Bearer token filter of RestClient.
+ */
+public class TokenProviderTest {
+
+    private HttpServer server;
+    private String baseUri;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            String auth = exchange.getRequestHeaders().getFirst("Authorization");
+            byte[] body = ("{\"auth\":\"" + auth + "\"}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        baseUri = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void readsJwtExpiration() {
+        assertEquals(Jwt.expiration(jwt(1_900_000_000L, "a")), Instant.ofEpochSecond(1_900_000_000L));
+        assertNull(Jwt.expiration("opaque-token"));
+        assertNull(Jwt.expiration("a.b.c"));
+        assertNull(Jwt.expiration(jwt(null, "a")));
+    }
+
+    @Test
+    public void threadsHittingExpiryTogetherTriggerOneFetch() throws InterruptedException {
+        AtomicInteger fetches = new AtomicInteger();
+        RefreshingTokenProvider tokens = new RefreshingTokenProvider("herd", () -> {
+            Thread.sleep(100);
+            return "token-" + fetches.incrementAndGet();
+        }, Duration.ZERO, Duration.ofMillis(300));
+        assertEquals(tokens.getToken(), "token-1");
+        // Without background refresh every caller finds the token expired
+        tokens.close();
+        Thread.sleep(400);
+
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    seen.add(tokens.getToken());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(fetches.get(), 2);
+        assertEquals(tokens.getFetchCount(), 2);
+        assertEquals(seen, Set.of("token-2"));
+    }
+
+    @Test
+    public void refreshesInBackgroundBeforeExpiry() throws InterruptedException {
+        List<Long> fetchTimes = new CopyOnWriteArrayList<>();
+        long firstExpiration = System.currentTimeMillis() / 1000 + 3;
+        try (RefreshingTokenProvider tokens = new RefreshingTokenProvider("background", () -> {
+            fetchTimes.add(System.currentTimeMillis());
+            return jwt(fetchTimes.size() == 1 ? firstExpiration : firstExpiration + 3600, "t" + fetchTimes.size());
+        }, Duration.ofSeconds(1), RefreshingTokenProvider.DEFAULT_LIFETIME)) {
+            assertEquals(tokens.getToken(), jwt(firstExpiration, "t1"));
+
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (fetchTimes.size() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+
+            assertEquals(fetchTimes.size(), 2);
+            assertTrue(fetchTimes.get(1) < firstExpiration * 1000, "refreshed after expiry");
+            assertEquals(tokens.getToken(), jwt(firstExpiration + 3600, "t2"));
+            assertEquals(tokens.getExpiration(), Instant.ofEpochSecond(firstExpiration + 3600));
+        }
+    }
+
+    @Test
+    public void failedBackgroundRefreshKeepsServingTheCachedToken() throws InterruptedException {
+        AtomicInteger fetches = new AtomicInteger();
+        try (RefreshingTokenProvider tokens = new RefreshingTokenProvider("failing", () -> {
+            if (fetches.incrementAndGet() > 1) {
+                throw new IOException("token endpoint down");
+            }
+            return "token-1";
+        }, Duration.ofSeconds(1), Duration.ofMillis(2000))) {
+            assertEquals(tokens.getToken(), "token-1");
+
+            Thread.sleep(1300);
+            assertTrue(fetches.get() >= 2, "no background refresh");
+            assertEquals(tokens.getToken(), "token-1");
+
+            Thread.sleep(900);
+            IllegalStateException error = expectThrows(IllegalStateException.class, tokens::getToken);
+            assertEquals(error.getCause().getMessage(), "token endpoint down");
+        }
+    }
+
+    @Test
+    public void failedFetchIsSeenByEveryWaitingCaller() throws InterruptedException {
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RefreshingTokenProvider tokens = new RefreshingTokenProvider("asserting", () -> {
+            fetching.countDown();
+            release.await();
+            throw new AssertionError("login returned 500");
+        });
+        List<Throwable> errors = new CopyOnWriteArrayList<>();
+        Runnable caller = () -> {
+            try {
+                tokens.getToken();
+            } catch (Throwable e) {
+                errors.add(e);
+            }
+        };
+        Thread fetcher = new Thread(caller);
+        fetcher.start();
+        fetching.await();
+        Thread waiter = new Thread(caller);
+        waiter.start();
+        long deadline = System.currentTimeMillis() + 2_000;
+        while (waiter.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+        fetcher.join(3_000);
+        waiter.join(3_000);
+
+        assertFalse(waiter.isAlive(), "waiting caller never woke up");
+        assertEquals(errors.size(), 2);
+        for (Throwable error : errors) {
+            assertTrue(error instanceof AssertionError, String.valueOf(error));
+        }
+        tokens.close();
+    }
+
+    @Test
+    public void restClientSendsTheCurrentToken() {
+        AtomicReference<String> token = new AtomicReference<>("first");
+        RestClient restClient = new RestClient(baseUri, "", null, ClientOptions.builder()
+                .loggingProfile(LoggingProfile.OFF)
+                .tokenProvider(token::get)
+                .build());
+
+        restClient.runSimpleWebService(Method.GET, "/me").body("auth", equalTo("Bearer first"));
+        token.set("second");
+        restClient.runSimpleWebService(Method.GET, "/me").body("auth", equalTo("Bearer second"));
+    }
+
+    private static String jwt(Long exp, String subject) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String payload = "{\"sub\":\"" + subject + "\"" + (exp != null ? ",\"exp\":" + exp : "") + "}";
+        return encoder.encodeToString("{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8))
+                + "." + encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + ".signature";
+    }
+}
@@ -0,0 +1,89 @@
+package com.mach.api.client;
+
+import com.mach.api.util.VirtualThreads;
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.http.Method;
+import io.restassured.response.Response;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Compares AsyncRestClient on the bounded platform-thread executor (Java 11 path) with a virtual-thread-per-task
+ * executor (Java 21 path) for many concurrent blocking calls against a local stub with fixed latency.
+ *
+ * Run with (virtual threads are only measured on Java 21+):
+ * <pre>
+ * mvn test-compile exec:java -Dexec.mainClass=com.mach.api.client.VirtualThreadComparison \
+ *     -Dexec.classpathScope=test -Dexec.args="10000 50"
+ * </pre>
+ * Arguments: number of concurrent requests (default 5000) and stub latency in milliseconds (default 50).
+ */
+public class VirtualThreadComparison {
+
+    private static final int PLATFORM_THREADS = 200;
+
+    public static void main(String[] args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        long latencyMillis = args.length > 1 ? Long.parseLong(args[1]) : 50;
+
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 4096);
+        ExecutorService serverExecutor = VirtualThreads.isAvailable()
+                ? VirtualThreads.newThreadPerTaskExecutor()
+                : Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "{\"status\":\"ok\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        try {
+            RestClient restClient = new RestClient("http://127.0.0.1:" + server.getAddress().getPort(), "",
+                    null, LoggingProfile.OFF);
+            System.out.printf("%d concurrent requests, %d ms server latency, Java %s%n",
+                    requests, latencyMillis, System.getProperty("java.version"));
+
+            try (AsyncRestClient platform = new AsyncRestClient(restClient, PLATFORM_THREADS, requests)) {
+                run("platform threads (" + PLATFORM_THREADS + ")", platform, Math.min(requests, 500));
+                run("platform threads (" + PLATFORM_THREADS + ")", platform, requests);
+            }
+
+            if (VirtualThreads.isAvailable()) {
+                try (AsyncRestClient virtual = AsyncRestClient.withVirtualThreads(restClient)) {
+                    run("virtual threads", virtual, Math.min(requests, 500));
+                    run("virtual threads", virtual, requests);
+                }
+            } else {
+                System.out.println("virtual threads: not available, run on Java 21+ (mvn -Pjava21)");
+            }
+        } finally {
+            server.stop(0);
+            serverExecutor.shutdownNow();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void run(String name, AsyncRestClient client, int requests) {
+        CompletableFuture<Response>[] futures = new CompletableFuture[requests];
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            futures[i] = client.runSimpleWebService(Method.GET, "/account");
+        }
+        CompletableFuture.allOf(futures).join();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%-28s %8d requests %8.2f s %10.0f req/s%n", name, requests, seconds, requests / seconds);
+    }
+}
@@ -0,0 +1,81 @@
+package com.mach.api.config;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for ApiConfig snapshots and atomic replacement.
+ */
+public class ApiConfigTest {
+
+    @AfterMethod(alwaysRun = true)
+    public void restoreConfiguration() {
+        ApiConfig.reload();
+    }
+
+    @Test
+    public void updatePublishesNewSnapshotWithoutChangingThePreviousOne() {
+        ApiConfig before = ApiConfig.getInstance();
+        assertSame(ApiConfig.getInstance(), before);
+
+        ApiConfig after = ApiConfig.update(config -> config.withProperty("api.bearer.token", "rotated-token"));
+
+        assertSame(ApiConfig.getInstance(), after);
+        assertEquals(after.getBearerToken(), "rotated-token");
+        assertEquals(before.getBearerToken(), before.getProperties().get("api.bearer.token"));
+        assertNull(after.withProperty("api.bearer.token", null).getBearerToken());
+    }
+
+    @Test
+    public void serviceConfigFollowsTheCurrentSnapshot() {
+        ServiceConfig before = ServiceConfig.forService("snapshot");
+
+        ApiConfig.update(config -> config.withProperty("api.snapshot.bearer.token", "service-token"));
+
+        assertEquals(ServiceConfig.forService("snapshot").getBearerToken(), "service-token");
+        assertNull(before.getBearerToken());
+    }
+
+    @Test
+    public void readersNeverSeeAPartialSwap() throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger inconsistent = new AtomicInteger();
+        Thread[] readers = new Thread[4];
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = new Thread(() -> {
+                while (running.get()) {
+                    ApiConfig config = ApiConfig.getInstance();
+                    if (!String.valueOf(config.getUsername()).equals(String.valueOf(config.getPassword()))) {
+                        inconsistent.incrementAndGet();
+                    }
+                }
+            });
+        }
+        ApiConfig.swap(ApiConfig.getInstance().withProperties(Map.of("api.username", "0", "api.password", "0")));
+        for (Thread reader : readers) {
+            reader.start();
+        }
+
+        for (int i = 1; i <= 10_000; i++) {
+            String value = String.valueOf(i);
+            ApiConfig.update(config -> config.withProperties(Map.of("api.username", value, "api.password", value)));
+        }
+        running.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertEquals(inconsistent.get(), 0);
+        assertTrue(ApiConfig.getInstance().hasAuth());
+        assertEquals(ApiConfig.getInstance().getUsername(), "10000");
+    }
+}
@@ -0,0 +1,79 @@
+package com.mach.api.config;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for the ServiceConfig cache, base URI overrides and hot reload of the properties file.
+ */
+public class ServiceConfigRegistryTest {
+
+    @AfterMethod(alwaysRun = true)
+    public void restoreConfiguration() {
+        ServiceConfigRegistry.stopWatching();
+        System.clearProperty("api.config.file");
+        System.clearProperty("api.registry.base.uri");
+        ServiceConfigRegistry.reload();
+    }
+
+    @Test
+    public void resolvesEachServiceOnce() {
+        System.setProperty("api.registry.base.uri", "http://first");
+        ServiceConfigRegistry.invalidate("registry");
+
+        ServiceConfig config = ServiceConfig.forService("registry");
+        System.setProperty("api.registry.base.uri", "http://second");
+
+        assertSame(ServiceConfig.forService("registry"), config);
+        assertEquals(ServiceConfig.forService("registry").getBaseUri(), "http://first");
+
+        ServiceConfigRegistry.invalidate("registry");
+
+        assertNotSame(ServiceConfig.forService("registry"), config);
+        assertEquals(ServiceConfig.forService("registry").getBaseUri(), "http://second");
+    }
+
+    @Test
+    public void baseUriOverrideIsNotRegistered() {
+        System.setProperty("api.registry.base.uri", "http://shared");
+        ServiceConfigRegistry.invalidate("registry");
+        ServiceConfig shared = ServiceConfig.forService("registry");
+
+        ServiceConfig mock = shared.withBaseUri("http://mock");
+
+        assertEquals(mock.getBaseUri(), "http://mock");
+        assertEquals(mock.getServiceName(), "registry");
+        assertEquals(mock.getRetryMaxAttempts(), shared.getRetryMaxAttempts());
+        assertSame(ServiceConfig.forService("registry"), shared);
+        assertEquals(shared.getBaseUri(), "http://shared");
+    }
+
+    @Test
+    public void reloadsWhenPropertiesFileChanges() throws IOException, InterruptedException {
+        Path file = Files.createTempDirectory("api-config").resolve("api.properties");
+        Files.write(file, "api.registry.base.uri=http://before\n".getBytes(StandardCharsets.UTF_8));
+        System.setProperty("api.config.file", file.toString());
+        ServiceConfigRegistry.reload();
+        assertEquals(ServiceConfig.forService("registry").getBaseUri(), "http://before");
+
+        assertTrue(ServiceConfigRegistry.startWatching());
+        Files.write(file, "api.registry.base.uri=http://after\n".getBytes(StandardCharsets.UTF_8));
+
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (!"http://after".equals(ServiceConfig.forService("registry").getBaseUri())
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(ServiceConfig.forService("registry").getBaseUri(), "http://after");
+    }
+}
@@ -0,0 +1,88 @@
+package com.mach.api.load;
+
+import com.mach.api.client.ClientOptions;
+import com.mach.api.client.LoggingProfile;
+import com.mach.api.client.RestClient;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Method;
+import io.restassured.response.Response;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for LoadEngine with an in-memory request supplier and a refused connection.
+ */
+public class LoadEngineTest {
+
+    @Test
+    public void openModelSendsAtTargetRate() {
+        LoadReport report = LoadEngine.run(LoadProfile.builder()
+                .targetRate(500)
+                .duration(Duration.ofSeconds(1))
+                .build(), () -> response(200));
+
+        assertTrue(report.getRequests() >= 450 && report.getRequests() <= 500, report.toString());
+        assertEquals(report.getErrors(), 0);
+        assertEquals(report.getDropped(), 0);
+    }
+
+    @Test
+    public void rampUpSendsHalfTheRequestsOfTheRampWindow() {
+        LoadReport report = LoadEngine.run(LoadProfile.builder()
+                .targetRate(1000)
+                .duration(Duration.ofSeconds(1))
+                .rampUp(Duration.ofSeconds(1))
+                .build(), () -> response(200));
+
+        assertTrue(report.getRequests() >= 450 && report.getRequests() <= 500, report.toString());
+    }
+
+    @Test
+    public void closedModelCountsErrors() {
+        AtomicLong calls = new AtomicLong();
+        LoadReport report = LoadEngine.run(LoadProfile.builder()
+                .concurrency(4)
+                .duration(Duration.ofMillis(300))
+                .build(), () -> response(calls.incrementAndGet() % 2 == 0 ? 503 : 201));
+
+        assertEquals(report.getRequests(), calls.get());
+        assertTrue(report.getErrors() > 0 && report.getErrors() < report.getRequests(), report.toString());
+        assertTrue(report.getP999() >= report.getP50());
+    }
+
+    @Test
+    public void closedModelCountsConnectionFailures() {
+        RestClient refused = new RestClient("http://127.0.0.1:1", "", null, ClientOptions.builder()
+                .loggingProfile(LoggingProfile.OFF)
+                .build());
+        LoadReport report = LoadEngine.run(LoadProfile.builder()
+                .concurrency(2)
+                .duration(Duration.ofSeconds(2))
+                .build(), () -> refused.runSimpleWebService(Method.GET, "/"));
+
+        assertTrue(report.getRequests() > 2, report.toString());
+        assertEquals(report.getErrors(), report.getRequests());
+    }
+
+    @Test
+    public void arrivalsAreEvenlySpacedWithoutRampUp() {
+        double ratePerNano = 100 / 1e9;
+
+        assertEquals(LoadEngine.arrivalOffsetNanos(0, ratePerNano, 0), 0);
+        assertEquals(LoadEngine.arrivalOffsetNanos(50, ratePerNano, 0), 500_000_000L);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void profileRequiresRateOrConcurrency() {
+        LoadEngine.run(LoadProfile.builder().duration(Duration.ofSeconds(1)).build(), () -> response(200));
+    }
+
+    private static Response response(int statusCode) {
+        return new ResponseBuilder().setStatusCode(statusCode).setBody("{}").build();
+    }
+}
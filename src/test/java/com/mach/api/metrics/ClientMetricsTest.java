@@ -0,0 +1,149 @@
+package com.mach.api.metrics;
+
+import com.mach.api.client.ClientOptions;
+import com.mach.api.client.LoggingProfile;
+import com.mach.api.client.RestClient;
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.http.Method;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Tests for ClientMetrics recorded through a RestClient against a local HTTP stub.
+ * Paths starting with /missing answer 404, everything else 200.
+ */
+public class ClientMetricsTest {
+
+    private HttpServer server;
+    private String baseUri;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            byte[] body = "{\"ok\":true}".getBytes(StandardCharsets.UTF_8);
+            int status = exchange.getRequestURI().getPath().startsWith("/missing") ? 404 : 200;
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        baseUri = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void recordsRequestsByResourceTemplateAndStatusClass() {
+        ClientMetrics metrics = new ClientMetrics();
+        RestClient restClient = new RestClient(baseUri, "", null, ClientOptions.builder()
+                .name("account")
+                .loggingProfile(LoggingProfile.OFF)
+                .metricsListener(metrics)
+                .build());
+
+        for (int i = 0; i < 10; i++) {
+            restClient.runSimpleWebService(Method.GET, Map.of(), "/accounts/{id}", Map.of("id", i)).statusCode(200);
+        }
+        restClient.runWebServiceWithBody(Method.POST, "/accounts", Map.of("name", "test")).statusCode(200);
+        restClient.runSimpleWebService(Method.GET, "/missing").statusCode(404);
+
+        Map<String, EndpointSnapshot> endpoints = metrics.snapshot().stream()
+                .collect(Collectors.toMap(e -> e.getMethod() + " " + e.getResource() + " " + e.getStatusClass(),
+                        e -> e));
+        assertEquals(endpoints.size(), 3);
+
+        EndpointSnapshot get = endpoints.get("GET /accounts/{id} 2xx");
+        assertEquals(get.getService(), "account");
+        assertEquals(get.getCount(), 10);
+        assertEquals(get.getErrorCount(), 0);
+        assertEquals(get.getResponseBytes(), 10 * "{\"ok\":true}".length());
+        assertTrue(get.getLatencyPercentile(99) > 0);
+        assertTrue(get.getTimeToFirstBytePercentile(50) <= get.getLatencyPercentile(50));
+
+        EndpointSnapshot post = endpoints.get("POST /accounts 2xx");
+        assertEquals(post.getCount(), 1);
+        assertEquals(post.getRequestBytes(), "{\"name\":\"test\"}".length());
+
+        EndpointSnapshot missing = endpoints.get("GET /missing 4xx");
+        assertEquals(missing.getErrorCount(), 1);
+    }
+
+    @Test
+    public void countsRefusedConnectionsAsErrors() {
+        ClientMetrics metrics = new ClientMetrics();
+        RestClient restClient = new RestClient("http://127.0.0.1:1", "", null, ClientOptions.builder()
+                .name("account")
+                .loggingProfile(LoggingProfile.OFF)
+                .metricsListener(metrics)
+                .build());
+
+        expectThrows(ConnectException.class, () -> restClient.runSimpleWebService(Method.GET, "/accounts"));
+
+        List<EndpointSnapshot> endpoints = metrics.snapshot();
+        assertEquals(endpoints.size(), 1);
+        assertEquals(endpoints.get(0).getResource(), "/accounts");
+        assertEquals(endpoints.get(0).getStatusClass(), ClientMetrics.ERROR);
+        assertEquals(endpoints.get(0).getErrorCount(), 1);
+    }
+
+    @Test
+    public void boundsTheResourcesOfAService() {
+        ClientMetrics metrics = new ClientMetrics(3);
+        for (int i = 0; i < 10; i++) {
+            metrics.onResponse("account", "GET", "/item/" + i, 200, 1_000_000, 500_000, 0, 16);
+        }
+        metrics.onResponse("account", "GET", "/item/1", 200, 1_000_000, 500_000, 0, 16);
+        metrics.onResponse("payment", "GET", "/item/9", 200, 1_000_000, 500_000, 0, 16);
+
+        Map<String, Long> counts = metrics.snapshot().stream()
+                .collect(Collectors.toMap(e -> e.getService() + " " + e.getResource(), EndpointSnapshot::getCount));
+        assertEquals(counts, Map.of(
+                "account /item/0", 1L,
+                "account /item/1", 2L,
+                "account /item/2", 1L,
+                "account " + ClientMetrics.OTHER_RESOURCE, 7L,
+                "payment /item/9", 1L));
+    }
+
+    @Test
+    public void exportsPrometheusText() {
+        ClientMetrics metrics = new ClientMetrics();
+        metrics.onResponse("account", "GET", "/accounts/{id}", 200, 2_000_000, 1_000_000, 0, 128);
+        metrics.onError("account", "POST", "/accounts", 5_000_000, new IOException("connection reset"));
+
+        String text = metrics.toPrometheusText();
+
+        assertTrue(text.contains("rest_client_requests_total{service=\"account\",method=\"GET\","
+                + "resource=\"/accounts/{id}\",status=\"2xx\"} 1"), text);
+        assertTrue(text.contains("rest_client_errors_total{service=\"account\",method=\"POST\","
+                + "resource=\"/accounts\",status=\"error\"} 1"), text);
+        assertTrue(text.contains("rest_client_latency_seconds{service=\"account\",method=\"GET\","
+                + "resource=\"/accounts/{id}\",status=\"2xx\",quantile=\"0.99\"}"), text);
+
+        List<EndpointSnapshot> snapshot = metrics.snapshot();
+        assertEquals(snapshot.size(), 2);
+        metrics.reset();
+        assertTrue(metrics.snapshot().isEmpty());
+    }
+}
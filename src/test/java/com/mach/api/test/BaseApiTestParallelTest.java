@@ -0,0 +1,48 @@
+package com.mach.api.test;
+
+import com.mach.api.config.ApiConfig;
+import com.sun.net.httpserver.HttpServer;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Runs {@link ParallelSuite} with TestNG parallel methods: every test must see only its own response and client.
+ * Speedup depends on the machine, so it is measured by hand with {@link ParallelScaling}.
+ */
+public class BaseApiTestParallelTest {
+
+    private final ExecutorService serverExecutor = Executors.newCachedThreadPool();
+    private HttpServer server;
+    private int instances;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = ParallelScaling.startStub(20, serverExecutor);
+        ParallelScaling.useStub(server);
+        instances = ParallelSuite.instances;
+        ParallelSuite.instances = 8;
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        ParallelSuite.instances = instances;
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        ApiConfig.reload();
+    }
+
+    @Test
+    public void parallelMethodsAreIsolated() {
+        ParallelScaling.runSuite(8);
+
+        assertTrue(new HashSet<>(ParallelSuite.CLIENT_OWNERS.values()).size() > 1, "tests ran on a single thread");
+    }
+}
@@ -0,0 +1,117 @@
+package com.mach.api.test;
+
+import com.mach.api.config.ApiConfig;
+import com.sun.net.httpserver.HttpServer;
+import org.testng.TestNG;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs the 500-test {@link ParallelSuite} with TestNG {@code parallel="methods"} and increasing thread counts
+ * against a local stub with fixed latency, and prints the speedup over one thread.
+ *
+ * Run with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.mainClass=com.mach.api.test.ParallelScaling \
+ *     -Dexec.classpathScope=test -Dexec.args="20 1,2,4,8,16"
+ * </pre>
+ * Arguments: stub latency in milliseconds (default 20) and thread counts (default 1,2,4,8,16).
+ */
+public class ParallelScaling {
+
+    public static void main(String[] args) throws IOException {
+        long latencyMillis = args.length > 0 ? Long.parseLong(args[0]) : 20;
+        String[] threadCounts = (args.length > 1 ? args[1] : "1,2,4,8,16").split(",");
+
+        ExecutorService serverExecutor = Executors.newCachedThreadPool();
+        HttpServer server = startStub(latencyMillis, serverExecutor);
+        try {
+            useStub(server);
+            System.out.printf("%d tests, %d ms server latency%n", ParallelSuite.instances * 10, latencyMillis);
+            runSuite(1);
+            double baseline = 0;
+            for (String threadCount : threadCounts) {
+                int threads = Integer.parseInt(threadCount.trim());
+                double seconds = runSuite(threads) / 1e9;
+                baseline = baseline == 0 ? seconds * threads : baseline;
+                System.out.printf("%3d threads %8.2f s  speedup %5.2fx  efficiency %3.0f%%%n",
+                        threads, seconds, baseline / seconds, 100 * baseline / seconds / threads);
+            }
+        } finally {
+            server.stop(0);
+            serverExecutor.shutdownNow();
+            ApiConfig.reload();
+        }
+    }
+
+    /**
+     * Start a stub answering every request after {@code latencyMillis} with its path as JSON
+     */
+    static HttpServer startStub(long latencyMillis, ExecutorService executor) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.setExecutor(executor);
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = ("{\"path\":\"" + exchange.getRequestURI().getPath() + "\"}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    /**
+     * Point BaseApiTest clients at the stub, without logging
+     */
+    static void useStub(HttpServer server) {
+        ApiConfig.update(config -> config
+                .withProperty("api.base.uri", "http://127.0.0.1:" + server.getAddress().getPort())
+                .withProperty("api.base.path", "")
+                .withProperty("api.logging.profile", "off"));
+    }
+
+    /**
+     * Run ParallelSuite with parallel methods
+     *
+     * @return Elapsed nanoseconds
+     * @throws AssertionError if a test failed
+     */
+    static long runSuite(int threads) {
+        XmlSuite suite = new XmlSuite();
+        suite.setName("parallel-scaling");
+        suite.setParallel(XmlSuite.ParallelMode.METHODS);
+        suite.setThreadCount(threads);
+        XmlTest test = new XmlTest(suite);
+        test.setName("parallel-suite");
+        test.setXmlClasses(List.of(new XmlClass(ParallelSuite.class)));
+
+        TestNG testng = new TestNG(false);
+        testng.setXmlSuites(List.of(suite));
+        testng.setVerbose(0);
+        ParallelSuite.CLIENT_OWNERS.clear();
+        long start = System.nanoTime();
+        testng.run();
+        long elapsed = System.nanoTime() - start;
+        if (testng.hasFailure()) {
+            throw new AssertionError("ParallelSuite failed with " + threads + " threads");
+        }
+        return elapsed;
+    }
+}
@@ -0,0 +1,99 @@
+package com.mach.api.test;
+
+import com.mach.api.client.RestClient;
+import com.mach.api.util.ResponseExtractor;
+import com.mach.api.util.SessionStorage;
+import io.restassured.http.Method;
+import io.restassured.response.Response;
+import org.testng.annotations.Factory;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Synthetic BaseApiTest suite: {@link #instances} instances of ten test methods, each sending one request with a
+ * unique path to a stub that echoes it. Every test checks that its response, the SessionStorage of its thread
+ * and its RestClient belong to it alone. Run by {@link ParallelScaling} and BaseApiTestParallelTest, it is not
+ * picked up by surefire.
+ */
+public class ParallelSuite extends BaseApiTest {
+
+    static volatile int instances = 50;
+    static final Map<RestClient, Thread> CLIENT_OWNERS = new ConcurrentHashMap<>();
+
+    @Factory
+    public static Object[] create() {
+        Object[] tests = new Object[instances];
+        for (int i = 0; i < tests.length; i++) {
+            tests[i] = new ParallelSuite();
+        }
+        return tests;
+    }
+
+    @Test
+    public void test01() {
+        sendAndCheck();
+    }
+
+    @Test
+    public void test02() {
+        sendAndCheck();
+    }
+
+    @Test
+    public void test03() {
+        sendAndCheck();
+    }
+
+    @Test
+    public void test04() {
+        sendAndCheck();
+    }
+
+    @Test
+    public void test05() {
+        sendAndCheck();
+    }
+
+    @Test
+    public void test06() {
+        sendAndCheck();
+    }
+
+    @Test
+    public void test07() {
+        sendAndCheck();
+    }
+
+    @Test
+    public void test08() {
+        sendAndCheck();
+    }
+
+    @Test
+    public void test09() {
+        sendAndCheck();
+    }
+
+    @Test
+    public void test10() {
+        sendAndCheck();
+    }
+
+    private void sendAndCheck() {
+        assertEquals(SessionStorage.getLastResponse(), null, "session not cleared before the test");
+
+        String resource = "/item/" + UUID.randomUUID();
+        Response response = runSimpleWebService(Method.GET, resource).statusCode(200).extract().response();
+
+        assertEquals(ResponseExtractor.extractJsonPath(response, "path"), resource);
+        assertEquals(ResponseExtractor.extractJsonPath(SessionStorage.getLastResponse(), "path"), resource);
+        Thread owner = CLIENT_OWNERS.putIfAbsent(getRestClient(), Thread.currentThread());
+        assertTrue(owner == null || owner == Thread.currentThread(), "RestClient shared between threads");
+    }
+}
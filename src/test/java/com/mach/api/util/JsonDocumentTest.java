@@ -0,0 +1,115 @@
+package com.mach.api.util;
+
+import com.mach.api.account.model.AccountResponse;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.response.Response;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for the parsed-document cache and precompiled paths.
+ */
+public class JsonDocumentTest {
+
+    private static final String BODY = "{\"accountId\":\"acc-1\",\"status\":\"ACTIVE\",\"count\":3,\"enabled\":true,"
+            + "\"rate\":1.23456789,\"total\":1e40,\"id\":12345678901234567890,"
+            + "\"data\":{\"balance\":10.5,\"owner\":null,\"items\":[{\"id\":1,\"name\":\"first\"},"
+            + "{\"id\":2,\"name\":\"second\"}],\"address\":{\"city\":\"Santiago\"}}}";
+
+    @AfterMethod(alwaysRun = true)
+    public void clearCache() {
+        JsonDocument.clearCurrentThread();
+    }
+
+    @Test
+    public void parsesEachResponseOnce() {
+        Response response = response(BODY);
+        JsonDocument document = ResponseExtractor.document(response);
+
+        assertSame(ResponseExtractor.document(response), document);
+        assertSame(document.getRoot(), ResponseExtractor.document(response).getRoot());
+        assertNotSame(ResponseExtractor.document(response(BODY)), document);
+    }
+
+    @Test
+    public void keepsDocumentsWhileTheirResponseIsReachable() throws InterruptedException {
+        Response first = response(BODY);
+        JsonDocument document = JsonDocument.of(first);
+        for (int i = 0; i < 10; i++) {
+            JsonDocument.of(response(BODY));
+        }
+        assertSame(JsonDocument.of(first), document);
+
+        WeakReference<JsonDocument> released = new WeakReference<>(JsonDocument.of(response(BODY)));
+        for (int i = 0; i < 50 && released.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+            // WeakHashMap drops the entries of collected responses on its next access
+            JsonDocument.of(first);
+        }
+        assertNull(released.get());
+    }
+
+    @Test
+    public void matchesRestAssuredJsonPath() {
+        Response response = response(BODY);
+        List<String> paths = List.of("accountId", "count", "enabled", "rate", "total", "id", "data.balance",
+                "data.owner", "data.missing", "data.items[1].name", "data.items[5].name", "data.items.id",
+                "data.items.size()", "data.address", "$.status", "data.items.find { it.id == 2 }.name");
+
+        for (String path : paths) {
+            String expected = response.jsonPath().getString(path);
+            assertEquals(ResponseExtractor.extractJsonPath(response, path), expected, path);
+            if (CompiledJsonPath.isSimple(path)) {
+                assertEquals(ResponseExtractor.extractJsonPath(response, CompiledJsonPath.compile(path)), expected, path);
+            }
+        }
+    }
+
+    @Test
+    public void evaluatesCompiledPaths() {
+        CompiledJsonPath city = CompiledJsonPath.compile("data.address.city");
+        CompiledJsonPath firstItem = CompiledJsonPath.compile("data.items[0]");
+        Response response = response(BODY);
+
+        assertEquals(ResponseExtractor.extractJsonPath(response, city), "Santiago");
+        assertEquals(ResponseExtractor.extractJsonPath(response, firstItem, Map.class), Map.of("id", 1, "name", "first"));
+        assertEquals(JsonDocument.parse("{\"accountId\":\"acc-1\",\"status\":\"ACTIVE\"}".getBytes())
+                .get(CompiledJsonPath.compile("$"), AccountResponse.class)
+                .getAccountId(), "acc-1");
+        assertNull(ResponseExtractor.extractJsonPath(response, CompiledJsonPath.compile("data.owner.name")));
+    }
+
+    @Test
+    public void recognizesSimplePaths() {
+        assertTrue(CompiledJsonPath.isSimple("data.items[0].id"));
+        assertFalse(CompiledJsonPath.isSimple("$.data"));
+        assertFalse(CompiledJsonPath.isSimple("data.items.size()"));
+        assertFalse(CompiledJsonPath.isSimple("data.items[-1]"));
+        assertFalse(CompiledJsonPath.isSimple("data.'first-name'"));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void rejectsGPathInCompile() {
+        CompiledJsonPath.compile("data.items.findAll { it.id > 1 }");
+    }
+
+    private static Response response(String body) {
+        return new ResponseBuilder()
+                .setStatusCode(200)
+                .setContentType("application/json")
+                .setBody(body)
+                .build();
+    }
+}
@@ -0,0 +1,132 @@
+package com.mach.api.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.mach.api.account.model.AccountAction;
+import com.mach.api.account.model.AccountRequest;
+import com.mach.api.account.model.AccountResponse;
+import com.mach.api.client.LoggingProfile;
+import com.mach.api.client.RestClient;
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Method;
+import io.restassured.response.Response;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Tests for the shared Jackson configuration, against a local HTTP stub that echoes the request body.
+ */
+public class JsonMappingTest {
+
+    private HttpServer server;
+    private String baseUri;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        baseUri = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void cachesReadersAndWritersPerType() {
+        assertSame(JsonMapping.readerFor(AccountResponse.class), JsonMapping.readerFor(AccountResponse.class));
+        assertSame(JsonMapping.writerFor(AccountRequest.class), JsonMapping.writerFor(AccountRequest.class));
+        assertSame(JsonMapping.readerFor(TypeFactory.defaultInstance()
+                        .constructCollectionType(List.class, AccountResponse.class)),
+                JsonMapping.readerFor(TypeFactory.defaultInstance()
+                        .constructCollectionType(List.class, AccountResponse.class)));
+    }
+
+    @Test
+    public void roundTripsModelsThroughRestClient() {
+        AccountRequest request = AccountRequest.builder()
+                .actions(new AccountAction[]{AccountAction.builder()
+                        .name("create-user")
+                        .args(Map.of("email", "user@example.com", "age", 30))
+                        .build()})
+                .build();
+        RestClient restClient = new RestClient(baseUri, "", null, LoggingProfile.OFF);
+
+        Response response = restClient.runWebServiceWithBody(Method.POST, "/accounts", request)
+                .extract().response();
+
+        assertEquals(ResponseExtractor.asObject(response, AccountRequest.class), request);
+        assertEquals(response.as(AccountRequest.class), request);
+    }
+
+    @Test
+    public void writesBytesThroughReusedBuffer() throws IOException {
+        AccountRequest large = AccountRequest.builder()
+                .actions(new AccountAction[]{AccountAction.builder()
+                        .name("bulk")
+                        .args(Map.of("payload", "x".repeat(100_000)))
+                        .build()})
+                .build();
+        AccountRequest small = AccountRequest.builder().actions(new AccountAction[0]).build();
+
+        byte[] largeBytes = JsonMapping.writeValueAsBytes(large);
+        byte[] smallBytes = JsonMapping.writeValueAsBytes(small);
+
+        assertEquals(largeBytes, JsonMapping.mapper().writeValueAsBytes(large));
+        assertEquals(new String(smallBytes, StandardCharsets.UTF_8), "{\"actions\":[]}");
+    }
+
+    @Test
+    public void failsOnUnknownPropertiesByDefault() throws IOException {
+        String body = "{\"accountId\":\"acc-1\",\"status\":\"CREATED\",\"createdAt\":\"2024-01-01\"}";
+        Response response = new ResponseBuilder()
+                .setStatusCode(200)
+                .setContentType("application/json")
+                .setBody(body)
+                .build();
+
+        expectThrows(UncheckedIOException.class, () -> ResponseExtractor.asObject(response, AccountResponse.class));
+        assertEquals(JsonMapping.createMapper("none", false).readValue(body, AccountResponse.class).getAccountId(),
+                "acc-1");
+    }
+
+    @Test
+    public void registersBlackbirdWhenRequested() {
+        ObjectMapper mapper = JsonMapping.createMapper("blackbird", true);
+
+        assertTrue(mapper.getRegisteredModuleIds().stream()
+                .anyMatch(id -> id.toString().toLowerCase().contains("blackbird")), mapper.getRegisteredModuleIds()
+                .toString());
+        assertTrue(JsonMapping.createMapper("none", false).getRegisteredModuleIds().stream()
+                .noneMatch(id -> id.toString().toLowerCase().contains("blackbird")));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void rejectsUnknownModule() {
+        JsonMapping.createMapper("turbo", false);
+    }
+}
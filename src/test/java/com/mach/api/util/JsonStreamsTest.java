@@ -0,0 +1,116 @@
+package com.mach.api.util;
+
+import com.mach.api.account.model.AccountResponse;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for streaming JSON extraction.
+ */
+public class JsonStreamsTest {
+
+    private static final String ACCOUNTS = "{\"meta\":{\"page\":1,\"tags\":[\"a\",{\"x\":[1,2]}]},"
+            + "\"data\":{\"accounts\":["
+            + "{\"accountId\":\"acc-1\",\"status\":\"ACTIVE\",\"data\":{\"balance\":10}},"
+            + "{\"accountId\":\"acc-2\",\"status\":\"BLOCKED\",\"data\":null},"
+            + "{\"accountId\":\"acc-3\",\"status\":\"ACTIVE\",\"data\":{}}"
+            + "],\"total\":3}}";
+
+    @Test
+    public void streamsArrayElementsIntoTypedObjects() {
+        try (Stream<AccountResponse> accounts = JsonStreams.streamArray(json(ACCOUNTS), "data.accounts",
+                AccountResponse.class)) {
+            List<String> active = accounts
+                    .filter(account -> "ACTIVE".equals(account.getStatus()))
+                    .map(AccountResponse::getAccountId)
+                    .collect(Collectors.toList());
+            assertEquals(active, List.of("acc-1", "acc-3"));
+        }
+    }
+
+    @Test
+    public void streamsRootArrayAndMissingPath() {
+        try (Stream<Map> values = JsonStreams.streamArray(json("[{\"id\":1},{\"id\":2}]"), "", Map.class)) {
+            assertEquals(values.count(), 2);
+        }
+        try (Stream<Map> values = JsonStreams.streamArray(json(ACCOUNTS), "data.missing", Map.class)) {
+            assertEquals(values.count(), 0);
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void rejectsPathThatIsNotAnArray() {
+        JsonStreams.streamArray(json(ACCOUNTS), "data.total", Map.class);
+    }
+
+    @Test
+    public void extractsSingleValueWithoutTree() {
+        assertEquals(JsonStreams.extractPath(json(ACCOUNTS), "data.accounts[1].accountId", String.class), "acc-2");
+        assertEquals(JsonStreams.extractPath(json(ACCOUNTS), "$.data.total", Integer.class), Integer.valueOf(3));
+        assertEquals(JsonStreams.extractPath(json(ACCOUNTS), "data.accounts[0].data.balance", String.class), "10");
+        assertEquals(JsonStreams.extractPath(json(ACCOUNTS), "data.accounts[2]", AccountResponse.class)
+                .getAccountId(), "acc-3");
+        assertNull(JsonStreams.extractPath(json(ACCOUNTS), "data.accounts[5].accountId", String.class));
+        assertNull(JsonStreams.extractPath(json(ACCOUNTS), "meta.page.value", String.class));
+    }
+
+    @Test
+    public void parsesPaths() {
+        assertEquals(JsonStreams.parsePath("data.items[2].id"), List.of("data", "items", 2, "id"));
+        assertEquals(JsonStreams.parsePath("[0][1]"), List.of(0, 1));
+        assertTrue(JsonStreams.parsePath("$").isEmpty());
+    }
+
+    @Test
+    public void streamsPayloadLargerThanMemoryItWouldTakeAsTree() {
+        int elements = 500_000;
+        try (Stream<Map> values = JsonStreams.streamArray(new GeneratedArrayInputStream(elements), "items",
+                Map.class)) {
+            assertEquals(values.count(), elements);
+        }
+    }
+
+    private static InputStream json(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Produces {"items":[{"id":0,"name":"user-0"},...]} on the fly, without holding the payload in memory
+     */
+    private static final class GeneratedArrayInputStream extends InputStream {
+        private final int elements;
+        private int next;
+        private byte[] chunk = "{\"items\":[".getBytes(StandardCharsets.UTF_8);
+        private int position;
+
+        private GeneratedArrayInputStream(int elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        public int read() {
+            if (position == chunk.length) {
+                if (next > elements) {
+                    return -1;
+                }
+                String element = next == elements ? "]}"
+                        : (next > 0 ? "," : "") + "{\"id\":" + next + ",\"name\":\"user-" + next + "\"}";
+                chunk = element.getBytes(StandardCharsets.UTF_8);
+                position = 0;
+                next++;
+            }
+            return chunk[position++];
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.mach.api.util;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.response.Response;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for the per-thread SessionStorage.
+ */
+public class SessionStorageTest {
+
+    @AfterMethod(alwaysRun = true)
+    public void clearSession() {
+        SessionStorage.setHistorySize(0);
+        SessionStorage.clear();
+    }
+
+    @Test
+    public void lastResponseIsIsolatedPerThread() throws InterruptedException {
+        Response mine = response(200);
+        SessionStorage.setLastResponse(mine);
+
+        AtomicReference<Response> seenByOtherThread = new AtomicReference<>(mine);
+        Thread other = new Thread(() -> {
+            seenByOtherThread.set(SessionStorage.getLastResponse());
+            SessionStorage.setLastResponse(response(500));
+        });
+        other.start();
+        other.join();
+
+        assertNull(seenByOtherThread.get());
+        assertSame(SessionStorage.getLastResponse(), mine);
+    }
+
+    @Test
+    public void historyKeepsLastResponsesOldestFirst() {
+        SessionStorage.setHistorySize(3);
+        for (int status = 200; status < 205; status++) {
+            SessionStorage.setLastResponse(response(status));
+        }
+
+        List<Response> history = SessionStorage.getHistory();
+        assertEquals(history.size(), 3);
+        assertEquals(history.get(0).getStatusCode(), 202);
+        assertEquals(history.get(2).getStatusCode(), 204);
+        assertEquals(SessionStorage.getLastResponse().getStatusCode(), 204);
+    }
+
+    @Test
+    public void historyIsDisabledByDefault() {
+        SessionStorage.setLastResponse(response(200));
+
+        assertTrue(SessionStorage.getHistory().isEmpty());
+    }
+
+    private static Response response(int statusCode) {
+        return new ResponseBuilder().setStatusCode(statusCode).setBody("{}").build();
+    }
+}